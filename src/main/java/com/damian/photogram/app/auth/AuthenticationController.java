@@ -2,6 +2,7 @@ package com.damian.photogram.app.auth;
 
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,9 +25,10 @@ public class AuthenticationController {
     @PostMapping("/auth/login")
     public ResponseEntity<?> login(
             @Validated @RequestBody
-            AuthenticationRequest request
+            AuthenticationRequest request,
+            HttpServletRequest httpRequest
     ) {
-        AuthenticationResponse authResponse = authenticationService.login(request);
+        AuthenticationResponse authResponse = authenticationService.login(request, httpRequest.getRemoteAddr());
 
         return ResponseEntity
                 .status(HttpStatus.OK)
@@ -34,6 +36,30 @@ public class AuthenticationController {
                 .body(authResponse);
     }
 
+    // endpoint to get a new token before the current one expires
+    @PostMapping("/auth/token/refresh")
+    public ResponseEntity<?> refreshToken() {
+        AuthenticationResponse authResponse = authenticationService.refreshToken();
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .header(HttpHeaders.AUTHORIZATION, authResponse.token())
+                .body(authResponse);
+    }
+
+    // endpoint to revoke the token of the request
+    @PostMapping("/auth/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(HttpHeaders.AUTHORIZATION)
+            String authorization
+    ) {
+        authenticationService.logout(authorization.substring("Bearer ".length()));
+
+        return ResponseEntity
+                .noContent()
+                .build();
+    }
+
     // endpoint for token validation
     @GetMapping("/auth/token/validate")
     public ResponseEntity<?> tokenValidation(
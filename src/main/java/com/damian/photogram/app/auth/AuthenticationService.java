@@ -3,11 +3,17 @@ package com.damian.photogram.app.auth;
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.TooManyPasswordAttemptsException;
+import com.damian.photogram.core.security.PasswordAttemptThrottle;
+import com.damian.photogram.core.utils.AuthHelper;
 import com.damian.photogram.core.utils.JwtUtil;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.account.exception.AccountNotVerifiedException;
 import com.damian.photogram.domain.account.exception.AccountSuspendedException;
+import com.damian.photogram.domain.customer.exception.CustomerNotFoundException;
 import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,28 +26,42 @@ import java.util.HashMap;
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final CustomerRepository customerRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordAttemptThrottle passwordAttemptThrottle;
 
     public AuthenticationService(
             JwtUtil jwtUtil,
-            AuthenticationManager authenticationManager
+            AuthenticationManager authenticationManager,
+            CustomerRepository customerRepository,
+            TokenRevocationService tokenRevocationService,
+            PasswordAttemptThrottle passwordAttemptThrottle
     ) {
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.customerRepository = customerRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordAttemptThrottle = passwordAttemptThrottle;
     }
 
     /**
      * Controls the login flow.
      *
-     * @param request Contains the fields needed to login into the service
+     * @param request       Contains the fields needed to login into the service
+     * @param remoteAddress the ip of the client, used to throttle the attempts
      * @return Contains the data (Customer, Profile) and the token
-     * @throws BadCredentialsException     if credentials are invalid
-     * @throws AccountNotVerifiedException if the account is not verified
+     * @throws TooManyPasswordAttemptsException if there are too many attempts for the email or the ip
+     * @throws BadCredentialsException          if credentials are invalid
+     * @throws AccountNotVerifiedException      if the account is not verified
      */
-    public AuthenticationResponse login(AuthenticationRequest request) {
+    public AuthenticationResponse login(AuthenticationRequest request, String remoteAddress) {
         final String email = request.email();
         final String password = request.password();
         final Authentication auth;
 
+        // reject the attempt before hashing the password
+        passwordAttemptThrottle.acquire(email, remoteAddress);
+
         try {
             // Authenticate the user
             auth = authenticationManager.authenticate(
@@ -56,15 +76,9 @@ public class AuthenticationService {
 
         // Get the authenticated user
         final Customer customer = (Customer) auth.getPrincipal();
-        final HashMap<String, Object> claims = new HashMap<>();
-        claims.put("email", customer.getEmail());
-        claims.put("role", customer.getRole());
 
         // Generate a token for the authenticated user
-        final String token = jwtUtil.generateToken(
-                claims,
-                email
-        );
+        final String token = this.generateToken(customer);
 
         // check if the account is disabled
         if (customer.getAccount().getAccountStatus().equals(AccountStatus.SUSPENDED)) {
@@ -85,4 +99,67 @@ public class AuthenticationService {
                 token
         );
     }
+
+    /**
+     * Issue a new token for the current customer.
+     * The customer is loaded again, so a suspended account cannot keep renewing its token.
+     *
+     * @return Contains the new token
+     * @throws CustomerNotFoundException  if the customer no longer exists
+     * @throws AccountSuspendedException   if the account is suspended
+     * @throws AccountNotVerifiedException if the account is not verified
+     */
+    public AuthenticationResponse refreshToken() {
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        final Customer customer = customerRepository.findById(currentCustomerId).orElseThrow(
+                () -> new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND)
+        );
+
+        // check if the account is disabled
+        if (customer.getAccount().getAccountStatus().equals(AccountStatus.SUSPENDED)) {
+            throw new AccountSuspendedException(
+                    Exceptions.ACCOUNT.SUSPENDED
+            );
+        }
+
+        // check if the account is verified
+        if (customer.getAccount().getAccountStatus().equals(AccountStatus.PENDING_VERIFICATION)) {
+            throw new AccountNotVerifiedException(
+                    Exceptions.ACCOUNT.EMAIL_NOT_VERIFIED
+            );
+        }
+
+        return new AuthenticationResponse(
+                this.generateToken(customer)
+        );
+    }
+
+    /**
+     * Revoke the token of the current request so it is not accepted anymore.
+     *
+     * @param token the token used to authenticate the request
+     */
+    public void logout(String token) {
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // the token was verified by the filter, its claims are cached
+        final Claims claims = jwtUtil.getVerifiedClaims(token);
+
+        tokenRevocationService.revoke(claims.getId(), currentCustomerId, claims.getExpiration());
+    }
+
+    // the claims are enough to authenticate the requests without loading the customer
+    private String generateToken(Customer customer) {
+        final HashMap<String, Object> claims = new HashMap<>();
+        claims.put("email", customer.getEmail());
+        claims.put(JwtUtil.CLAIM_ROLE, customer.getRole().name());
+        claims.put(JwtUtil.CLAIM_CUSTOMER_ID, customer.getId());
+        claims.put(JwtUtil.CLAIM_STATUS, customer.getAccount().getAccountStatus().name());
+
+        return jwtUtil.generateToken(
+                claims,
+                customer.getEmail()
+        );
+    }
 }
@@ -0,0 +1,182 @@
+package com.damian.photogram.app.auth;
+
+import com.damian.photogram.app.auth.model.RevokedToken;
+import com.damian.photogram.app.auth.repository.RevokedTokenRepository;
+import com.damian.photogram.core.utils.TimeBucketedSet;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the tokens revoked before they expire, such as the ones of a logout,
+ * and the times before which the tokens of a customer are rejected.
+ * They are stored in customer_revoked_tokens and kept in memory bucketed by expiration,
+ * so the check done on every request never goes to the database.
+ * The rows revoked by other instances are loaded on every sync.
+ */
+@Service
+public class TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.auth.revocations.bucket-width:60000}")
+    private long bucketWidth;
+
+    @Value("${app.auth.revocations.sync-interval:60000}")
+    private long syncInterval;
+
+    @Value("${app.jwt.expiration:900000}")
+    private long tokenExpiration;
+
+    // jti of the revoked tokens that have not expired yet
+    private TimeBucketedSet<String> revokedTokens;
+
+    // customer id -> time before which its tokens are not accepted, kept as long as
+    // a token issued before it can still be valid. It is never evicted, only pruned once expired,
+    // as dropping a live entry would accept again every token of the customer
+    private final Map<Long, CustomerRevocation> revokedCustomers = new ConcurrentHashMap<>();
+
+    // the rows revoked after this time are loaded in the next sync
+    private Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        revokedTokens = new TimeBucketedSet<>(bucketWidth);
+    }
+
+    /**
+     * Revoke a token until it expires.
+     *
+     * @param jti        the id of the token
+     * @param customerId the id of the customer owning the token
+     * @param expiresAt  the expiration of the token
+     */
+    public void revoke(String jti, Long customerId, Date expiresAt) {
+        // tokens without id can not be revoked one by one, they expire soon anyway
+        if (jti == null || expiresAt == null || !expiresAt.after(new Date())) {
+            return;
+        }
+
+        revokedTokenRepository.save(new RevokedToken(jti, customerId, expiresAt.toInstant()));
+        revokedTokens.add(jti, expiresAt.getTime());
+    }
+
+    /**
+     * Check if a token was revoked.
+     *
+     * @param jti       the id of the token
+     * @param expiresAt the expiration of the token
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+
+        return revokedTokens.contains(jti, expiresAt.getTime());
+    }
+
+    /**
+     * Revoke every token of a customer issued until now.
+     *
+     * @param customerId the id of the customer
+     */
+    public void revokeAll(Long customerId) {
+        // the issue time of a token has a precision of seconds
+        final long now = System.currentTimeMillis();
+        final long revokedAt = now - now % 1000;
+        final long expiresAt = now + tokenExpiration;
+
+        revokedTokenRepository.save(
+                RevokedToken.ofCustomer(customerId, Instant.ofEpochMilli(revokedAt), Instant.ofEpochMilli(expiresAt))
+        );
+        this.addRevokedCustomer(customerId, new CustomerRevocation(revokedAt, expiresAt));
+    }
+
+    /**
+     * Check if a token of the customer was issued before its tokens were revoked.
+     *
+     * @param customerId the id of the customer
+     * @param issuedAt   the issue time of the token
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(Long customerId, Date issuedAt) {
+        CustomerRevocation revocation = revokedCustomers.get(customerId);
+        if (revocation == null || revocation.expiresAt() <= System.currentTimeMillis()) {
+            return false;
+        }
+
+        return issuedAt == null || issuedAt.getTime() < revocation.revokedAt();
+    }
+
+    /**
+     * Drop the expired tokens and load the ones revoked since the last sync.
+     *
+     * @return int the number of revoked tokens loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.auth.revocations.sync-interval:60000}",
+            fixedDelayString = "${app.auth.revocations.sync-interval:60000}"
+    )
+    public synchronized int sync() {
+        final Instant now = Instant.now();
+
+        revokedTokens.prune(now.toEpochMilli());
+        revokedCustomers.values().removeIf(revocation -> revocation.expiresAt() <= now.toEpochMilli());
+        revokedTokenRepository.deleteExpired(now);
+
+        // overlap the previous sync so rows committed late by other instances are not missed
+        final Instant since = lastSync.equals(Instant.EPOCH) ? lastSync : lastSync.minusMillis(syncInterval);
+
+        int loaded = 0;
+        for (RevokedToken token : revokedTokenRepository.findActiveRevokedSince(since, now)) {
+            if (token.isCustomerWide()) {
+                CustomerRevocation revocation = new CustomerRevocation(
+                        token.getRevokedAt().toEpochMilli(),
+                        token.getExpiresAt().toEpochMilli()
+                );
+                if (this.addRevokedCustomer(token.getCustomerId(), revocation)) {
+                    loaded++;
+                }
+            } else if (revokedTokens.add(token.getJti(), token.getExpiresAt().toEpochMilli())) {
+                loaded++;
+            }
+        }
+
+        lastSync = now;
+        return loaded;
+    }
+
+    // a later revocation of the customer is kept over an earlier one, returns true if it changed
+    private boolean addRevokedCustomer(Long customerId, CustomerRevocation revocation) {
+        final CustomerRevocation previous = revokedCustomers.get(customerId);
+        final CustomerRevocation current = revokedCustomers.merge(customerId, revocation, CustomerRevocation::latest);
+        return !current.equals(previous);
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    private record CustomerRevocation(long revokedAt, long expiresAt) {
+        // the later revocation, kept until the last token it rejects expires
+        CustomerRevocation latest(CustomerRevocation other) {
+            return new CustomerRevocation(
+                    Math.max(revokedAt, other.revokedAt),
+                    Math.max(expiresAt, other.expiresAt)
+            );
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.damian.photogram.app.auth.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A token that must not be accepted anymore, identified by its jti claim.
+ * A row can also revoke every token of a customer issued before its revokedAt,
+ * such as when the password changes. The row is only needed until the token expires.
+ */
+@Entity
+@Table(name = "customer_revoked_tokens")
+public class RevokedToken {
+    // jti of the rows revoking every token of a customer, the jti of a token is a uuid so they never collide
+    private static final String CUSTOMER_PREFIX = "customer:";
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    // no foreign key, the rows of a deleted customer expire with its tokens
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Long customerId, Instant expiresAt) {
+        this.jti = jti;
+        this.customerId = customerId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = Instant.now();
+    }
+
+    /**
+     * Revoke every token of a customer issued before the given time.
+     *
+     * @param customerId the id of the customer
+     * @param revokedAt  the tokens issued before this time are rejected
+     * @param expiresAt  the expiration of the last token issued before revokedAt
+     * @return RevokedToken the row, replacing the previous one of the customer
+     */
+    public static RevokedToken ofCustomer(Long customerId, Instant revokedAt, Instant expiresAt) {
+        return new RevokedToken(CUSTOMER_PREFIX + customerId, customerId, expiresAt).setRevokedAt(revokedAt);
+    }
+
+    public boolean isCustomerWide() {
+        return jti.startsWith(CUSTOMER_PREFIX);
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public RevokedToken setJti(String jti) {
+        this.jti = jti;
+        return this;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public RevokedToken setCustomerId(Long customerId) {
+        this.customerId = customerId;
+        return this;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RevokedToken setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public RevokedToken setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedToken {" +
+               "jti=" + jti +
+               ", customerId=" + customerId +
+               ", expiresAt=" + expiresAt +
+               ", revokedAt=" + revokedAt +
+               "}";
+    }
+}
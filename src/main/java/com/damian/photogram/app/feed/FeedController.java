@@ -1,6 +1,10 @@
 package com.damian.photogram.app.feed;
 
 import com.damian.photogram.app.feed.dto.response.FeedDto;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.post.dto.response.PostDto;
+import com.damian.photogram.domain.post.mapper.PostDtoMapper;
+import com.damian.photogram.domain.post.model.Post;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -8,16 +12,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequestMapping("/api/v1")
 @RestController
 public class FeedController {
     private final FeedService feedService;
+    private final TimelineService timelineService;
 
     @Autowired
-    public FeedController(FeedService feedService) {
+    public FeedController(
+            FeedService feedService,
+            TimelineService timelineService
+    ) {
         this.feedService = feedService;
+        this.timelineService = timelineService;
     }
 
     // endpoint to fetch feed data from specific customer
@@ -32,5 +42,20 @@ public class FeedController {
                 .status(HttpStatus.OK)
                 .body(feedDTO);
     }
-}
 
+    // endpoint to fetch the home timeline of the logged customer
+    @GetMapping("feed/home")
+    public ResponseEntity<?> getHomeTimeline(
+            @RequestParam(required = false)
+            String before,
+            @RequestParam(defaultValue = "6")
+            int size
+    ) {
+        CursorPage<Post> posts = timelineService.getHomeTimeline(before, size);
+        CursorPage<PostDto> postsDTO = PostDtoMapper.toPostDtoCursorPage(posts);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(postsDTO);
+    }
+}
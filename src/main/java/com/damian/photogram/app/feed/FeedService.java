@@ -1,44 +1,33 @@
 package com.damian.photogram.app.feed;
 
 import com.damian.photogram.app.feed.dto.response.FeedDto;
+import com.damian.photogram.app.feed.repository.FeedRepository;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.domain.customer.exception.CustomerNotFoundException;
-import com.damian.photogram.domain.customer.model.Profile;
-import com.damian.photogram.domain.customer.repository.FollowRepository;
-import com.damian.photogram.domain.customer.repository.ProfileRepository;
-import com.damian.photogram.domain.post.repository.PostRepository;
 import org.springframework.stereotype.Service;
 
 
 @Service
 public class FeedService {
-    private final PostRepository postRepository;
-    private final ProfileRepository profileRepository;
-    private final FollowRepository followRepository;
+    private final FeedRepository feedRepository;
 
     public FeedService(
-            PostRepository postRepository,
-            ProfileRepository profileRepository,
-            FollowRepository followRepository
+            FeedRepository feedRepository
     ) {
-        this.postRepository = postRepository;
-        this.profileRepository = profileRepository;
-        this.followRepository = followRepository;
+        this.feedRepository = feedRepository;
     }
 
+    /**
+     * Get the feed header (profile and counters) of a customer.
+     * It is built from a single query.
+     *
+     * @param username the username of the customer
+     * @return FeedDto the feed data
+     * @throws CustomerNotFoundException if no customer has this username
+     */
     public FeedDto getUserFeed(String username) {
-        final Profile profile = profileRepository.findByUsernameIgnoreCase(username).orElseThrow(
+        return feedRepository.findFeedByUsername(username).orElseThrow(
                 () -> new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND)
         );
-
-        return new FeedDto(
-                profile.getOwner().getId(),
-                profile.getUsername(),
-                postRepository.countByAuthorId(profile.getOwner().getId()),
-                followRepository.countFollowsFromCustomer(profile.getOwner().getId()),
-                followRepository.countFollowersFromCustomer(profile.getOwner().getId()),
-                profile.getImageFilename(),
-                profile.getAboutMe()
-        );
     }
 }
@@ -0,0 +1,80 @@
+package com.damian.photogram.app.feed;
+
+import com.damian.photogram.domain.post.model.Post;
+
+import java.util.*;
+
+/**
+ * K-way merge of timelines already sorted newest first.
+ * Used to combine the pushed (materialized) timeline with the posts pulled at read time.
+ */
+public class TimelineMerger {
+    private static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreatedAt)
+            .thenComparing(Post::getId)
+            .reversed();
+
+    /**
+     * Merge sorted sources into a single sorted list without duplicates.
+     *
+     * @param sources lists of posts, each one sorted newest first
+     * @param limit   maximum number of posts to return
+     * @return List<Post> the merged posts, newest first
+     */
+    public static List<Post> merge(List<List<Post>> sources, int limit) {
+        // heap holding the head of each source
+        PriorityQueue<PeekingSource> heap = new PriorityQueue<>(
+                Math.max(1, sources.size()),
+                (a, b) -> NEWEST_FIRST.compare(a.peek(), b.peek())
+        );
+
+        for (List<Post> source : sources) {
+            if (!source.isEmpty()) {
+                heap.add(new PeekingSource(source.iterator()));
+            }
+        }
+
+        List<Post> merged = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+
+        while (!heap.isEmpty() && merged.size() < limit) {
+            PeekingSource source = heap.poll();
+            Post post = source.next();
+
+            // a post is either pushed or pulled, this only guards a page against repeated posts
+            if (seen.add(post.getId())) {
+                merged.add(post);
+            }
+
+            if (source.hasNext()) {
+                heap.add(source);
+            }
+        }
+
+        return merged;
+    }
+
+    private static class PeekingSource {
+        private final Iterator<Post> iterator;
+        private Post head;
+
+        PeekingSource(Iterator<Post> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        Post peek() {
+            return head;
+        }
+
+        Post next() {
+            Post current = head;
+            head = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+
+        boolean hasNext() {
+            return head != null;
+        }
+    }
+}
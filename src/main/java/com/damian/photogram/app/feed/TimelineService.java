@@ -0,0 +1,148 @@
+package com.damian.photogram.app.feed;
+
+import com.damian.photogram.app.feed.model.TimelineEntry;
+import com.damian.photogram.app.feed.repository.TimelineRepository;
+import com.damian.photogram.core.exception.InvalidCursorException;
+import com.damian.photogram.core.utils.AuthHelper;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
+import com.damian.photogram.domain.post.model.Post;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Maintains the home timeline of each customer using a hybrid push/pull model.
+ * Posts from regular authors are pushed into the followers timelines when created.
+ * Posts from authors with more followers than the fan-out threshold are not pushed,
+ * instead they are pulled when the timeline is read and merged with the pushed ones.
+ * The mode is stored in each post when it is created, so an author crossing the threshold
+ * later never hides the posts written in the previous mode.
+ */
+@Service
+public class TimelineService {
+    // posts copied into the timeline of a customer when following someone
+    private final int BACKFILL_POSTS = 20;
+    private final TimelineRepository timelineRepository;
+    private final PostRepository postRepository;
+    private final CustomerStatsService customerStatsService;
+
+    // authors with this number of followers or more are pulled at read time
+    @Value("${app.feed.fan-out-threshold:1000}")
+    private long fanOutThreshold;
+
+    public TimelineService(
+            TimelineRepository timelineRepository,
+            PostRepository postRepository,
+            CustomerStatsService customerStatsService
+    ) {
+        this.timelineRepository = timelineRepository;
+        this.postRepository = postRepository;
+        this.customerStatsService = customerStatsService;
+    }
+
+    /**
+     * Get the home timeline for the current customer using keyset pagination.
+     * Both the pushed and the pulled posts seek on (createdAt, id),
+     * so deep pages cost the same as the first one.
+     *
+     * @param before cursor returned by the previous page, null for the first page
+     * @param size   the number of posts per page
+     * @return CursorPage<Post> the posts of the customer and the customers followed, newest first
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public CursorPage<Post> getHomeTimeline(String before, int size) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // each source provides up to a full page, the merge keeps the newest ones
+        return CursorPage.fetch(
+                before,
+                size,
+                limit -> TimelineMerger.merge(
+                        List.of(
+                                timelineRepository.findLatestTimelinePosts(currentCustomerId, limit),
+                                postRepository.findLatestPulledByFollowerId(currentCustomerId, limit)
+                        ),
+                        limit.max()
+                ),
+                (cursor, limit) -> TimelineMerger.merge(
+                        List.of(
+                                timelineRepository.findTimelinePostsBefore(
+                                        currentCustomerId,
+                                        cursor.createdAt(),
+                                        cursor.id(),
+                                        limit
+                                ),
+                                postRepository.findPulledByFollowerIdBefore(
+                                        currentCustomerId,
+                                        cursor.createdAt(),
+                                        cursor.id(),
+                                        limit
+                                )
+                        ),
+                        limit.max()
+                ),
+                post -> new Cursor(post.getCreatedAt(), post.getId())
+        );
+    }
+
+    /**
+     * Check if the posts of a customer are pushed into the followers timelines.
+     *
+     * @param customerId the id of the author
+     * @return true if the author is below the fan-out threshold
+     */
+    private boolean isPushed(Long customerId) {
+        return customerStatsService.countFollowers(customerId) < fanOutThreshold;
+    }
+
+    /**
+     * Push a new post into the timeline of its author and the timelines of its followers.
+     * Posts of authors above the fan-out threshold are marked as pulled instead,
+     * and the followers pull them at read time for as long as the post exists.
+     *
+     * @param post the post created
+     */
+    public void fanOut(Post post) {
+        // the author sees its own posts in the timeline
+        timelineRepository.save(
+                new TimelineEntry(post.getAuthor(), post)
+        );
+
+        // too many followers to push synchronously
+        if (!isPushed(post.getAuthor().getId())) {
+            postRepository.save(post.setPulled(true));
+            return;
+        }
+
+        timelineRepository.fanOutToFollowers(
+                post.getAuthor().getId(),
+                post.getId(),
+                post.getCreatedAt()
+        );
+    }
+
+    /**
+     * Copy the latest pushed posts of a customer into the timeline of a new follower.
+     * Pulled posts are not copied, they are read from the posts of the followed customers.
+     *
+     * @param followerId the id of the customer that started following
+     * @param followedId the id of the customer followed
+     */
+    public void backfill(Long followerId, Long followedId) {
+        timelineRepository.backfillFromAuthor(followerId, followedId, BACKFILL_POSTS);
+    }
+
+    /**
+     * Remove the posts of a customer from the timeline of a former follower.
+     *
+     * @param followerId the id of the customer that stopped following
+     * @param followedId the id of the customer unfollowed
+     */
+    public void purge(Long followerId, Long followedId) {
+        timelineRepository.deleteAllFromAuthor(followerId, followedId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.damian.photogram.app.feed.model;
+
+import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.post.model.Post;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * A post materialized into the home timeline of a customer.
+ * Entries are written when the post is created (fan-out-on-write),
+ * so reading a timeline is a single range scan over (customer_id, created_at).
+ */
+@Entity
+@Table(name = "customer_timelines")
+public class TimelineEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // owner of the timeline
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "customer_id", referencedColumnName = "id")
+    private Customer customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "post_id", referencedColumnName = "id")
+    private Post post;
+
+    // copy of the post creation date, used to sort the timeline
+    @Column
+    private Instant createdAt;
+
+    public TimelineEntry() {
+    }
+
+    public TimelineEntry(Customer customer, Post post) {
+        this.customer = customer;
+        this.post = post;
+        this.createdAt = post.getCreatedAt();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public TimelineEntry setId(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public TimelineEntry setCustomer(Customer customer) {
+        this.customer = customer;
+        return this;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public TimelineEntry setPost(Post post) {
+        this.post = post;
+        return this;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public TimelineEntry setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "TimelineEntry {" +
+               "id=" + id +
+               ", customerId=" + customer.getId() +
+               ", postId=" + post.getId() +
+               ", createdAt=" + createdAt +
+               "}";
+    }
+}
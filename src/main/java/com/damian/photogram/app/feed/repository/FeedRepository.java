@@ -0,0 +1,30 @@
+package com.damian.photogram.app.feed.repository;
+
+import com.damian.photogram.app.feed.dto.response.FeedDto;
+import com.damian.photogram.domain.customer.model.Profile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Read-only queries used to build the customer feed header.
+ */
+@Repository
+public interface FeedRepository extends JpaRepository<Profile, Long> {
+    // profile data and counters of a customer in a single round trip.
+    // counters are read from customer_stats and only counted when the customer has no counters row.
+    @Query("SELECT new com.damian.photogram.app.feed.dto.response.FeedDto(" +
+           "c.id, " +
+           "p.username, " +
+           "COALESCE(s.posts, (SELECT COUNT(po) FROM Post po WHERE po.author.id = c.id)), " +
+           "COALESCE(s.following, (SELECT COUNT(f) FROM Follow f WHERE f.followerCustomer.id = c.id)), " +
+           "COALESCE(s.followers, (SELECT COUNT(f) FROM Follow f WHERE f.followedCustomer.id = c.id)), " +
+           "p.imageFilename, " +
+           "p.aboutMe) " +
+           "FROM Profile p JOIN p.customer c LEFT JOIN CustomerStats s ON s.customerId = c.id " +
+           "WHERE LOWER(p.username) = LOWER(:username)")
+    Optional<FeedDto> findFeedByUsername(@Param("username") String username);
+}
@@ -0,0 +1,74 @@
+package com.damian.photogram.app.feed.repository;
+
+import com.damian.photogram.app.feed.model.TimelineEntry;
+import com.damian.photogram.domain.post.model.Post;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<TimelineEntry, Long> {
+    // first page of the timeline of a customer, newest first
+    @Query("SELECT t.post FROM TimelineEntry t WHERE t.customer.id = :customerId " +
+           "ORDER BY t.createdAt DESC, t.post.id DESC")
+    List<Post> findLatestTimelinePosts(@Param("customerId") Long customerId, Limit limit);
+
+    // posts from the timeline of a customer older than the cursor
+    @Query("SELECT t.post FROM TimelineEntry t WHERE t.customer.id = :customerId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.post.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.post.id DESC")
+    List<Post> findTimelinePostsBefore(
+            @Param("customerId") Long customerId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // push a post into the timeline of every follower of the author in one statement
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_timelines (customer_id, post_id, created_at) " +
+                    "SELECT f.follower_customer_id, :postId, :createdAt FROM customer_follows f " +
+                    "WHERE f.followed_customer_id = :authorId",
+            nativeQuery = true
+    )
+    int fanOutToFollowers(
+            @Param("authorId") Long authorId,
+            @Param("postId") Long postId,
+            @Param("createdAt") Instant createdAt
+    );
+
+    // copy the latest pushed posts of an author into the timeline of a new follower
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_timelines (customer_id, post_id, created_at) " +
+                    "SELECT :customerId, p.id, p.created_at FROM customer_posts p " +
+                    "WHERE p.customer_id = :authorId AND NOT p.pulled " +
+                    "ORDER BY p.created_at DESC LIMIT :limit",
+            nativeQuery = true
+    )
+    int backfillFromAuthor(
+            @Param("customerId") Long customerId,
+            @Param("authorId") Long authorId,
+            @Param("limit") int limit
+    );
+
+    // remove the posts of an author from the timeline of a customer
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.customer.id = :customerId " +
+           "AND t.post.id IN (SELECT p.id FROM Post p WHERE p.author.id = :authorId)")
+    int deleteAllFromAuthor(
+            @Param("customerId") Long customerId,
+            @Param("authorId") Long authorId
+    );
+}
@@ -0,0 +1,47 @@
+package com.damian.photogram.app.images;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the {@link ImageJobService}.
+ */
+@Component
+public class ImageJobMetrics implements MeterBinder {
+    private final ImageJobService imageJobService;
+
+    public ImageJobMetrics(ImageJobService imageJobService) {
+        this.imageJobService = imageJobService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("images.jobs.queue.depth", imageJobService, ImageJobService::getQueueDepth)
+             .description("Image jobs waiting in the queue of the workers")
+             .register(registry);
+
+        Gauge.builder("images.jobs.pending", imageJobService, ImageJobService::getPendingJobs)
+             .description("Image jobs stored as pending, including the ones not in the queue yet")
+             .register(registry);
+
+        FunctionTimer.builder(
+                             "images.jobs.latency",
+                             imageJobService,
+                             ImageJobService::getCompletedJobs,
+                             ImageJobService::getLatencyMillis,
+                             TimeUnit.MILLISECONDS
+                     )
+                     .description("Time from the upload of an image to its variants written")
+                     .register(registry);
+
+        FunctionCounter.builder("images.jobs.failed", imageJobService, ImageJobService::getFailedJobs)
+                       .description("Image jobs failed after every attempt")
+                       .register(registry);
+    }
+}
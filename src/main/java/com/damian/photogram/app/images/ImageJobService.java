@@ -0,0 +1,254 @@
+package com.damian.photogram.app.images;
+
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+import com.damian.photogram.app.images.model.ImageJob;
+import com.damian.photogram.app.images.repository.ImageJobRepository;
+import com.damian.photogram.core.service.ImageVariantService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates the variants of the uploaded images in the background, so the upload
+ * returns as soon as the original is stored. Jobs are stored in customer_image_jobs
+ * and run on a pool with one thread per core and a bounded queue. The jobs that do not
+ * fit in the queue, or were pending when the server stopped, are picked up by the poll.
+ */
+@Service
+public class ImageJobService {
+    private static final Logger log = LoggerFactory.getLogger(ImageJobService.class);
+
+    private final ImageJobRepository imageJobRepository;
+    private final ImageVariantService imageVariantService;
+
+    // 0 means one thread per core
+    @Value("${app.images.jobs.threads:0}")
+    private int threads;
+
+    @Value("${app.images.jobs.queue-size:1000}")
+    private int queueSize;
+
+    @Value("${app.images.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    // jobs processing for longer are considered lost and run again
+    @Value("${app.images.jobs.stale-after:600000}")
+    private long staleAfter;
+
+    // how long the finished jobs are kept
+    @Value("${app.images.jobs.retention:86400000}")
+    private long retention;
+
+    private ThreadPoolExecutor executor;
+
+    // jobs submitted to the pool and not finished yet
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // pending jobs stored, counted on every poll
+    private final AtomicLong pendingJobs = new AtomicLong();
+
+    private final LongAdder completedJobs = new LongAdder();
+    private final LongAdder failedJobs = new LongAdder();
+
+    // sum of the time from the upload to the variants written
+    private final LongAdder latencyMillis = new LongAdder();
+
+    public ImageJobService(
+            ImageJobRepository imageJobRepository,
+            ImageVariantService imageVariantService
+    ) {
+        this.imageJobRepository = imageJobRepository;
+        this.imageVariantService = imageVariantService;
+    }
+
+    @PostConstruct
+    void init() {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger count = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-job-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // the jobs left pending are stored, they run after the restart
+        executor.shutdownNow();
+    }
+
+    /**
+     * Store a job to generate the variants of an image and submit it to the pool.
+     *
+     * @param original the path of the original image
+     * @return ImageJob the job stored as pending
+     */
+    public ImageJob enqueue(Path original) {
+        ImageJob job = imageJobRepository.save(new ImageJob(original.toString()));
+        pendingJobs.incrementAndGet();
+
+        // the workers would not see the job until the upload is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(job.getId());
+                }
+            });
+        } else {
+            submit(job.getId());
+        }
+
+        return job;
+    }
+
+    /**
+     * Get the state of the variants of an image.
+     *
+     * @param original the path of the original image
+     * @return ImageJobStatus the status of its last job, DONE when the job finished and was dropped
+     */
+    public ImageJobStatus getStatus(Path original) {
+        return imageJobRepository.findFirstByPathOrderByIdDesc(original.toString())
+                                 .map(ImageJob::getStatus)
+                                 .orElse(ImageJobStatus.DONE);
+    }
+
+    /**
+     * Release the lost jobs, drop the old ones and submit the pending ones that fit in the queue.
+     *
+     * @return int the number of jobs submitted
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.images.jobs.poll-interval:10000}",
+            fixedDelayString = "${app.images.jobs.poll-interval:10000}"
+    )
+    public synchronized int poll() {
+        final Instant now = Instant.now();
+
+        imageJobRepository.releaseStale(now.minusMillis(staleAfter));
+        imageJobRepository.deleteDone(now.minusMillis(retention));
+        pendingJobs.set(imageJobRepository.countByStatus(ImageJobStatus.PENDING));
+
+        final int free = executor.getQueue().remainingCapacity();
+        if (free == 0) {
+            return 0;
+        }
+
+        int submitted = 0;
+        List<Long> ids = imageJobRepository.findIdsByStatus(ImageJobStatus.PENDING, PageRequest.of(0, free));
+        for (Long id : ids) {
+            if (submit(id)) {
+                submitted++;
+            }
+        }
+
+        return submitted;
+    }
+
+    // runs on the pool
+    void process(Long id) {
+        try {
+            // another worker or instance got it first
+            if (imageJobRepository.claim(id, Instant.now()) == 0) {
+                return;
+            }
+            pendingJobs.decrementAndGet();
+
+            ImageJob job = imageJobRepository.findById(id).orElse(null);
+            if (job == null) {
+                return;
+            }
+
+            try {
+                imageVariantService.generateVariants(Path.of(job.getPath()));
+                job.setStatus(ImageJobStatus.DONE);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Image job {} failed on attempt {}", id, job.getAttempts(), e);
+                job.setStatus(job.getAttempts() >= maxAttempts ? ImageJobStatus.FAILED : ImageJobStatus.PENDING);
+            }
+
+            job.setFinishedAt(Instant.now());
+            imageJobRepository.save(job);
+
+            if (job.getStatus() == ImageJobStatus.DONE) {
+                completedJobs.increment();
+                latencyMillis.add(Duration.between(job.getCreatedAt(), job.getFinishedAt()).toMillis());
+            } else if (job.getStatus() == ImageJobStatus.FAILED) {
+                failedJobs.increment();
+            }
+        } catch (RuntimeException e) {
+            // the job stays processing and it is released as stale
+            log.warn("Image job {} could not be processed", id, e);
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    private boolean submit(Long id) {
+        // already in the queue
+        if (!inFlight.add(id)) {
+            return false;
+        }
+
+        try {
+            executor.execute(() -> process(id));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the queue is full, the job stays pending until a poll finds room for it
+            inFlight.remove(id);
+            return false;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getPendingJobs() {
+        return Math.max(0, pendingJobs.get());
+    }
+
+    public long getCompletedJobs() {
+        return completedJobs.sum();
+    }
+
+    public long getFailedJobs() {
+        return failedJobs.sum();
+    }
+
+    public double getLatencyMillis() {
+        return latencyMillis.sum();
+    }
+}
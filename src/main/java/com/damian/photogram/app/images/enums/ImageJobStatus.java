@@ -0,0 +1,8 @@
+package com.damian.photogram.app.images.enums;
+
+public enum ImageJobStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
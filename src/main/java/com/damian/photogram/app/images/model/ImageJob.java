@@ -0,0 +1,123 @@
+package com.damian.photogram.app.images.model;
+
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The generation of the variants of an uploaded image.
+ * Jobs are stored so the ones pending when the server stops are processed after a restart.
+ */
+@Entity
+@Table(name = "customer_image_jobs")
+public class ImageJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // path of the original image
+    @Column(nullable = false)
+    private String path;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ImageJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column
+    private Instant startedAt;
+
+    @Column
+    private Instant finishedAt;
+
+    public ImageJob() {
+    }
+
+    public ImageJob(String path) {
+        this.path = path;
+        this.status = ImageJobStatus.PENDING;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ImageJob setId(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public ImageJob setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public ImageJobStatus getStatus() {
+        return status;
+    }
+
+    public ImageJob setStatus(ImageJobStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public ImageJob setAttempts(int attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public ImageJob setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+        return this;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public ImageJob setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+        return this;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public ImageJob setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageJob {" +
+               "id=" + id +
+               ", path=" + path +
+               ", status=" + status +
+               ", attempts=" + attempts +
+               ", createdAt=" + createdAt +
+               ", startedAt=" + startedAt +
+               ", finishedAt=" + finishedAt +
+               "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.damian.photogram.app.images.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A content addressed image uploaded by a customer.
+ * The name of the image is the hash of its content, so the same name is given to
+ * everyone uploading the same image, only the ones who did can post it.
+ */
+@Entity
+@Table(
+        name = "customer_image_uploads",
+        uniqueConstraints = @UniqueConstraint(
+                name = "unique_customer_image_upload",
+                columnNames = {"customer_id", "filename"}
+        )
+)
+public class ImageUpload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(nullable = false)
+    private Instant uploadedAt;
+
+    public ImageUpload() {
+    }
+
+    public ImageUpload(Long customerId, String filename) {
+        this.customerId = customerId;
+        this.filename = filename;
+        this.uploadedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public Instant getUploadedAt() {
+        return uploadedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.damian.photogram.app.images.repository;
+
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+import com.damian.photogram.app.images.model.ImageJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageJobRepository extends JpaRepository<ImageJob, Long> {
+    // oldest jobs first
+    @Query("SELECT j.id FROM ImageJob j WHERE j.status = :status ORDER BY j.id")
+    List<Long> findIdsByStatus(@Param("status") ImageJobStatus status, Pageable pageable);
+
+    long countByStatus(ImageJobStatus status);
+
+    // the last job of an image
+    Optional<ImageJob> findFirstByPathOrderByIdDesc(String path);
+
+    // only one worker, of any instance, gets the job
+    @Transactional
+    @Modifying
+    @Query(
+            "UPDATE ImageJob j SET j.status = com.damian.photogram.app.images.enums.ImageJobStatus.PROCESSING," +
+            " j.startedAt = :now, j.attempts = j.attempts + 1" +
+            " WHERE j.id = :id AND j.status = com.damian.photogram.app.images.enums.ImageJobStatus.PENDING"
+    )
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    // jobs of a worker that died while processing them
+    @Transactional
+    @Modifying
+    @Query(
+            "UPDATE ImageJob j SET j.status = com.damian.photogram.app.images.enums.ImageJobStatus.PENDING" +
+            " WHERE j.status = com.damian.photogram.app.images.enums.ImageJobStatus.PROCESSING" +
+            " AND j.startedAt < :before"
+    )
+    int releaseStale(@Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query(
+            "DELETE FROM ImageJob j WHERE j.status = com.damian.photogram.app.images.enums.ImageJobStatus.DONE" +
+            " AND j.finishedAt < :before"
+    )
+    int deleteDone(@Param("before") Instant before);
+}
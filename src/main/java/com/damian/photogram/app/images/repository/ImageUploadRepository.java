@@ -0,0 +1,58 @@
+package com.damian.photogram.app.images.repository;
+
+import com.damian.photogram.app.images.model.ImageUpload;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ImageUploadRepository extends JpaRepository<ImageUpload, Long> {
+    // record an upload in a single statement, nothing is inserted if the customer uploaded it before
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_image_uploads (customer_id, filename, uploaded_at) " +
+                    "VALUES (:customerId, :filename, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT DO NOTHING",
+            nativeQuery = true
+    )
+    int insertIfAbsent(
+            @Param("customerId") Long customerId,
+            @Param("filename") String filename
+    );
+
+    boolean existsByCustomerIdAndFilename(Long customerId, String filename);
+
+    // images whose last upload is older than the given instant and that no post or profile references
+    @Query("SELECT u.filename FROM ImageUpload u " +
+           "WHERE NOT EXISTS (SELECT 1 FROM Post p WHERE p.photoFilename = u.filename) " +
+           "AND NOT EXISTS (SELECT 1 FROM Profile pr WHERE pr.imageFilename = u.filename) " +
+           "GROUP BY u.filename HAVING MAX(u.uploadedAt) < :uploadedBefore " +
+           "ORDER BY u.filename")
+    List<String> findOrphanFilenames(@Param("uploadedBefore") Instant uploadedBefore);
+
+    // lock the uploads of an image until the end of the transaction, returns when they were uploaded
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.uploadedAt FROM ImageUpload u WHERE u.filename = :filename")
+    List<Instant> lockByFilename(@Param("filename") String filename);
+
+    // the image was uploaded again, it waits while the uploads are locked
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageUpload u SET u.uploadedAt = INSTANT WHERE u.filename = :filename")
+    int touchByFilename(@Param("filename") String filename);
+
+    // the uploads of an image deleted from the storage
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImageUpload u WHERE u.filename = :filename")
+    int deleteByFilename(@Param("filename") String filename);
+}
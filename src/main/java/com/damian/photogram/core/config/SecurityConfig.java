@@ -1,6 +1,7 @@
 package com.damian.photogram.core.config;
 
 import com.damian.photogram.core.service.CustomerDetailsService;
+import com.damian.photogram.core.service.PasswordVerifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,7 +9,6 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class SecurityConfig {
@@ -25,11 +25,12 @@ public class SecurityConfig {
     @Bean
     public AuthenticationProvider authenticationProvider(
             CustomerDetailsService customerDetailsService,
-            PasswordEncoder passwordEncoder
+            PasswordVerifier passwordVerifier
     ) {
         DaoAuthenticationProvider daoAuthenticationProvider =
                 new DaoAuthenticationProvider();
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        // BCrypt runs on the bounded pool of the verifier instead of the request thread
+        daoAuthenticationProvider.setPasswordEncoder(passwordVerifier);
         daoAuthenticationProvider.setUserDetailsService(customerDetailsService);
         return daoAuthenticationProvider;
     }
@@ -31,12 +31,23 @@ public class Exceptions {
         public static final String TYPE_NOT_SUPPORTED = "Image type not supported.";
         public static final String EMPTY_FILE = "Image file is empty.";
         public static final String UPLOAD_FAILED = "Image upload failed.";
+        public static final String INVALID_SIZE = "Image size is not valid.";
+    }
+
+    public static class CURSOR {
+        public static final String INVALID = "Cursor is invalid.";
+    }
+
+    public static class PASSWORD {
+        public static final String TOO_MANY_ATTEMPTS = "Too many password attempts, try again later.";
+        public static final String TOO_MANY_CHECKS = "Too many password checks in progress, try again later.";
     }
 
     public static class JWT {
         public static final String INVALID_EMAIL = "Invalid email found in token.";
         public static final String TOKEN_EXPIRED = "Token has expired.";
         public static final String INVALID_TOKEN = "Token is invalid.";
+        public static final String TOKEN_REVOKED = "Token has been revoked.";
     }
 
     public static class ACCOUNT {
@@ -58,7 +69,6 @@ public class Exceptions {
     public static class POSTS {
         public static final String NOT_AUTHOR = "You are not the author of this post.";
         public static final String NOT_FOUND = "Post not found.";
-        public static final String ALREADY_LIKED = "Post already liked.";
 
         public static class IMAGE {
             public static final String NOT_FOUND = "Post photo not found.";
@@ -70,10 +80,6 @@ public class Exceptions {
         public static final String NOT_AUTHOR = "You are not the author of this comment.";
     }
 
-    public static class LIKE {
-        public static final String NOT_FOUND = "Like not found.";
-    }
-
     public static class FOLLOW {
         public static final String ALREADY_EXISTS = "Follower already exists.";
         public static final String SELF_FOLLOW = "You cannot follow yourself.";
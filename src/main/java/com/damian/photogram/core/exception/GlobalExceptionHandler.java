@@ -25,6 +25,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(
             {
                     ImageEmptyFileException.class,
+                    ImageVariantNotValidException.class,
+                    InvalidCursorException.class,
                     ProfileUpdateValidationException.class
             }
     )
@@ -67,7 +69,6 @@ public class GlobalExceptionHandler {
                     ProfileNotFoundException.class,
                     ProfilePhotoNotFoundException.class,
                     CommentNotFoundException.class,
-                    LikeNotFoundException.class,
                     FollowNotFoundException.class,
                     SettingNotFoundException.class,
                     PostNotFoundException.class,
@@ -84,7 +85,6 @@ public class GlobalExceptionHandler {
             {
                     CustomerEmailTakenException.class,
                     FollowAlreadyExistsException.class,
-                    PostAlreadyLikedException.class,
                     AccountVerificationNotPendingException.class
             }
     )
@@ -133,6 +133,16 @@ public class GlobalExceptionHandler {
                              .body(ApiResponse.error(ex.getMessage(), HttpStatus.UNSUPPORTED_MEDIA_TYPE));
     }
 
+    @ExceptionHandler(
+            {
+                    TooManyPasswordAttemptsException.class
+            }
+    )
+    public ResponseEntity<ApiResponse<String>> handleTooManyRequests(ApplicationException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .body(ApiResponse.error(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS));
+    }
+
     @ExceptionHandler(
             {
                     AccountVerificationTokenExpiredException.class,
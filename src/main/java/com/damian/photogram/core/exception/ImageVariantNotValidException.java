@@ -0,0 +1,7 @@
+package com.damian.photogram.core.exception;
+
+public class ImageVariantNotValidException extends ApplicationException {
+    public ImageVariantNotValidException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.damian.photogram.core.exception;
+
+public class InvalidCursorException extends ApplicationException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.damian.photogram.core.exception;
+
+public class TooManyPasswordAttemptsException extends ApplicationException {
+    public TooManyPasswordAttemptsException(String message) {
+        super(message);
+    }
+}
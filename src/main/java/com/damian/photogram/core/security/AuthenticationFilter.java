@@ -1,14 +1,20 @@
 package com.damian.photogram.core.security;
 
 
+import com.damian.photogram.app.auth.TokenRevocationService;
 import com.damian.photogram.app.auth.exception.JwtAuthenticationException;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.core.utils.JwtUtil;
+import com.damian.photogram.domain.account.enums.AccountStatus;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,15 +36,22 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final CustomerDetailsService customerDetailsService;
     private final AuthenticationEntryPoint authenticationEntryPoint;
+    private final TokenRevocationService tokenRevocationService;
+
+    // build the principal from the token claims instead of loading the customer
+    @Value("${app.auth.stateless:true}")
+    private boolean stateless;
 
     public AuthenticationFilter(
             JwtUtil jwtUtil,
             CustomerDetailsService customerDetailsService,
-            AuthenticationEntryPoint authenticationEntryPoint
+            AuthenticationEntryPoint authenticationEntryPoint,
+            TokenRevocationService tokenRevocationService
     ) {
         this.jwtUtil = jwtUtil;
         this.customerDetailsService = customerDetailsService;
         this.authenticationEntryPoint = authenticationEntryPoint;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
 
@@ -73,8 +86,17 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         // Extract the JWT from the Authorization header.
         final String jwtToken = authHeader.substring(7);
 
-        // Check if the token has expired.
-        if (!jwtUtil.isTokenValid(jwtToken)) {
+        // Verify the token once, the claims are reused for the rest of the request.
+        final Claims claims;
+        try {
+            claims = jwtUtil.getVerifiedClaims(jwtToken);
+        } catch (ExpiredJwtException e) {
+            // If the token has expired, then we need to send back a 401.
+            authenticationEntryPoint.commence(
+                    request, response, new JwtAuthenticationException(Exceptions.JWT.TOKEN_EXPIRED)
+            );
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
             // token is invalid. 401
             authenticationEntryPoint.commence(
                     request, response, new JwtAuthenticationException(Exceptions.JWT.INVALID_TOKEN)
@@ -82,28 +104,52 @@ public class AuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (jwtUtil.isTokenExpired(jwtToken)) {
-            // If the token has expired, then we need to send back a 401.
+        // Tokens revoked one by one, such as on logout, are rejected. 401
+        if (tokenRevocationService.isRevoked(claims.getId(), claims.getExpiration())) {
             authenticationEntryPoint.commence(
-                    request, response, new JwtAuthenticationException(Exceptions.JWT.TOKEN_EXPIRED)
+                    request, response, new JwtAuthenticationException(Exceptions.JWT.TOKEN_REVOKED)
             );
             return;
         }
 
         // Extract the email from the JWT.
-        final String email = jwtUtil.extractEmail(jwtToken);
+        final String email = claims.getSubject();
 
         // If the email found in token is not null and there is no Authentication object
         // in the SecurityContext, then we can go ahead and authenticate the user.
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            CustomerDetails customerDetails;
-            try {
-                // Load the customer details from the database.
-                customerDetails = customerDetailsService.loadCustomerByEmail(email);
-            } catch (UsernameNotFoundException e) {
-                // In case no such user exists by this email, then we sent 401
+            // Build the customer from the claims, tokens issued without them load it.
+            CustomerPrincipal customerDetails = stateless ? jwtUtil.getPrincipal(claims) : null;
+
+            // Only verified accounts get tokens, the status claim is checked as on login. 401
+            if (customerDetails != null && customerDetails.getAccountStatus() != AccountStatus.VERIFIED) {
+                authenticationEntryPoint.commence(
+                        request, response, new JwtAuthenticationException(
+                                customerDetails.getAccountStatus() == AccountStatus.SUSPENDED
+                                        ? Exceptions.ACCOUNT.SUSPENDED
+                                        : Exceptions.ACCOUNT.EMAIL_NOT_VERIFIED
+                        )
+                );
+                return;
+            }
+
+            if (customerDetails == null) {
+                try {
+                    // Load the customer details from the cache or the database.
+                    customerDetails = customerDetailsService.loadCachedCustomerByEmail(email);
+                } catch (UsernameNotFoundException e) {
+                    // In case no such user exists by this email, then we sent 401
+                    authenticationEntryPoint.commence(
+                            request, response, new JwtAuthenticationException(Exceptions.JWT.INVALID_EMAIL)
+                    );
+                    return;
+                }
+            }
+
+            // Tokens issued before the password, the email or the status changed are rejected. 401
+            if (tokenRevocationService.isRevoked(customerDetails.getId(), claims.getIssuedAt())) {
                 authenticationEntryPoint.commence(
-                        request, response, new JwtAuthenticationException(Exceptions.JWT.INVALID_EMAIL)
+                        request, response, new JwtAuthenticationException(Exceptions.JWT.TOKEN_REVOKED)
                 );
                 return;
             }
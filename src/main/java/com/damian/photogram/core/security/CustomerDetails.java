@@ -1,9 +1,12 @@
 package com.damian.photogram.core.security;
 
+import com.damian.photogram.domain.customer.enums.CustomerRole;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface CustomerDetails extends UserDetails {
+    Long getId();
+
     String getEmail();
 
-    void setEmail(String email);
+    CustomerRole getRole();
 }
@@ -0,0 +1,86 @@
+package com.damian.photogram.core.security;
+
+import com.damian.photogram.domain.account.enums.AccountStatus;
+import com.damian.photogram.domain.customer.enums.CustomerRole;
+import com.damian.photogram.domain.customer.model.Customer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Authenticated customer built from the claims of its token, without loading the Customer entity.
+ * It only holds what the token carries, services must load the entity for anything else.
+ * It is immutable, so a snapshot of a loaded customer can be cached and shared between requests.
+ */
+public class CustomerPrincipal implements CustomerDetails {
+    private final Long id;
+    private final String email;
+    private final CustomerRole role;
+    private final AccountStatus accountStatus;
+    private final String password;
+
+    public CustomerPrincipal(Long id, String email, CustomerRole role, AccountStatus accountStatus) {
+        this(id, email, role, accountStatus, null);
+    }
+
+    public CustomerPrincipal(Long id, String email, CustomerRole role, AccountStatus accountStatus, String password) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.accountStatus = accountStatus;
+        this.password = password;
+    }
+
+    /**
+     * Take a snapshot of a loaded customer.
+     *
+     * @param customer the customer
+     * @return CustomerPrincipal the snapshot, detached from the entity
+     */
+    public static CustomerPrincipal of(Customer customer) {
+        return new CustomerPrincipal(
+                customer.getId(),
+                customer.getEmail(),
+                customer.getRole(),
+                customer.getAccount().getAccountStatus(),
+                customer.getPassword()
+        );
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public CustomerRole getRole() {
+        return role;
+    }
+
+    public AccountStatus getAccountStatus() {
+        return accountStatus;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    // the password hash of a loaded customer, the password is never part of the token
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
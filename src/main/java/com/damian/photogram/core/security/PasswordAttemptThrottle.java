@@ -0,0 +1,136 @@
+package com.damian.photogram.core.security;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.TooManyPasswordAttemptsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits the password attempts per email and per IP with token buckets.
+ * Each attempt takes a token before the password is hashed, so a burst of attempts
+ * is rejected without spending CPU on BCrypt. Buckets refill continuously and the ones
+ * refilled completely are dropped, since they are the same as a new bucket.
+ * The ip is the remote address of the connection. Behind a proxy that is the address
+ * of the proxy, shared by every client, so the ip bucket is off unless enabled, either for
+ * direct connections or with server.forward-headers-strategy resolving the client address.
+ */
+@Component
+public class PasswordAttemptThrottle {
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String IP_PREFIX = "ip:";
+
+    // key -> bucket of the email or ip
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${app.auth.throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.throttle.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${app.auth.throttle.email.refill-period:60000}")
+    private long emailRefillPeriod;
+
+    @Value("${app.auth.throttle.ip.enabled:false}")
+    private boolean ipEnabled;
+
+    @Value("${app.auth.throttle.ip.capacity:30}")
+    private int ipCapacity;
+
+    @Value("${app.auth.throttle.ip.refill-period:60000}")
+    private long ipRefillPeriod;
+
+    @Value("${app.auth.throttle.max-keys:100000}")
+    private int maxKeys;
+
+    /**
+     * Take an attempt for the email and, if known and its bucket is enabled, the ip.
+     *
+     * @param email         the email the password is checked for
+     * @param remoteAddress the ip of the client or null
+     * @throws TooManyPasswordAttemptsException if any of them has no attempts left
+     */
+    public void acquire(String email, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+
+        // the ip is checked first, so an attacker rotating emails does not lock out their owners
+        if (ipEnabled && remoteAddress != null && !tryAcquire(IP_PREFIX + remoteAddress, ipCapacity, ipRefillPeriod)) {
+            throw new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_ATTEMPTS);
+        }
+
+        if (email != null && !tryAcquire(EMAIL_PREFIX + email.toLowerCase(), emailCapacity, emailRefillPeriod)) {
+            throw new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_ATTEMPTS);
+        }
+    }
+
+    /**
+     * Drop the buckets that have refilled completely.
+     *
+     * @return int the number of buckets dropped
+     */
+    @Scheduled(fixedDelayString = "${app.auth.throttle.prune-interval:60000}")
+    public int prune() {
+        final long now = System.currentTimeMillis();
+        final int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private boolean tryAcquire(String key, int capacity, long refillPeriod) {
+        // too many keys, most of them are probably full already
+        if (buckets.size() >= maxKeys) {
+            prune();
+        }
+
+        return buckets
+                .computeIfAbsent(key, k -> new TokenBucket(capacity, refillPeriod))
+                .tryConsume(System.currentTimeMillis());
+    }
+
+    private static class TokenBucket {
+        private final int capacity;
+        // tokens added per milli
+        private final double refillRate;
+        private double tokens;
+        private long updatedAt;
+
+        private TokenBucket(int capacity, long refillPeriod) {
+            this.capacity = Math.max(1, capacity);
+            this.refillRate = (double) this.capacity / Math.max(1, refillPeriod);
+            this.tokens = this.capacity;
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        private synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+
+            tokens--;
+            return true;
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * refillRate);
+                updatedAt = now;
+            }
+        }
+    }
+}
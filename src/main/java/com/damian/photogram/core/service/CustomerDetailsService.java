@@ -1,8 +1,14 @@
 package com.damian.photogram.core.service;
 
+import com.damian.photogram.app.auth.TokenRevocationService;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.security.CustomerDetails;
+import com.damian.photogram.core.security.CustomerPrincipal;
+import com.damian.photogram.core.utils.ExpiringCache;
+import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,9 +17,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomerDetailsService implements UserDetailsService {
     private final CustomerRepository customerRepository;
+    private final TokenRevocationService tokenRevocationService;
 
-    public CustomerDetailsService(CustomerRepository customerRepository) {
+    @Value("${app.auth.customer-cache.ttl:60000}")
+    private long customerCacheTtl;
+
+    @Value("${app.auth.customer-cache.max-size:10000}")
+    private int customerCacheMaxSize;
+
+    // email -> snapshot of the customer authenticated by a token, so steady requests do not go to the database
+    private ExpiringCache<String, CustomerPrincipal> customerCache;
+
+    public CustomerDetailsService(
+            CustomerRepository customerRepository,
+            TokenRevocationService tokenRevocationService
+    ) {
         this.customerRepository = customerRepository;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @PostConstruct
+    void init() {
+        customerCache = new ExpiringCache<>(customerCacheMaxSize);
     }
 
     @Override
@@ -30,4 +55,47 @@ public class CustomerDetailsService implements UserDetailsService {
                         )
                 );
     }
+
+    /**
+     * Load a customer by email keeping a snapshot of it cached for a short time.
+     * Only for requests already authenticated by a token, logins must use {@link #loadCustomerByEmail(String)}
+     * so the password is always checked against the database.
+     *
+     * @param email the email of the customer
+     * @return CustomerPrincipal the snapshot of the customer
+     * @throws UsernameNotFoundException if no customer has this email
+     */
+    public CustomerPrincipal loadCachedCustomerByEmail(String email) throws UsernameNotFoundException {
+        CustomerPrincipal customer = customerCache.get(email);
+        if (customer != null) {
+            return customer;
+        }
+
+        customer = CustomerPrincipal.of((Customer) loadCustomerByEmail(email));
+        customerCache.put(email, customer, System.currentTimeMillis() + customerCacheTtl);
+        return customer;
+    }
+
+    /**
+     * Remove a customer from the cache.
+     * Must be called when the email, the password or the account status of the customer change.
+     *
+     * @param customerId the id of the customer
+     */
+    public void evict(Long customerId) {
+        customerCache.invalidateIf((email, customer) -> customer.getId().equals(customerId));
+    }
+
+    /**
+     * Reject every token of a customer issued until now and remove it from the cache.
+     * Must be called when the email, the password or the account status of the customer change,
+     * since a token carries them until it expires. Nothing suspends an account yet,
+     * whatever does it must call this.
+     *
+     * @param customerId the id of the customer
+     */
+    public void revokeTokens(Long customerId) {
+        evict(customerId);
+        tokenRevocationService.revokeAll(customerId);
+    }
 }
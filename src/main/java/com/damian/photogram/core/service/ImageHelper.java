@@ -1,17 +1,38 @@
 package com.damian.photogram.core.service;
 
 import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
 
 public class ImageHelper {
+    // the types of the images stored, so they are not probed
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "webp", "image/webp"
+    );
 
     public static String getContentType(Resource resource) {
+        try {
+            return getContentType(resource.getFile().toPath());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static String getContentType(Path path) {
+        final String extension = StringUtils.getFilenameExtension(path.getFileName().toString());
+        if (extension != null && CONTENT_TYPES.containsKey(extension.toLowerCase())) {
+            return CONTENT_TYPES.get(extension.toLowerCase());
+        }
 
         String contentType;
         try {
-            contentType = Files.probeContentType(resource.getFile().toPath());
+            contentType = Files.probeContentType(path);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,43 @@
+package com.damian.photogram.core.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics of the image cache of the {@link ImageServingService}.
+ */
+@Component
+public class ImageServingMetrics implements MeterBinder {
+    private final ImageServingService imageServingService;
+
+    public ImageServingMetrics(ImageServingService imageServingService) {
+        this.imageServingService = imageServingService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("images.cache.requests", imageServingService, ImageServingService::getCacheHits)
+                       .tag("result", "hit")
+                       .register(registry);
+
+        FunctionCounter.builder("images.cache.requests", imageServingService, ImageServingService::getCacheMisses)
+                       .tag("result", "miss")
+                       .register(registry);
+
+        FunctionCounter.builder("images.cache.evictions", imageServingService, ImageServingService::getCacheEvictions)
+                       .description("Images evicted from the cache to make room for others")
+                       .register(registry);
+
+        Gauge.builder("images.cache.bytes", imageServingService, ImageServingService::getCacheBytes)
+             .description("Bytes of the images kept off heap")
+             .baseUnit("bytes")
+             .register(registry);
+
+        Gauge.builder("images.cache.size", imageServingService, ImageServingService::getCacheSize)
+             .description("Images kept off heap")
+             .register(registry);
+    }
+}
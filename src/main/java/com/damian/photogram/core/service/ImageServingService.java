@@ -0,0 +1,371 @@
+package com.damian.photogram.core.service;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.core.utils.ExpiringCache;
+import com.damian.photogram.core.utils.OffHeapLruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the stored images to the response without copying them through the heap.
+ * The body is sent with sendfile when the connector supports it and with
+ * FileChannel.transferTo otherwise. The ETag (hash of the content) and the content type
+ * of each file are cached and checked against its size and modification time,
+ * so a request only reads the attributes of the file. Content addressed images
+ * already have the hash in their name, so they are never read to get it.
+ * Single byte ranges, If-Range and If-None-Match are supported.
+ * Optionally, the hot images are kept off heap, so they are sent without reading the file.
+ */
+@Service
+public class ImageServingService {
+    // request attributes read by tomcat after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    @Value("${app.images.serving.sendfile:true}")
+    private boolean sendfile;
+
+    @Value("${app.images.serving.metadata-cache.ttl:3600000}")
+    private long metadataCacheTtl;
+
+    @Value("${app.images.serving.metadata-cache.max-size:10000}")
+    private int metadataCacheMaxSize;
+
+    @Value("${app.images.cache.enabled:false}")
+    private boolean contentCacheEnabled;
+
+    @Value("${app.images.cache.max-bytes:268435456}")
+    private long contentCacheMaxBytes;
+
+    // larger images are always read from the file
+    @Value("${app.images.cache.max-entry-bytes:1048576}")
+    private long contentCacheMaxEntryBytes;
+
+    private ExpiringCache<Path, ImageMetadata> metadataCache;
+
+    // the content of the images recently served, null when disabled
+    private OffHeapLruCache<ImageKey> contentCache;
+
+    @PostConstruct
+    void init() {
+        metadataCache = new ExpiringCache<>(metadataCacheMaxSize);
+        if (contentCacheEnabled) {
+            contentCache = new OffHeapLruCache<>(contentCacheMaxBytes);
+        }
+    }
+
+    /**
+     * Write an image to the response, the whole file or the range requested.
+     *
+     * @param image        the stored image
+     * @param cacheControl the cache control of the response
+     * @param request      the request
+     * @param response     the response
+     * @throws ImageNotFoundException if the image is not a stored file
+     * @throws IOException            if the image could not be sent
+     */
+    public void serve(
+            Resource image,
+            CacheControl cacheControl,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        final Path path = this.getPath(image);
+        final ImageMetadata metadata = this.getMetadata(path);
+
+        response.setHeader(HttpHeaders.ETAG, metadata.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // the client already has this version of the image
+        if (this.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), metadata.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = null;
+
+        // a range of a previous version of the image is not wanted, the whole image is sent instead
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.trim().equals(metadata.etag())) {
+            range = this.parseRange(request.getHeader(HttpHeaders.RANGE), metadata.size());
+        }
+
+        if (range == UNSATISFIABLE) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size());
+            return;
+        }
+
+        final long start = range != null ? range.start() : 0;
+        final long end = range != null ? range.end() : metadata.size() - 1;
+        final long length = end - start + 1;
+
+        response.setContentType(metadata.contentType());
+        response.setContentLengthLong(length);
+
+        if (range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + metadata.size());
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        final ByteBuffer content = this.getCachedContent(path, metadata);
+        if (content != null) {
+            this.write(content, start, length, response);
+            return;
+        }
+
+        // tomcat sends the file from the kernel once the servlet returns
+        if (sendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        this.transfer(path, start, length, response);
+    }
+
+    // the metadata of the file, computed again when the file changed
+    private ImageMetadata getMetadata(Path path) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
+        }
+
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        ImageMetadata metadata = metadataCache.get(path);
+        if (metadata != null && metadata.size() == attributes.size() && metadata.lastModified() == lastModified) {
+            return metadata;
+        }
+
+        final String filename = path.getFileName().toString();
+        final String hash = ImageStorageService.isContentAddressed(filename)
+                ? StringUtils.stripFilenameExtension(filename)
+                : this.hash(path);
+
+        metadata = new ImageMetadata(
+                attributes.size(),
+                lastModified,
+                "\"" + hash + "\"",
+                ImageHelper.getContentType(path)
+        );
+        metadataCache.put(path, metadata, System.currentTimeMillis() + metadataCacheTtl);
+
+        return metadata;
+    }
+
+    // the content from the cache, loaded into it on a miss
+    private ByteBuffer getCachedContent(Path path, ImageMetadata metadata) throws IOException {
+        if (contentCache == null || metadata.size() > contentCacheMaxEntryBytes) {
+            return null;
+        }
+
+        // a new version of the file gets a new key, the old one is evicted as it is not used
+        final ImageKey key = new ImageKey(path, metadata.size(), metadata.lastModified());
+        final ByteBuffer cached = contentCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        ByteBuffer content = ByteBuffer.allocateDirect((int) metadata.size());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (content.hasRemaining() && channel.read(content) != -1) {
+                // read until full
+            }
+        }
+
+        // the file changed while reading it
+        if (content.hasRemaining()) {
+            return null;
+        }
+
+        content.flip();
+        contentCache.put(key, content);
+        return content.asReadOnlyBuffer();
+    }
+
+    private void write(ByteBuffer content, long start, long length, HttpServletResponse response) throws IOException {
+        content.position((int) start).limit((int) (start + length));
+        WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+        while (content.hasRemaining()) {
+            output.write(content);
+        }
+    }
+
+    public long getCacheHits() {
+        return contentCache != null ? contentCache.getHits() : 0;
+    }
+
+    public long getCacheMisses() {
+        return contentCache != null ? contentCache.getMisses() : 0;
+    }
+
+    public long getCacheEvictions() {
+        return contentCache != null ? contentCache.getEvictions() : 0;
+    }
+
+    public long getCacheBytes() {
+        return contentCache != null ? contentCache.getBytes() : 0;
+    }
+
+    public int getCacheSize() {
+        return contentCache != null ? contentCache.size() : 0;
+    }
+
+    private Path getPath(Resource image) {
+        try {
+            return image.getFile().toPath();
+        } catch (IOException e) {
+            throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
+        }
+    }
+
+    private void transfer(Path path, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, output);
+                // the file was truncated while sending it
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // sha-256 of the content, read through a direct buffer
+    private String hash(Path path) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // weak comparison, as If-None-Match requires
+    private boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // null when the whole file must be sent, multiple ranges included
+    private ByteRange parseRange(String header, long size) {
+        if (header == null) {
+            return null;
+        }
+
+        Matcher matcher = BYTE_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        final String first = matcher.group(1);
+        final String last = matcher.group(2);
+
+        try {
+            // the last n bytes
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            // too many digits
+            return null;
+        }
+    }
+
+    private record ImageMetadata(long size, long lastModified, String etag, String contentType) {
+    }
+
+    private record ByteRange(long start, long end) {
+    }
+
+    private record ImageKey(Path path, long size, long lastModified) {
+    }
+}
@@ -1,24 +1,132 @@
 package com.damian.photogram.core.service;
 
+import com.damian.photogram.app.images.repository.ImageUploadRepository;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Service class for handling image storage and retrieval.
+ * Images named by the SHA-256 of their content are stored once for every customer
+ * under objects/, sharded by the first two bytes of the hash, and deleted when
+ * no post or profile references them anymore. The ones uploaded and never referenced
+ * are deleted by a daily sweep. Other names are stored in the folder given.
+ * The upload records of an image are locked while it is deleted, and an upload of the same
+ * content refreshes them before reusing the stored file, so one always waits for the other.
  */
 @Service
 public class ImageStorageService {
     private final String UPLOAD_IMAGE_PATH = "uploads/images/";
+    private final String OBJECTS_FOLDER = "objects";
+
+    // hash of the content, optionally followed by the variant, and the extension
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^[0-9a-f]{64}(_[a-z]+)?\\.[a-z0-9]+$");
+
+    private final ImageVariantService imageVariantService;
+    private final PostRepository postRepository;
+    private final ProfileRepository profileRepository;
+    private final ImageUploadRepository imageUploadRepository;
+
+    // an object uploaded recently may be referenced soon, so it is kept
+    @Value("${app.images.storage.orphan-grace:3600000}")
+    private long orphanGrace;
+
+    public ImageStorageService(
+            ImageVariantService imageVariantService,
+            PostRepository postRepository,
+            ProfileRepository profileRepository,
+            ImageUploadRepository imageUploadRepository
+    ) {
+        this.imageVariantService = imageVariantService;
+        this.postRepository = postRepository;
+        this.profileRepository = profileRepository;
+        this.imageUploadRepository = imageUploadRepository;
+    }
+
+    /**
+     * Check if the image is named by the hash of its content.
+     *
+     * @param filename name of the image or of one of its variants
+     * @return true if the image is stored under objects/
+     */
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && CONTENT_ADDRESSED.matcher(filename).matches();
+    }
+
+    /**
+     * Returns the folder where the content addressed images are stored.
+     *
+     * @return Path of the folder
+     */
+    public Path getContentAddressedRoot() {
+        return Paths.get(UPLOAD_IMAGE_PATH, OBJECTS_FOLDER);
+    }
+
+    /**
+     * Returns the path of a content addressed image, such as objects/ab/cd/abcd...jpg
+     *
+     * @param filename name of the image, the hash of its content and the extension
+     * @return Path where the image is stored
+     */
+    public Path getContentAddressedPath(String filename) {
+        return this.getContentAddressedRoot()
+                   .resolve(filename.substring(0, 2))
+                   .resolve(filename.substring(2, 4))
+                   .resolve(filename);
+    }
+
+    /**
+     * Record that a customer uploaded a content addressed image, so it can post it.
+     *
+     * @param customerId the id of the customer
+     * @param filename   name returned by the upload
+     */
+    public void recordUpload(Long customerId, String filename) {
+        if (isContentAddressed(filename)) {
+            imageUploadRepository.insertIfAbsent(customerId, filename);
+        }
+    }
+
+    /**
+     * Refresh the upload records of a content addressed image about to be reused.
+     * It waits for a concurrent deletion of the image, so the caller must check
+     * that the image is still stored afterward.
+     *
+     * @param filename name of the image
+     */
+    public void retain(String filename) {
+        imageUploadRepository.touchByFilename(filename);
+    }
+
+    /**
+     * Check that a customer uploaded an image before referencing it.
+     * Other names are resolved in the folder of the customer, so only content addressed ones are checked.
+     *
+     * @param customerId the id of the customer
+     * @param filename   name of the image
+     * @throws ImageNotFoundException if the image is content addressed and the customer did not upload it
+     */
+    public void validateUploaderOrElseThrow(Long customerId, String filename) {
+        if (isContentAddressed(filename) && !imageUploadRepository.existsByCustomerIdAndFilename(customerId, filename)) {
+            throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
+        }
+    }
 
     /**
      * Creates a Resource from the given path.
@@ -28,14 +136,7 @@ public class ImageStorageService {
      * @return Resource object representing the image
      */
     public Resource createResource(Path path) {
-        Resource resource;
-        try {
-            resource = new UrlResource(path.toUri());
-        } catch (MalformedURLException e) {
-            throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
-        }
-
-        return resource;
+        return new FileSystemResource(path);
     }
 
     /**
@@ -46,14 +147,7 @@ public class ImageStorageService {
      * @return Resource object representing the image
      */
     public Resource getImage(String folderPath, String filename) {
-        Path filePath;
-        try {
-            filePath = Paths.get(UPLOAD_IMAGE_PATH + folderPath).resolve(filename).normalize();
-        } catch (InvalidPathException exception) {
-            throw new ImageNotFoundException(Exceptions.IMAGE.INVALID_PATH);
-        }
-
-        Resource resource = this.createResource(filePath);
+        Resource resource = this.createResource(this.resolve(folderPath, filename));
 
         if (!resource.exists()) {
             throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
@@ -62,19 +156,115 @@ public class ImageStorageService {
         return resource;
     }
 
+    /**
+     * Returns a resource for a variant of the image.
+     * The original is returned when the variant is null or it was not generated.
+     *
+     * @param folderPath path where image is stored
+     * @param filename   name of the original image
+     * @param variant    the variant or null for the original
+     * @return Resource object representing the image
+     */
+    public Resource getImage(String folderPath, String filename, ImageVariant variant) {
+        if (variant != null) {
+            Resource resource = this.createResource(this.resolve(folderPath, variant.filename(filename)));
+            if (resource.exists()) {
+                return resource;
+            }
+        }
+
+        return this.getImage(folderPath, filename);
+    }
 
     /**
-     * Delete an image from server storage
+     * Delete an image and its variants from server storage.
+     * A content addressed image is only deleted when nothing references it,
+     * so it must be called after the post or profile stops referencing it.
      *
      * @param folder   folder where the image is
      * @param filename name of the image
      */
+    @Transactional
     public void deleteImage(String folder, String filename) {
+        if (isContentAddressed(filename)) {
+            this.release(filename);
+            return;
+        }
+
         try {
             Path pathToFile = Path.of(UPLOAD_IMAGE_PATH + folder + "/" + filename);
             Files.deleteIfExists(pathToFile);
+            imageVariantService.deleteVariants(pathToFile);
         } catch (IOException e) {
             throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
         }
     }
+
+    /**
+     * Delete the content addressed images uploaded and never referenced.
+     * The ones uploaded within the orphan grace are kept, as they may be posted soon.
+     *
+     * @return int the number of images deleted
+     */
+    @Transactional
+    @Scheduled(cron = "${app.images.storage.sweep-cron:0 45 4 * * *}")
+    public int sweepOrphans() {
+        final Instant uploadedBefore = Instant.now().minusMillis(orphanGrace);
+
+        int deleted = 0;
+        for (String filename : imageUploadRepository.findOrphanFilenames(uploadedBefore)) {
+            if (this.release(filename)) {
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    // deletes the object when no post or profile references it, returns true if deleted.
+    // it must run in a transaction, so the upload records stay locked until the object is gone.
+    private boolean release(String filename) {
+        final List<Instant> uploads = imageUploadRepository.lockByFilename(filename);
+
+        // checked again once locked, an upload of the same image may have refreshed them
+        final Instant uploadedBefore = Instant.now().minusMillis(orphanGrace);
+        if (uploads.stream().anyMatch(uploadedAt -> uploadedAt.isAfter(uploadedBefore))) {
+            return false;
+        }
+
+        final long references = postRepository.countByPhotoFilename(filename)
+                                + profileRepository.countByImageFilename(filename);
+        if (references > 0) {
+            return false;
+        }
+
+        final Path object = this.getContentAddressedPath(filename);
+        try {
+            final boolean deleted = Files.deleteIfExists(object);
+            imageVariantService.deleteVariants(object);
+            imageUploadRepository.deleteByFilename(filename);
+            return deleted;
+        } catch (IOException e) {
+            throw new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Returns the path where an image is stored.
+     *
+     * @param folderPath path where image is stored, ignored if the image is content addressed
+     * @param filename   name of the image
+     * @return Path of the image
+     */
+    public Path resolve(String folderPath, String filename) {
+        if (isContentAddressed(filename)) {
+            return this.getContentAddressedPath(filename);
+        }
+
+        try {
+            return Paths.get(UPLOAD_IMAGE_PATH + folderPath).resolve(filename).normalize();
+        } catch (InvalidPathException exception) {
+            throw new ImageNotFoundException(Exceptions.IMAGE.INVALID_PATH);
+        }
+    }
 }
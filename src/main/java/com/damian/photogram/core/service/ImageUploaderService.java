@@ -1,16 +1,23 @@
 package com.damian.photogram.core.service;
 
+import com.damian.photogram.app.images.ImageJobService;
+import com.damian.photogram.app.images.enums.ImageJobStatus;
 import com.damian.photogram.core.exception.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.UUID;
 
 /**
@@ -21,9 +28,22 @@ public class ImageUploaderService {
     private final String IMAGE_PATH = "uploads/images/";
     private final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5 MB
     private final String[] ALLOWED_IMAGE_TYPE = {"image/jpg", "image/jpeg", "image/webp"};
+    private final ImageVariantService imageVariantService;
+    private final ImageJobService imageJobService;
+    private final ImageStorageService imageStorageService;
+
+    // name the images by the hash of their content, so identical images are stored once
+    @Value("${app.images.storage.content-addressed:false}")
+    private boolean contentAddressed;
 
     public ImageUploaderService(
+            ImageVariantService imageVariantService,
+            ImageJobService imageJobService,
+            ImageStorageService imageStorageService
     ) {
+        this.imageVariantService = imageVariantService;
+        this.imageJobService = imageJobService;
+        this.imageStorageService = imageStorageService;
     }
 
     // validations for file uploaded photos
@@ -47,12 +67,13 @@ public class ImageUploaderService {
     }
 
     // stores the image
-    private void storeFile(MultipartFile file, String folder, String filename) {
+    private Path storeFile(MultipartFile file, String folder, String filename) {
         try {
             Path uploadPath = Paths.get(IMAGE_PATH + folder);
             Files.createDirectories(uploadPath);
             Path filePath = uploadPath.resolve(filename);
             Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            return filePath;
         } catch (IOException e) {
             throw new ImageFailedUploadException(
                     Exceptions.IMAGE.UPLOAD_FAILED
@@ -60,26 +81,99 @@ public class ImageUploaderService {
         }
     }
 
+    // stores the image named by the hash of its content, unless it is stored already
+    private String storeContentAddressed(MultipartFile file, String extension) {
+        try {
+            Path objectsPath = imageStorageService.getContentAddressedRoot();
+            Files.createDirectories(objectsPath);
+
+            // the hash is only known once the whole file is read
+            Path tempPath = Files.createTempFile(objectsPath, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(tempPath);
+                throw e;
+            }
+
+            String filename = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path filePath = imageStorageService.getContentAddressedPath(filename);
+
+            // refreshed first, so a concurrent deletion of the image has finished when it is checked
+            imageStorageService.retain(filename);
+            if (Files.exists(filePath)) {
+                // the same image was uploaded before, it and its variants are reused
+                Files.delete(tempPath);
+
+                // unless they failed, then they are generated again
+                if (imageJobService.getStatus(filePath) == ImageJobStatus.FAILED) {
+                    imageJobService.enqueue(filePath);
+                }
+                return filename;
+            }
+
+            Files.createDirectories(filePath.getParent());
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // the smaller sizes served to grids and lists, the original is served until they are ready
+            imageJobService.enqueue(filePath);
+
+            return filename;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ImageFailedUploadException(
+                    Exceptions.IMAGE.UPLOAD_FAILED
+            );
+        }
+    }
+
     /**
-     * Uploads an image to the server
+     * Uploads an image to the server, its variants are generated in the background.
+     * When the images are content addressed the filename given is ignored.
      */
     public String uploadImage(MultipartFile file, String folder, String filename) {
         // run file validations
         this.validateImageOrElseThrow(file);
-        // TODO compress or convert to webp image before uploading to server
 
-        final String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        final String extension = this.getStoredExtension(file.getContentType());
+
+        if (contentAddressed) {
+            return this.storeContentAddressed(file, extension);
+        }
+
         if (!filename.endsWith(extension)) {
             filename += "." + extension;
         }
 
 
         // saving file
-        this.storeFile(file, folder, filename);
+        Path filePath = this.storeFile(file, folder, filename);
+
+        // the variants of a previous image with the same name are stale now
+        imageVariantService.deleteVariants(filePath);
+
+        // the smaller sizes served to grids and lists, the original is served until they are ready
+        imageJobService.enqueue(filePath);
 
         return filename;
     }
 
+    /**
+     * Returns the state of the variants of an uploaded image.
+     *
+     * @param folder   folder where the image was uploaded
+     * @param filename name returned by the upload
+     * @return ImageJobStatus PENDING until its variants are generated
+     */
+    public ImageJobStatus getVariantsStatus(String folder, String filename) {
+        return imageJobService.getStatus(imageStorageService.resolve(folder, filename));
+    }
+
+    // the extension of the validated content type, the one of the client filename is never trusted
+    private String getStoredExtension(String contentType) {
+        return "image/webp".equalsIgnoreCase(contentType) ? "webp" : "jpg";
+    }
+
     /**
      * Uploads an image to the server
      */
@@ -0,0 +1,58 @@
+package com.damian.photogram.core.service;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.ImageVariantNotValidException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Fixed sizes an uploaded image is resized to.
+ * A variant is stored as a JPEG next to the original, named after it with the variant suffix,
+ * so "photo.webp" gets "photo_thumb.jpg", "photo_medium.jpg" and "photo_full.jpg".
+ */
+public enum ImageVariant {
+    THUMB(320),
+    MEDIUM(720),
+    FULL(1080);
+
+    // the longest side of the variant in pixels
+    private final int maxSize;
+
+    ImageVariant(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the filename of this variant of an image.
+     *
+     * @param filename the filename of the original image
+     * @return String the filename of the variant
+     */
+    public String filename(String filename) {
+        return StringUtils.stripFilenameExtension(filename) + "_" + name().toLowerCase() + ".jpg";
+    }
+
+    /**
+     * Get the variant from a request parameter.
+     *
+     * @param size the name of the variant, case insensitive
+     * @return ImageVariant the variant or null for the original image
+     * @throws ImageVariantNotValidException if the name is not a variant
+     */
+    public static ImageVariant fromParam(String size) {
+        if (size == null || size.isBlank()) {
+            return null;
+        }
+
+        for (ImageVariant variant : values()) {
+            if (variant.name().equalsIgnoreCase(size.trim())) {
+                return variant;
+            }
+        }
+
+        throw new ImageVariantNotValidException(Exceptions.IMAGE.INVALID_SIZE);
+    }
+}
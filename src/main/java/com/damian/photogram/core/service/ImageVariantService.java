@@ -0,0 +1,178 @@
+package com.damian.photogram.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Generates the variants of an uploaded image, so the clients can load a small image
+ * for a grid instead of the original. Variants are written as JPEG next to the original.
+ * When the image can not be decoded (such as webp) no variants are written
+ * and the original is served for every size.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // largest variant first, so each one is scaled down from the previous
+    private static final ImageVariant[] VARIANTS_BY_SIZE = {
+            ImageVariant.FULL,
+            ImageVariant.MEDIUM,
+            ImageVariant.THUMB
+    };
+
+    @Value("${app.images.variants.enabled:true}")
+    private boolean enabled;
+
+    // images with more pixels are not decoded, it would take too much memory
+    @Value("${app.images.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.images.variants.quality:0.8}")
+    private float quality;
+
+    /**
+     * Write the variants of an image.
+     * Images that can not be decoded or have too many pixels get no variants,
+     * the original image is served when a variant is missing.
+     *
+     * @param original the path of the original image
+     * @return int the number of variants written
+     * @throws IOException if the image could not be read or a variant written, no variant is left then
+     */
+    public int generateVariants(Path original) throws IOException {
+        // the variants of a previous image with the same name are stale now
+        deleteVariants(original);
+
+        if (!enabled) {
+            return 0;
+        }
+
+        try {
+            if (!hasAllowedDimensions(original)) {
+                return 0;
+            }
+
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                return 0;
+            }
+
+            int written = 0;
+            for (ImageVariant variant : VARIANTS_BY_SIZE) {
+                image = scale(image, variant.getMaxSize());
+                write(image, original.resolveSibling(variant.filename(original.getFileName().toString())));
+                written++;
+            }
+
+            return written;
+        } catch (IOException | RuntimeException e) {
+            // the job retries it, half written variants must not be served meanwhile
+            deleteVariants(original);
+            throw e;
+        }
+    }
+
+    /**
+     * Delete the variants of an image.
+     *
+     * @param original the path of the original image
+     */
+    public void deleteVariants(Path original) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                Files.deleteIfExists(original.resolveSibling(variant.filename(original.getFileName().toString())));
+            } catch (IOException e) {
+                log.warn("Failed to delete the {} variant of {}", variant, original, e);
+            }
+        }
+    }
+
+    // reads only the header of the image to check its size
+    private boolean hasAllowedDimensions(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            // the file could not be opened
+            if (input == null) {
+                throw new IIOException("Can't read input file " + original);
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return false;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return (long) reader.getWidth(0) * reader.getHeight(0) <= maxPixels;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // scales the image to fit in a square of the given size, never up
+    private BufferedImage scale(BufferedImage image, int maxSize) {
+        final int longestSide = Math.max(image.getWidth(), image.getHeight());
+        final double ratio = Math.min(1d, (double) maxSize / longestSide);
+        final int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        final int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        // jpeg has no alpha, so the image is always drawn on rgb
+        if (ratio == 1d && image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return scaled;
+    }
+
+    // writes to a temporary file first, so a half written variant is never served
+    private void write(BufferedImage image, Path target) throws IOException {
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        // the output stream does not truncate an existing file
+        Files.deleteIfExists(temp);
+
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,130 @@
+package com.damian.photogram.core.service;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.exception.TooManyPasswordAttemptsException;
+import com.damian.photogram.core.security.PasswordAttemptThrottle;
+import com.damian.photogram.domain.customer.model.Customer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of the request threads.
+ * The pool has as many threads as cores and a bounded queue, when the queue is full
+ * the check fails fast, so a burst of logins can not take every request thread.
+ * It is also the password encoder used by the login.
+ */
+@Service
+public class PasswordVerifier implements PasswordEncoder {
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordAttemptThrottle passwordAttemptThrottle;
+
+    // 0 means one thread per core
+    @Value("${app.auth.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.bcrypt.queue-size:100}")
+    private int queueSize;
+
+    @Value("${app.auth.bcrypt.timeout:5000}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    public PasswordVerifier(
+            BCryptPasswordEncoder bCryptPasswordEncoder,
+            PasswordAttemptThrottle passwordAttemptThrottle
+    ) {
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.passwordAttemptThrottle = passwordAttemptThrottle;
+    }
+
+    @PostConstruct
+    void init() {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger count = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Check the password of a customer.
+     * The attempt is counted for the email of the customer before hashing.
+     *
+     * @param customer    the customer
+     * @param rawPassword the password to check
+     * @throws TooManyPasswordAttemptsException if there are too many attempts or checks in progress
+     * @throws PasswordMismatchException        if the password does not match
+     */
+    public void validatePassword(Customer customer, String rawPassword) {
+        passwordAttemptThrottle.acquire(customer.getEmail(), null);
+
+        if (!matches(rawPassword, customer.getAccount().getPassword())) {
+            throw new PasswordMismatchException(PasswordMismatchException.PASSWORD_MISMATCH);
+        }
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bCryptPasswordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> task) {
+        final Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // the queue is full
+            throw new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_CHECKS);
+        }
+
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_CHECKS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_CHECKS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,28 +1,29 @@
 package com.damian.photogram.core.utils;
 
-import com.damian.photogram.core.exception.PasswordMismatchException;
-import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.core.security.CustomerDetails;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 public class AuthHelper {
-    private static final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
-
-    public static void validatePassword(Customer customer, String rawPassword) {
-        if (!bCryptPasswordEncoder.matches(rawPassword, customer.getAccount().getPassword())) {
-            throw new PasswordMismatchException(PasswordMismatchException.PASSWORD_MISMATCH);
-        }
-    }
-
-    public static Customer getLoggedCustomer() {
-        return (Customer) SecurityContextHolder
+    /**
+     * Get the authenticated customer.
+     * It may be built from the token claims, so only the id, email and role can be trusted,
+     * the Customer entity must be loaded for anything else.
+     *
+     * @return CustomerDetails the authenticated customer
+     */
+    public static CustomerDetails getLoggedCustomer() {
+        return (CustomerDetails) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getPrincipal();
     }
 
-    public static boolean isAdmin(Customer customer) {
+    public static Long getLoggedCustomerId() {
+        return getLoggedCustomer().getId();
+    }
+
+    public static boolean isAdmin(CustomerDetails customer) {
         return customer.getRole().equals(CustomerRole.ADMIN);
     }
 
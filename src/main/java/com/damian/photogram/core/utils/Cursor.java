@@ -0,0 +1,55 @@
+package com.damian.photogram.core.utils;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a list sorted by (createdAt DESC, id DESC).
+ * It is sent to the clients as an opaque string so the next page
+ * can be fetched seeking on the index instead of skipping rows.
+ *
+ * @param createdAt creation date of the last element returned
+ * @param id        id of the last element returned
+ */
+public record Cursor(Instant createdAt, Long id) {
+
+    /**
+     * Encode the cursor as an opaque url-safe string.
+     *
+     * @return String the encoded cursor
+     */
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously returned by {@link #encode()}.
+     *
+     * @param encoded the encoded cursor
+     * @return Cursor the decoded cursor
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static Cursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, colon))
+            );
+
+            return new Cursor(createdAt, Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(Exceptions.CURSOR.INVALID);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.damian.photogram.core.utils;
+
+import com.damian.photogram.core.exception.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A page of results fetched with keyset pagination.
+ * Unlike Page, it never counts the total number of elements.
+ *
+ * @param content    the elements of this page
+ * @param size       the requested size of the page
+ * @param hasNext    true if there are more elements after this page
+ * @param nextCursor cursor to fetch the next page, null if there are no more elements
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+    public static final int MAX_SIZE = 50;
+
+    /**
+     * Clamp the size requested by the client.
+     *
+     * @param size the requested size
+     * @return the size to use, between 1 and MAX_SIZE
+     */
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Fetch a page seeking after the cursor of the previous page.
+     * One more row than the page size is fetched to know if there is a next page.
+     *
+     * @param before   cursor returned by the previous page, null for the first page
+     * @param size     the requested size of the page
+     * @param first    query of the first page
+     * @param after    query of the rows after a cursor
+     * @param toCursor function to get the cursor of an element
+     * @return CursorPage the page
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static <T> CursorPage<T> fetch(
+            String before,
+            int size,
+            Function<Limit, List<T>> first,
+            BiFunction<Cursor, Limit, List<T>> after,
+            Function<T, Cursor> toCursor
+    ) {
+        final int limit = limit(size);
+        final Limit rows = Limit.of(limit + 1);
+
+        List<T> fetched = before == null
+                ? first.apply(rows)
+                : after.apply(Cursor.decode(before), rows);
+
+        return of(fetched, limit, toCursor);
+    }
+
+    /**
+     * Build a page from the rows fetched with a limit of size + 1.
+     *
+     * @param rows     the rows fetched, one more than size if there are more elements
+     * @param size     the size of the page
+     * @param toCursor function to get the cursor of an element
+     * @return CursorPage the page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> toCursor) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? toCursor.apply(content.get(content.size() - 1)).encode() : null;
+
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(
+                content.stream().map(mapper).toList(),
+                size,
+                hasNext,
+                nextCursor
+        );
+    }
+}
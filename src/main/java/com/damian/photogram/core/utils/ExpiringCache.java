@@ -0,0 +1,110 @@
+package com.damian.photogram.core.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Bounded in memory cache where every entry has its own expiration time.
+ * Expired entries are never returned and are dropped when the cache is full.
+ * If it is still full after that, a tenth of the entries are evicted in
+ * iteration order, so inserting stays cheap without keeping an ordered structure.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class ExpiringCache<K, V> {
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Get a value if present and not expired.
+     *
+     * @param key the key
+     * @return V the value or null if missing or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        return entry.value();
+    }
+
+    /**
+     * Add a value that will expire at the given time.
+     *
+     * @param key       the key
+     * @param value     the value
+     * @param expiresAt epoch millis after which the value is not returned
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict();
+        }
+
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Remove a value.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove every value matching the predicate.
+     *
+     * @param predicate test on the key and value of each entry
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value()));
+    }
+
+    /**
+     * Remove all the values.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        final long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        int toEvict = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -1,20 +1,52 @@
 package com.damian.photogram.core.utils;
 
+import com.damian.photogram.core.security.CustomerPrincipal;
+import com.damian.photogram.domain.account.enums.AccountStatus;
+import com.damian.photogram.domain.customer.enums.CustomerRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtUtil {
+    public static final String CLAIM_CUSTOMER_ID = "customerId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    // tokens are short lived so a suspended or revoked customer is not trusted for long
+    @Value("${app.jwt.expiration:900000}")
+    private long expiration;
+
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    // the key and the parser are thread safe, so they are built once
+    private Key signingKey;
+    private JwtParser parser;
+
+    // verified token -> claims, each entry expires with its token
+    private ExpiringCache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        parser = Jwts.parserBuilder()
+                     .setSigningKey(signingKey)
+                     .build();
+        claimsCache = new ExpiringCache<>(claimsCacheSize);
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -23,12 +55,34 @@ public class JwtUtil {
         return resolver.apply(getAllClaims(token));
     }
 
+    /**
+     * Verify the token and get its claims.
+     * The signature is only checked the first time a token is seen,
+     * the claims are then cached until the token expires.
+     *
+     * @param token the token
+     * @return Claims the claims of the token
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException        if the token is malformed or its signature is not valid
+     */
+    public Claims getVerifiedClaims(String token) {
+        Claims claims = claimsCache.get(token);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = parser.parseClaimsJws(token).getBody();
+
+        // tokens without expiration are not cached
+        if (claims.getExpiration() != null) {
+            claimsCache.put(token, claims, claims.getExpiration().getTime());
+        }
+
+        return claims;
+    }
+
     private Claims getAllClaims(String token) {
-        return Jwts.parserBuilder()
-                   .setSigningKey(getSigningKey())
-                   .build()
-                   .parseClaimsJws(token)
-                   .getBody();
+        return getVerifiedClaims(token);
     }
 
     public String generateToken(String email, Date expiration) {
@@ -44,13 +98,42 @@ public class JwtUtil {
     public String generateToken(Map<String, Object> claims, String email) {
         return Jwts.builder()
                    .setClaims(claims)
+                   .setId(UUID.randomUUID().toString()) // so the token can be revoked
                    .setSubject(email)
                    .setIssuedAt(new Date())
-                   .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hora
+                   .setExpiration(new Date(System.currentTimeMillis() + expiration))
                    .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                    .compact();
     }
 
+    public long getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * Build the authenticated customer from the claims of a verified token.
+     *
+     * @param claims the verified claims
+     * @return CustomerPrincipal the customer or null if the token does not carry the customer id
+     */
+    public CustomerPrincipal getPrincipal(Claims claims) {
+        Long customerId = claims.get(CLAIM_CUSTOMER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String status = claims.get(CLAIM_STATUS, String.class);
+
+        // tokens issued before the claims were added
+        if (customerId == null || role == null || status == null) {
+            return null;
+        }
+
+        return new CustomerPrincipal(
+                customerId,
+                claims.getSubject(),
+                CustomerRole.valueOf(role),
+                AccountStatus.valueOf(status)
+        );
+    }
+
     public boolean isTokenExpired(String token) {
         try {
             Date expiration = extractClaim(token, Claims::getExpiration);
@@ -61,7 +144,7 @@ public class JwtUtil {
     }
 
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
 
     public void printToken(String token) {
@@ -73,7 +156,7 @@ public class JwtUtil {
             getAllClaims(token);
         } catch (ExpiredJwtException e) {
             return true;
-        } catch (MalformedJwtException | UnsupportedJwtException | IllegalArgumentException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
         return true;
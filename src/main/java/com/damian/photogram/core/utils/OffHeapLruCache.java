@@ -0,0 +1,118 @@
+package com.damian.photogram.core.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of contents kept in direct buffers, outside of the heap, so they do not add
+ * to the GC work however many bytes are cached. The bytes kept are bounded by a budget and
+ * the least recently used entries are evicted to make room for new ones.
+ * Readers get a read only view of the buffer, so an entry evicted while it is being read
+ * stays valid for them and it is released once they are done.
+ *
+ * @param <K> the type of the keys
+ */
+public class OffHeapLruCache<K> {
+    // access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<K, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public OffHeapLruCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Get the content of a key.
+     *
+     * @param key the key
+     * @return ByteBuffer a read only view of the content or null if missing
+     */
+    public ByteBuffer get(K key) {
+        final ByteBuffer content;
+        synchronized (this) {
+            content = entries.get(key);
+        }
+
+        if (content == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return content.asReadOnlyBuffer();
+    }
+
+    /**
+     * Add the content of a key, evicting the least recently used entries if needed.
+     *
+     * @param key     the key
+     * @param content a direct buffer with the content between its position and limit
+     * @return true if the content was cached, false if it is larger than the budget
+     */
+    public boolean put(K key, ByteBuffer content) {
+        final int length = content.remaining();
+        if (length > maxBytes) {
+            return false;
+        }
+
+        synchronized (this) {
+            ByteBuffer previous = entries.put(key, content.slice());
+            if (previous != null) {
+                bytes -= previous.capacity();
+            }
+            bytes += length;
+
+            Iterator<Map.Entry<K, ByteBuffer>> iterator = entries.entrySet().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<K, ByteBuffer> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                bytes -= eldest.getValue().capacity();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        ByteBuffer previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.capacity();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,99 @@
+package com.damian.photogram.core.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent set where every key has an expiration time.
+ * Keys are grouped in buckets by expiration, so a lookup with the expiration of the key
+ * only checks one bucket, and expired keys are dropped a whole bucket at a time.
+ * While the set is empty a lookup is a single read.
+ *
+ * @param <K> the type of the keys
+ */
+public class TimeBucketedSet<K> {
+    // bucket number (expiration / bucket width) -> keys expiring in that bucket
+    private final Map<Long, Set<K>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final long bucketWidth;
+
+    /**
+     * @param bucketWidth the millis of expiration times grouped in each bucket
+     */
+    public TimeBucketedSet(long bucketWidth) {
+        this.bucketWidth = Math.max(1, bucketWidth);
+    }
+
+    /**
+     * Add a key until it expires.
+     *
+     * @param key       the key
+     * @param expiresAt epoch millis when the key expires
+     * @return true if the key was added, false if already present or expired
+     */
+    public boolean add(K key, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+
+        boolean added = buckets
+                .computeIfAbsent(bucketOf(expiresAt), bucket -> ConcurrentHashMap.newKeySet())
+                .add(key);
+
+        if (added) {
+            size.incrementAndGet();
+        }
+
+        return added;
+    }
+
+    /**
+     * Check if a key is in the set.
+     *
+     * @param key       the key
+     * @param expiresAt the expiration the key was added with
+     * @return true if the key is present
+     */
+    public boolean contains(K key, long expiresAt) {
+        if (size.get() == 0) {
+            return false;
+        }
+
+        Set<K> keys = buckets.get(bucketOf(expiresAt));
+        return keys != null && keys.contains(key);
+    }
+
+    /**
+     * Drop the buckets where every key has expired.
+     *
+     * @param now epoch millis to compare the expirations with
+     * @return int the number of keys dropped
+     */
+    public int prune(long now) {
+        final long current = bucketOf(now);
+        int removed = 0;
+
+        Iterator<Map.Entry<Long, Set<K>>> entries = buckets.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Set<K>> entry = entries.next();
+            if (entry.getKey() < current) {
+                removed += entry.getValue().size();
+                entries.remove();
+            }
+        }
+
+        size.addAndGet(-removed);
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private long bucketOf(long expiresAt) {
+        return expiresAt / bucketWidth;
+    }
+}
@@ -2,7 +2,9 @@ package com.damian.photogram.domain.account.service;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.core.service.EmailSenderService;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.core.utils.AuthHelper;
 import com.damian.photogram.domain.account.dto.request.AccountPasswordResetRequest;
 import com.damian.photogram.domain.account.dto.request.AccountPasswordResetSetRequest;
@@ -31,6 +33,8 @@ public class AccountPasswordService {
     private final AccountTokenRepository accountTokenRepository;
     private final Environment env;
     private final AccountVerificationService accountVerificationService;
+    private final CustomerDetailsService customerDetailsService;
+    private final PasswordVerifier passwordVerifier;
 
     public AccountPasswordService(
             BCryptPasswordEncoder bCryptPasswordEncoder,
@@ -39,7 +43,9 @@ public class AccountPasswordService {
             CustomerRepository customerRepository,
             AccountTokenRepository accountTokenRepository,
             Environment env,
-            AccountVerificationService accountVerificationService
+            AccountVerificationService accountVerificationService,
+            CustomerDetailsService customerDetailsService,
+            PasswordVerifier passwordVerifier
     ) {
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.accountRepository = accountRepository;
@@ -48,6 +54,8 @@ public class AccountPasswordService {
         this.accountTokenRepository = accountTokenRepository;
         this.env = env;
         this.accountVerificationService = accountVerificationService;
+        this.customerDetailsService = customerDetailsService;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
@@ -77,6 +85,9 @@ public class AccountPasswordService {
 
         // save the changes
         accountRepository.save(customerAccount);
+
+        // the cached customer still has the old password and the tokens issued with it are revoked
+        customerDetailsService.revokeTokens(customerId);
     }
 
     /**
@@ -88,13 +99,20 @@ public class AccountPasswordService {
      */
     public void updatePassword(AccountPasswordUpdateRequest request) {
         // we extract the email from the Customer stored in the SecurityContext
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // the principal only holds the id, the customer is loaded to check the password
+        Customer currentCustomer = customerRepository.findById(currentCustomerId).orElseThrow(
+                () -> new CustomerNotFoundException(
+                        Exceptions.CUSTOMER.NOT_FOUND
+                )
+        );
 
         // Before making any changes we check that the password sent by the customer matches the one in the entity
-        AuthHelper.validatePassword(currentCustomer, request.currentPassword());
+        passwordVerifier.validatePassword(currentCustomer, request.currentPassword());
 
         // update the password
-        this.updatePassword(currentCustomer.getId(), request.newPassword());
+        this.updatePassword(currentCustomerId, request.newPassword());
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.damian.photogram.domain.account.service;
 
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.core.service.EmailSenderService;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.account.enums.AccountTokenType;
@@ -23,17 +24,20 @@ public class AccountVerificationService {
     private final AccountTokenRepository accountTokenRepository;
     private final AccountRepository accountRepository;
     private final EmailSenderService emailSenderService;
+    private final CustomerDetailsService customerDetailsService;
 
     public AccountVerificationService(
             Environment env,
             AccountTokenRepository accountTokenRepository,
             AccountRepository accountRepository,
-            EmailSenderService emailSenderService
+            EmailSenderService emailSenderService,
+            CustomerDetailsService customerDetailsService
     ) {
         this.env = env;
         this.accountTokenRepository = accountTokenRepository;
         this.accountRepository = accountRepository;
         this.emailSenderService = emailSenderService;
+        this.customerDetailsService = customerDetailsService;
     }
 
     /**
@@ -70,8 +74,12 @@ public class AccountVerificationService {
 
         // set the time at what the account was updated
         accountCustomer.setUpdatedAt(Instant.now());
+        Account savedAccount = accountRepository.save(accountCustomer);
 
-        return accountRepository.save(accountCustomer);
+        // the cached customer still has the old account status
+        customerDetailsService.evict(accountToken.getCustomer().getId());
+
+        return savedAccount;
     }
 
     /**
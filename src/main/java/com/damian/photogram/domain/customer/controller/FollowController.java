@@ -1,9 +1,15 @@
 package com.damian.photogram.domain.customer.controller;
 
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.dto.request.FollowStateBatchRequest;
 import com.damian.photogram.domain.customer.dto.response.FollowDto;
+import com.damian.photogram.domain.customer.dto.response.FollowStateDto;
+import com.damian.photogram.domain.customer.dto.response.FollowSuggestionDto;
+import com.damian.photogram.domain.customer.dto.response.MutualFollowersDto;
 import com.damian.photogram.domain.customer.mapper.FollowDtoMapper;
 import com.damian.photogram.domain.customer.model.Follow;
 import com.damian.photogram.domain.customer.service.FollowService;
+import com.damian.photogram.domain.customer.service.FollowSuggestionService;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,16 +19,24 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RequestMapping("/api/v1")
 @RestController
 public class FollowController {
     private final FollowService followService;
+    private final FollowSuggestionService followSuggestionService;
 
     @Autowired
-    public FollowController(FollowService followService) {
+    public FollowController(
+            FollowService followService,
+            FollowSuggestionService followSuggestionService
+    ) {
         this.followService = followService;
+        this.followSuggestionService = followSuggestionService;
     }
 
     // endpoint to check if current customer follows another customer (customerId)
@@ -39,6 +53,32 @@ public class FollowController {
                 .body(followDto);
     }
 
+    // endpoint to check if current customer follows and is followed by a list of customers at once.
+    @PostMapping("/customers/follows/batch")
+    public ResponseEntity<?> getFollowStates(
+            @Validated @RequestBody
+            FollowStateBatchRequest request
+    ) {
+        List<FollowStateDto> followStates = followService.getFollowStates(request.customerIds());
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(followStates);
+    }
+
+    // endpoint to count the followers of a customer that current customer follows
+    @GetMapping("/customers/{customerId}/followers/mutual")
+    public ResponseEntity<?> getMutualFollowers(
+            @PathVariable @NotNull @Positive
+            Long customerId
+    ) {
+        MutualFollowersDto mutualFollowers = followService.getMutualFollowers(customerId);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(mutualFollowers);
+    }
+
     // endpoint to fetch all followers from current customer
     @GetMapping("/customers/followers")
     public ResponseEntity<?> getCurrentCustomerFollowers(
@@ -69,6 +109,24 @@ public class FollowController {
                 .body(followersDTO);
     }
 
+    // endpoint to fetch followers from specific customer using a cursor instead of page numbers
+    @GetMapping("/customers/{customerId}/followers/scroll")
+    public ResponseEntity<?> scrollCustomerFollowers(
+            @PathVariable @NotNull @Positive
+            Long customerId,
+            @RequestParam(required = false)
+            String before,
+            @RequestParam(defaultValue = "8")
+            int size
+    ) {
+        CursorPage<Follow> follows = followService.getFollowers(customerId, before, size);
+        CursorPage<FollowDto> followersDTO = FollowDtoMapper.toFollowDtoCursorPage(follows);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(followersDTO);
+    }
+
     // endpoint to fetch all customers following current customer
     @GetMapping("/customers/{customerId}/following")
     public ResponseEntity<?> getCustomerFollowing(
@@ -85,6 +143,37 @@ public class FollowController {
                 .body(followedDTO);
     }
 
+    // endpoint to fetch customers followed by specific customer using a cursor instead of page numbers
+    @GetMapping("/customers/{customerId}/following/scroll")
+    public ResponseEntity<?> scrollCustomerFollowing(
+            @PathVariable @NotNull @Positive
+            Long customerId,
+            @RequestParam(required = false)
+            String before,
+            @RequestParam(defaultValue = "8")
+            int size
+    ) {
+        CursorPage<Follow> followed = followService.getFollowed(customerId, before, size);
+        CursorPage<FollowDto> followedDTO = FollowDtoMapper.toFollowDtoCursorPage(followed);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(followedDTO);
+    }
+
+    // endpoint to fetch customers the current customer may know, ranked by mutual follows
+    @GetMapping("/follows/suggestions")
+    public ResponseEntity<?> getFollowSuggestions(
+            @RequestParam(defaultValue = "10")
+            int size
+    ) {
+        List<FollowSuggestionDto> suggestions = followSuggestionService.getSuggestions(size);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(suggestions);
+    }
+
     // endpoint for the current customer to follow another customer given its customerId.
     @PostMapping("/customers/{customerId}/follow")
     public ResponseEntity<?> follow(
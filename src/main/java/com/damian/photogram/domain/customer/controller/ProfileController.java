@@ -1,12 +1,16 @@
 package com.damian.photogram.domain.customer.controller;
 
 import com.damian.photogram.core.service.ImageHelper;
+import com.damian.photogram.core.service.ImageServingService;
+import com.damian.photogram.core.service.ImageVariant;
 import com.damian.photogram.domain.customer.dto.request.ProfileUpdateRequest;
 import com.damian.photogram.domain.customer.dto.response.ProfileDto;
 import com.damian.photogram.domain.customer.mapper.ProfileDtoMapper;
 import com.damian.photogram.domain.customer.model.Profile;
 import com.damian.photogram.domain.customer.service.ProfileImageService;
 import com.damian.photogram.domain.customer.service.ProfileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -20,6 +24,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 @RequestMapping("/api/v1")
@@ -27,14 +32,17 @@ import java.util.concurrent.TimeUnit;
 public class ProfileController {
     private final ProfileService profileService;
     private final ProfileImageService profileImageService;
+    private final ImageServingService imageServingService;
 
     @Autowired
     public ProfileController(
             ProfileService profileService,
-            ProfileImageService profileImageService
+            ProfileImageService profileImageService,
+            ImageServingService imageServingService
     ) {
         this.profileService = profileService;
         this.profileImageService = profileImageService;
+        this.imageServingService = imageServingService;
     }
 
     // endpoint to get the current customer's profile
@@ -76,18 +84,21 @@ public class ProfileController {
 
     // endpoint to get the logged customer profile photo
     @GetMapping("/customers/{customerId}/profile/photo")
-    public ResponseEntity<?> getProfilePhoto(
+    public void getProfilePhoto(
             @PathVariable @NotNull @Positive
-            Long customerId
-    ) {
-        Resource resource = profileImageService.getProfileImage(customerId);
-        String contentType = ImageHelper.getContentType(resource);
-
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .contentType(MediaType.parseMediaType(contentType))
-                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
-                .body(resource);
+            Long customerId,
+            @RequestParam(required = false)
+            String size,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Resource resource = profileImageService.getProfileImage(customerId, ImageVariant.fromParam(size));
+        imageServingService.serve(
+                resource,
+                CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic(),
+                request,
+                response
+        );
     }
 
     // endpoint for the current customer to upload his profile photo
@@ -0,0 +1,14 @@
+package com.damian.photogram.domain.customer.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record FollowStateBatchRequest(
+        @NotEmpty(message = "Customer ids cannot be empty")
+        @Size(max = 50, message = "Customer ids cannot contain more than 50 elements")
+        List<@NotNull Long> customerIds
+) {
+}
@@ -0,0 +1,8 @@
+package com.damian.photogram.domain.customer.dto.response;
+
+public record FollowStateDto(
+        Long customerId,
+        boolean following,
+        boolean followedBy
+) {
+}
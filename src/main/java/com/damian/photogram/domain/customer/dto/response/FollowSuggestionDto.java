@@ -0,0 +1,9 @@
+package com.damian.photogram.domain.customer.dto.response;
+
+public record FollowSuggestionDto(
+        Long customerId,
+        String username,
+        String profileImageFilename,
+        long mutualFollows
+) {
+}
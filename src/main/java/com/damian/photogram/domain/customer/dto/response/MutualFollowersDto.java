@@ -0,0 +1,7 @@
+package com.damian.photogram.domain.customer.dto.response;
+
+public record MutualFollowersDto(
+        Long customerId,
+        long mutualFollowers
+) {
+}
@@ -1,15 +1,15 @@
 package com.damian.photogram.domain.customer.helper;
 
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.security.CustomerDetails;
 import com.damian.photogram.domain.customer.exception.ProfileNotOwnerException;
-import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.model.Profile;
 
 public class ProfileAuthorizationHelper {
-    private Customer customer;
+    private CustomerDetails customer;
     private Profile profile;
 
-    public static ProfileAuthorizationHelper authorize(Customer customer, Profile profile) {
+    public static ProfileAuthorizationHelper authorize(CustomerDetails customer, Profile profile) {
         ProfileAuthorizationHelper helper = new ProfileAuthorizationHelper();
         helper.profile = profile;
         helper.customer = customer;
@@ -1,5 +1,6 @@
 package com.damian.photogram.domain.customer.mapper;
 
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.customer.dto.response.FollowDto;
 import com.damian.photogram.domain.customer.model.Follow;
 import org.springframework.data.domain.Page;
@@ -33,4 +34,11 @@ public class FollowDtoMapper {
                         FollowDtoMapper::toFollowDto
                 );
     }
+
+    public static CursorPage<FollowDto> toFollowDtoCursorPage(CursorPage<Follow> follows) {
+        return follows
+                .map(
+                        FollowDtoMapper::toFollowDto
+                );
+    }
 }
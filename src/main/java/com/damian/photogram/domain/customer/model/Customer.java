@@ -93,7 +93,6 @@ public class Customer implements CustomerDetails {
         return email;
     }
 
-    @Override
     public void setEmail(String email) {
         this.email = email;
     }
@@ -0,0 +1,98 @@
+package com.damian.photogram.domain.customer.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Denormalized counters of a customer.
+ * They are updated in the same transaction that creates or deletes posts and follows,
+ * so they can be read without counting rows.
+ */
+@Entity
+@Table(name = "customer_stats")
+public class CustomerStats {
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column
+    private Long posts;
+
+    @Column
+    private Long followers;
+
+    @Column
+    private Long following;
+
+    @Column
+    private Instant updatedAt;
+
+    public CustomerStats() {
+        this.posts = 0L;
+        this.followers = 0L;
+        this.following = 0L;
+        this.updatedAt = Instant.now();
+    }
+
+    public CustomerStats(Long customerId) {
+        this();
+        this.customerId = customerId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public CustomerStats setCustomerId(Long customerId) {
+        this.customerId = customerId;
+        return this;
+    }
+
+    public Long getPosts() {
+        return posts;
+    }
+
+    public CustomerStats setPosts(Long posts) {
+        this.posts = posts;
+        return this;
+    }
+
+    public Long getFollowers() {
+        return followers;
+    }
+
+    public CustomerStats setFollowers(Long followers) {
+        this.followers = followers;
+        return this;
+    }
+
+    public Long getFollowing() {
+        return following;
+    }
+
+    public CustomerStats setFollowing(Long following) {
+        this.following = following;
+        return this;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public CustomerStats setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerStats {" +
+               "customerId=" + customerId +
+               ", posts=" + posts +
+               ", followers=" + followers +
+               ", following=" + following +
+               ", updatedAt=" + updatedAt +
+               "}";
+    }
+}
@@ -0,0 +1,86 @@
+package com.damian.photogram.domain.customer.repository;
+
+import com.damian.photogram.domain.customer.model.CustomerStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, Long> {
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerStats s SET s.posts = s.posts + :delta, s.updatedAt = INSTANT " +
+           "WHERE s.customerId = :customerId")
+    int incrementPosts(@Param("customerId") Long customerId, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerStats s SET s.followers = s.followers + :delta, s.updatedAt = INSTANT " +
+           "WHERE s.customerId = :customerId")
+    int incrementFollowers(@Param("customerId") Long customerId, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerStats s SET s.following = s.following + :delta, s.updatedAt = INSTANT " +
+           "WHERE s.customerId = :customerId")
+    int incrementFollowing(@Param("customerId") Long customerId, @Param("delta") long delta);
+
+    // create the counters row of a customer, nothing when another transaction created it first
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_stats (customer_id, posts, followers, following, updated_at) " +
+                    "VALUES (:customerId, :posts, :followers, :following, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT DO NOTHING",
+            nativeQuery = true
+    )
+    int insertIfAbsent(
+            @Param("customerId") Long customerId,
+            @Param("posts") long posts,
+            @Param("followers") long followers,
+            @Param("following") long following
+    );
+
+    // create the counters row for customers that do not have one yet
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_stats (customer_id, posts, followers, following, updated_at) " +
+                    "SELECT c.id, 0, 0, 0, CURRENT_TIMESTAMP FROM customers c " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM customer_stats s WHERE s.customer_id = c.id)",
+            nativeQuery = true
+    )
+    int insertMissing();
+
+    // customers whose counters drifted from the real values
+    @Query("SELECT s.customerId FROM CustomerStats s " +
+           "WHERE s.posts <> (SELECT COUNT(p) FROM Post p WHERE p.author.id = s.customerId) " +
+           "OR s.followers <> (SELECT COUNT(f) FROM Follow f WHERE f.followedCustomer.id = s.customerId) " +
+           "OR s.following <> (SELECT COUNT(f) FROM Follow f WHERE f.followerCustomer.id = s.customerId) " +
+           "ORDER BY s.customerId")
+    List<Long> findDriftedCustomerIds();
+
+    // lock the counters row of a customer until the end of the transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.customerId FROM CustomerStats s WHERE s.customerId = :customerId")
+    Optional<Long> lockById(@Param("customerId") Long customerId);
+
+    // recompute the counters of a customer from the real values
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomerStats s SET " +
+           "s.posts = (SELECT COUNT(p) FROM Post p WHERE p.author.id = s.customerId), " +
+           "s.followers = (SELECT COUNT(f) FROM Follow f WHERE f.followedCustomer.id = s.customerId), " +
+           "s.following = (SELECT COUNT(f) FROM Follow f WHERE f.followerCustomer.id = s.customerId), " +
+           "s.updatedAt = INSTANT " +
+           "WHERE s.customerId = :customerId")
+    int repairDrift(@Param("customerId") Long customerId);
+}
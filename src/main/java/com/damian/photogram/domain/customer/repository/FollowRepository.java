@@ -1,6 +1,7 @@
 package com.damian.photogram.domain.customer.repository;
 
 import com.damian.photogram.domain.customer.model.Follow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +20,68 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
 
     Page<Follow> findAllByFollowerCustomer_Id(Long followerCustomerId, Pageable pageable);
 
+    // first page of followers from a customer (keyset pagination)
+    @Query("SELECT f FROM Follow f WHERE f.followedCustomer.id = :customerId ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findLatestFollowers(@Param("customerId") Long customerId, Limit limit);
+
+    // followers from a customer older than the cursor (keyset pagination)
+    @Query("SELECT f FROM Follow f WHERE f.followedCustomer.id = :customerId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowersBefore(
+            @Param("customerId") Long customerId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // first page of customers followed by a customer (keyset pagination)
+    @Query("SELECT f FROM Follow f WHERE f.followerCustomer.id = :customerId ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findLatestFollowed(@Param("customerId") Long customerId, Limit limit);
+
+    // customers followed by a customer older than the cursor (keyset pagination)
+    @Query("SELECT f FROM Follow f WHERE f.followerCustomer.id = :customerId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Follow> findFollowedBefore(
+            @Param("customerId") Long customerId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // follows after the given id, used to load the follow graph in batches
+    @Query("SELECT f.id AS id, f.followerCustomer.id AS followerId, f.followedCustomer.id AS followedId " +
+           "FROM Follow f WHERE f.id > :afterId ORDER BY f.id")
+    List<FollowEdge> findEdgesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // ids of the customers following at least one customer
+    @Query("SELECT DISTINCT f.followerCustomer.id FROM Follow f")
+    List<Long> findFollowerCustomerIds();
+
+    // customers followed by the customers that a customer follows, ranked by how many of them follow each one
+    @Query("SELECT f2.followedCustomer.id AS customerId, COUNT(f2.id) AS mutualFollows " +
+           "FROM Follow f1 JOIN Follow f2 ON f2.followerCustomer.id = f1.followedCustomer.id " +
+           "WHERE f1.followerCustomer.id = :customerId AND f2.followedCustomer.id <> :customerId " +
+           "AND NOT EXISTS (SELECT f3.id FROM Follow f3 WHERE f3.followerCustomer.id = :customerId " +
+           "AND f3.followedCustomer.id = f2.followedCustomer.id) " +
+           "GROUP BY f2.followedCustomer.id ORDER BY COUNT(f2.id) DESC, f2.followedCustomer.id")
+    List<FollowSuggestion> findSuggestions(@Param("customerId") Long customerId, Limit limit);
+
+    // follows in any direction between a customer and a list of customers
+    @Query("SELECT f.followerCustomer.id AS followerId, f.followedCustomer.id AS followedId FROM Follow f " +
+           "WHERE (f.followerCustomer.id = :customerId AND f.followedCustomer.id IN :customerIds) " +
+           "OR (f.followedCustomer.id = :customerId AND f.followerCustomer.id IN :customerIds)")
+    List<FollowPair> findFollowsBetween(
+            @Param("customerId") Long customerId,
+            @Param("customerIds") Collection<Long> customerIds
+    );
+
+    // followers of a customer that are followed by the viewer
+    @Query("SELECT COUNT(f) FROM Follow f WHERE f.followedCustomer.id = :customerId " +
+           "AND f.followerCustomer.id IN (SELECT g.followedCustomer.id FROM Follow g WHERE g.followerCustomer.id = :viewerId)")
+    long countMutualFollowers(@Param("viewerId") Long viewerId, @Param("customerId") Long customerId);
+
     @Query("SELECT COUNT(c) > 0 FROM Follow c WHERE c.followedCustomer.id = :followedCustomerId AND c.followerCustomer.id = :followerCustomerId")
     boolean isFollowing(
             @Param("followedCustomerId") Long followedCustomerId,
@@ -33,5 +99,24 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
 
     @Query("SELECT COUNT(c) FROM Follow c WHERE c.followerCustomer.id = :customerId")
     Long countFollowsFromCustomer(@Param("customerId") Long customerId);
-}
 
+    interface FollowEdge {
+        Long getId();
+
+        Long getFollowerId();
+
+        Long getFollowedId();
+    }
+
+    interface FollowPair {
+        Long getFollowerId();
+
+        Long getFollowedId();
+    }
+
+    interface FollowSuggestion {
+        Long getCustomerId();
+
+        Long getMutualFollows();
+    }
+}
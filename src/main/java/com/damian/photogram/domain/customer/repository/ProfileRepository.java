@@ -4,6 +4,8 @@ import com.damian.photogram.domain.customer.model.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +13,10 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
     Optional<Profile> findByUsernameIgnoreCase(String username);
 
     Optional<Profile> findByCustomer_Id(Long customerId);
+
+    List<Profile> findAllByCustomer_IdIn(Collection<Long> customerIds);
+
+    // profiles referencing a stored image
+    long countByImageFilename(String imageFilename);
 }
 
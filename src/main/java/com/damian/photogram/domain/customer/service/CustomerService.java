@@ -2,6 +2,8 @@ package com.damian.photogram.domain.customer.service;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.service.CustomerDetailsService;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.core.utils.AuthHelper;
 import com.damian.photogram.domain.account.dto.request.AccountRegistrationRequest;
 import com.damian.photogram.domain.customer.dto.request.CustomerEmailUpdateRequest;
@@ -20,13 +22,19 @@ import java.time.Instant;
 public class CustomerService {
     private final CustomerRepository customerRepository;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final CustomerDetailsService customerDetailsService;
+    private final PasswordVerifier passwordVerifier;
 
     public CustomerService(
             CustomerRepository customerRepository,
-            BCryptPasswordEncoder bCryptPasswordEncoder
+            BCryptPasswordEncoder bCryptPasswordEncoder,
+            CustomerDetailsService customerDetailsService,
+            PasswordVerifier passwordVerifier
     ) {
         this.customerRepository = customerRepository;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.customerDetailsService = customerDetailsService;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
@@ -78,6 +86,9 @@ public class CustomerService {
         // we delete the customer
         customerRepository.deleteById(customerId);
 
+        // a deleted customer must not stay authenticated from the cache or its tokens
+        customerDetailsService.revokeTokens(customerId);
+
         // if no exception is thrown we return true
         return true;
     }
@@ -111,8 +122,8 @@ public class CustomerService {
 
     // returns the logged customer
     public Customer getCustomer() {
-        Customer loggedCustomer = AuthHelper.getLoggedCustomer();
-        return this.getCustomer(loggedCustomer.getId());
+        Long loggedCustomerId = AuthHelper.getLoggedCustomerId();
+        return this.getCustomer(loggedCustomerId);
     }
 
     /**
@@ -149,7 +160,12 @@ public class CustomerService {
         customer.setUpdatedAt(Instant.now());
 
         // save the changes
-        return customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+
+        // the cached customer and the tokens are still under the old email
+        customerDetailsService.revokeTokens(customerId);
+
+        return savedCustomer;
     }
 
     /**
@@ -161,11 +177,18 @@ public class CustomerService {
      */
     public Customer updateEmail(CustomerEmailUpdateRequest request) {
         // we extract the email from the Customer stored in the SecurityContext
-        final Customer loggedCustomer = AuthHelper.getLoggedCustomer();
+        final Long loggedCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // the principal only holds the id, the customer is loaded to check the password
+        Customer loggedCustomer = customerRepository.findById(loggedCustomerId).orElseThrow(
+                () -> new CustomerNotFoundException(
+                        Exceptions.CUSTOMER.NOT_FOUND
+                )
+        );
 
         // Before making any changes we check that the password sent by the customer matches the one in the entity
-        AuthHelper.validatePassword(loggedCustomer, request.currentPassword());
+        passwordVerifier.validatePassword(loggedCustomer, request.currentPassword());
 
-        return this.updateEmail(loggedCustomer.getId(), request.newEmail());
+        return this.updateEmail(loggedCustomerId, request.newEmail());
     }
 }
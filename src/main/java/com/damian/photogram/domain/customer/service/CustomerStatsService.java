@@ -0,0 +1,150 @@
+package com.damian.photogram.domain.customer.service;
+
+import com.damian.photogram.domain.customer.model.CustomerStats;
+import com.damian.photogram.domain.customer.repository.CustomerStatsRepository;
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Maintains the denormalized counters (posts, followers, following) of the customers.
+ * Counters are incremented by the services that create or delete posts and follows,
+ * and a scheduled job repairs any drift against the real tables.
+ */
+@Service
+public class CustomerStatsService {
+    private final CustomerStatsRepository customerStatsRepository;
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+
+    public CustomerStatsService(
+            CustomerStatsRepository customerStatsRepository,
+            PostRepository postRepository,
+            FollowRepository followRepository
+    ) {
+        this.customerStatsRepository = customerStatsRepository;
+        this.postRepository = postRepository;
+        this.followRepository = followRepository;
+    }
+
+    /**
+     * Build the counters of a customer counting the rows and insert them.
+     * Only used when the customer has no counters row yet.
+     * They are always counted in the database, as they are persisted.
+     * Two transactions may count the same customer at once, only the first insert is kept.
+     *
+     * @param customerId the id of the customer
+     * @return CustomerStats the counters inserted or null if the row already existed
+     */
+    private CustomerStats recount(Long customerId) {
+        CustomerStats stats = new CustomerStats(customerId)
+                .setPosts(postRepository.countByAuthorId(customerId))
+                .setFollowers(followRepository.countFollowersFromCustomer(customerId))
+                .setFollowing(followRepository.countFollowsFromCustomer(customerId));
+
+        final int inserted = customerStatsRepository.insertIfAbsent(
+                customerId,
+                stats.getPosts(),
+                stats.getFollowers(),
+                stats.getFollowing()
+        );
+
+        return inserted == 1 ? stats : null;
+    }
+
+    /**
+     * Get the counters of a customer.
+     *
+     * @param customerId the id of the customer
+     * @return CustomerStats the counters
+     */
+    public CustomerStats getStats(Long customerId) {
+        Optional<CustomerStats> stats = customerStatsRepository.findById(customerId);
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+
+        CustomerStats counted = recount(customerId);
+        if (counted != null) {
+            return counted;
+        }
+
+        // created by another transaction meanwhile
+        return customerStatsRepository.findById(customerId).orElseThrow();
+    }
+
+    /**
+     * Get the number of followers of a customer.
+     *
+     * @param customerId the id of the customer
+     * @return the number of followers
+     */
+    public long countFollowers(Long customerId) {
+        return this.getStats(customerId).getFollowers();
+    }
+
+    /**
+     * Add delta to the posts counter of a customer.
+     * Must be called after the post has been saved or deleted.
+     *
+     * @param customerId the id of the customer
+     * @param delta      the amount to add (negative to subtract)
+     */
+    public void incrementPosts(Long customerId, long delta) {
+        if (customerStatsRepository.incrementPosts(customerId, delta) == 0 && recount(customerId) == null) {
+            // the row was created by another transaction that did not count this change
+            customerStatsRepository.incrementPosts(customerId, delta);
+        }
+    }
+
+    /**
+     * Add delta to the followers counter of a customer.
+     * Must be called after the follow has been saved or deleted.
+     *
+     * @param customerId the id of the customer
+     * @param delta      the amount to add (negative to subtract)
+     */
+    public void incrementFollowers(Long customerId, long delta) {
+        if (customerStatsRepository.incrementFollowers(customerId, delta) == 0 && recount(customerId) == null) {
+            // the row was created by another transaction that did not count this change
+            customerStatsRepository.incrementFollowers(customerId, delta);
+        }
+    }
+
+    /**
+     * Add delta to the following counter of a customer.
+     * Must be called after the follow has been saved or deleted.
+     *
+     * @param customerId the id of the customer
+     * @param delta      the amount to add (negative to subtract)
+     */
+    public void incrementFollowing(Long customerId, long delta) {
+        if (customerStatsRepository.incrementFollowing(customerId, delta) == 0 && recount(customerId) == null) {
+            // the row was created by another transaction that did not count this change
+            customerStatsRepository.incrementFollowing(customerId, delta);
+        }
+    }
+
+    /**
+     * Create missing counters and repair the ones that drifted from the real values.
+     * Each drifted row is locked before it is recounted, so the recount runs after
+     * any transaction that already incremented it has committed, and sees its rows.
+     * Transactions that increment it later wait for the repair and add on top of it.
+     *
+     * @return the number of counters rows created or repaired
+     */
+    @Transactional
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 0 4 * * *}")
+    public int reconcile() {
+        int repaired = customerStatsRepository.insertMissing();
+        for (Long customerId : customerStatsRepository.findDriftedCustomerIds()) {
+            customerStatsRepository.lockById(customerId);
+            repaired += customerStatsRepository.repairDrift(customerId);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,470 @@
+package com.damian.photogram.domain.customer.service;
+
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory copy of customer_follows, kept as sorted arrays of primitive customer ids.
+ * It answers follow checks, counts and mutual follows without going to the database.
+ * The graph is loaded when the application starts and then kept up to date by FollowService,
+ * until it is loaded every caller must fall back to the database (see {@link #isReady()}).
+ * Follows made by other instances of the application are not applied to the graph,
+ * so it is disabled by default and must only be enabled when a single instance runs.
+ */
+@Component
+public class FollowGraph {
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    private final FollowRepository followRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${app.follows.graph.enabled:false}")
+    private boolean enabled;
+
+    // customer id -> sorted ids of the customers it follows
+    private Adjacency following = new Adjacency();
+    // customer id -> sorted ids of its followers
+    private Adjacency followers = new Adjacency();
+    // follows and unfollows made during a rebuild, replayed on top of the loaded graph
+    private List<long[]> pending;
+    private volatile boolean ready;
+
+    public FollowGraph(FollowRepository followRepository) {
+        this.followRepository = followRepository;
+    }
+
+    /**
+     * Load the graph again from the follows in the database.
+     *
+     * @return long the number of follows loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.follows.graph.rebuild-cron:-}")
+    public synchronized long rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Adjacency nextFollowing = new Adjacency();
+        Adjacency nextFollowers = new Adjacency();
+        long loaded = 0;
+        try {
+            long afterId = 0;
+            List<FollowRepository.FollowEdge> edges;
+            do {
+                edges = followRepository.findEdgesAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (FollowRepository.FollowEdge edge : edges) {
+                    nextFollowing.append(edge.getFollowerId(), edge.getFollowedId());
+                    nextFollowers.append(edge.getFollowedId(), edge.getFollowerId());
+                    afterId = edge.getId();
+                }
+                loaded += edges.size();
+            } while (edges.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // keep the current graph
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        // edges come in id order, sort each list once instead of inserting in order
+        nextFollowing.sort();
+        nextFollowers.sort();
+
+        lock.writeLock().lock();
+        try {
+            for (long[] update : pending) {
+                apply(nextFollowing, nextFollowers, update[0], update[1], update[2] == 1);
+            }
+            following = nextFollowing;
+            followers = nextFollowers;
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        return loaded;
+    }
+
+    /**
+     * Check if the graph is loaded and can be used instead of the database.
+     *
+     * @return boolean true if the graph is loaded
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Add a follow to the graph once the current transaction commits.
+     *
+     * @param followerId the id of the customer who follows
+     * @param followedId the id of the customer followed
+     */
+    public void follow(Long followerId, Long followedId) {
+        afterCommit(followerId, followedId, true);
+    }
+
+    /**
+     * Remove a follow from the graph once the current transaction commits.
+     *
+     * @param followerId the id of the customer who follows
+     * @param followedId the id of the customer followed
+     */
+    public void unfollow(Long followerId, Long followedId) {
+        afterCommit(followerId, followedId, false);
+    }
+
+    /**
+     * Check if a customer follows another customer.
+     *
+     * @param followerId the id of the customer who follows
+     * @param followedId the id of the customer followed
+     * @return boolean true if followerId follows followedId
+     */
+    public boolean isFollowing(Long followerId, Long followedId) {
+        lock.readLock().lock();
+        try {
+            return following.contains(followerId, followedId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of followers of a customer.
+     *
+     * @param customerId the id of the customer
+     * @return int the number of followers
+     */
+    public int countFollowers(Long customerId) {
+        lock.readLock().lock();
+        try {
+            return followers.size(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of customers followed by a customer.
+     *
+     * @param customerId the id of the customer
+     * @return int the number of customers followed
+     */
+    public int countFollowing(Long customerId) {
+        lock.readLock().lock();
+        try {
+            return following.size(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of the followers of a customer.
+     *
+     * @param customerId the id of the customer
+     * @return long[] the ids sorted ascending
+     */
+    public long[] getFollowers(Long customerId) {
+        lock.readLock().lock();
+        try {
+            return followers.get(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of the customers followed by a customer.
+     *
+     * @param customerId the id of the customer
+     * @return long[] the ids sorted ascending
+     */
+    public long[] getFollowing(Long customerId) {
+        lock.readLock().lock();
+        try {
+            return following.get(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of the customers that follow a customer and are followed back by it.
+     *
+     * @param customerId the id of the customer
+     * @return long[] the ids sorted ascending
+     */
+    public long[] getMutualFollows(Long customerId) {
+        lock.readLock().lock();
+        try {
+            return Adjacency.intersect(following, customerId, followers, customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of followers of a customer that are followed by the viewer.
+     *
+     * @param viewerId   the id of the customer viewing the profile
+     * @param customerId the id of the customer whose followers are counted
+     * @return int the number of mutual followers
+     */
+    public int countMutualFollowers(Long viewerId, Long customerId) {
+        lock.readLock().lock();
+        try {
+            return Adjacency.intersect(following, viewerId, followers, customerId).length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(long followerId, long followedId, boolean add) {
+        if (!enabled) {
+            return;
+        }
+
+        // a rolled back follow must not reach the graph
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(followerId, followedId, add);
+                }
+            });
+            return;
+        }
+
+        update(followerId, followedId, add);
+    }
+
+    private void update(long followerId, long followedId, boolean add) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(new long[]{followerId, followedId, add ? 1 : 0});
+            }
+            apply(following, followers, followerId, followedId, add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(
+            Adjacency following,
+            Adjacency followers,
+            long followerId,
+            long followedId,
+            boolean add
+    ) {
+        if (add) {
+            following.add(followerId, followedId);
+            followers.add(followedId, followerId);
+        } else {
+            following.remove(followerId, followedId);
+            followers.remove(followedId, followerId);
+        }
+    }
+
+    /**
+     * Sorted lists of customer ids keyed by customer id, all in primitive arrays.
+     * Keys are stored with open addressing and linear probing, 0 marks an empty slot
+     * as customer ids start at 1. Not thread safe, FollowGraph guards it with its lock.
+     */
+    static final class Adjacency {
+        private static final long[] EMPTY = new long[0];
+        private long[] keys = new long[16];
+        private long[][] lists = new long[16][];
+        private int[] sizes = new int[16];
+        private int count;
+
+        private static int hash(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        // slot of the key, created with an empty list if it does not exist
+        private int slotForUpdate(long key) {
+            int i = slot(key);
+            if (keys[i] == key) {
+                return i;
+            }
+
+            // keep the table at most 75% full
+            if ((count + 1) * 4L > keys.length * 3L) {
+                resize();
+                i = slot(key);
+            }
+
+            keys[i] = key;
+            lists[i] = new long[4];
+            sizes[i] = 0;
+            count++;
+            return i;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[][] oldLists = lists;
+            int[] oldSizes = sizes;
+
+            keys = new long[oldKeys.length * 2];
+            lists = new long[keys.length][];
+            sizes = new int[keys.length];
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0) {
+                    int i = slot(oldKeys[j]);
+                    keys[i] = oldKeys[j];
+                    lists[i] = oldLists[j];
+                    sizes[i] = oldSizes[j];
+                }
+            }
+        }
+
+        int size(long key) {
+            int i = slot(key);
+            return key != 0 && keys[i] == key ? sizes[i] : 0;
+        }
+
+        long[] get(long key) {
+            int i = slot(key);
+            return key != 0 && keys[i] == key ? Arrays.copyOf(lists[i], sizes[i]) : EMPTY;
+        }
+
+        boolean contains(long key, long value) {
+            int i = slot(key);
+            return key != 0 && keys[i] == key && Arrays.binarySearch(lists[i], 0, sizes[i], value) >= 0;
+        }
+
+        boolean add(long key, long value) {
+            int i = slotForUpdate(key);
+            long[] list = lists[i];
+            int size = sizes[i];
+
+            int pos = Arrays.binarySearch(list, 0, size, value);
+            if (pos >= 0) {
+                return false;
+            }
+
+            pos = -pos - 1;
+            if (size == list.length) {
+                list = lists[i] = Arrays.copyOf(list, size * 2);
+            }
+            System.arraycopy(list, pos, list, pos + 1, size - pos);
+            list[pos] = value;
+            sizes[i]++;
+            return true;
+        }
+
+        boolean remove(long key, long value) {
+            int i = slot(key);
+            if (key == 0 || keys[i] != key) {
+                return false;
+            }
+
+            long[] list = lists[i];
+            int size = sizes[i];
+            int pos = Arrays.binarySearch(list, 0, size, value);
+            if (pos < 0) {
+                return false;
+            }
+
+            // the key stays with an empty list, removing keys would need tombstones
+            System.arraycopy(list, pos + 1, list, pos, size - pos - 1);
+            sizes[i]--;
+            return true;
+        }
+
+        // add a value without keeping the list sorted, sort() must be called before any lookup
+        void append(long key, long value) {
+            int i = slotForUpdate(key);
+            long[] list = lists[i];
+            if (sizes[i] == list.length) {
+                list = lists[i] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[sizes[i]++] = value;
+        }
+
+        // sort every list and drop duplicated values
+        void sort() {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == 0) {
+                    continue;
+                }
+
+                long[] list = lists[i];
+                Arrays.sort(list, 0, sizes[i]);
+                int size = 0;
+                for (int j = 0; j < sizes[i]; j++) {
+                    if (size == 0 || list[size - 1] != list[j]) {
+                        list[size++] = list[j];
+                    }
+                }
+                sizes[i] = size;
+            }
+        }
+
+        // values found in both lists, merging the two sorted arrays
+        static long[] intersect(Adjacency left, long leftKey, Adjacency right, long rightKey) {
+            int l = left.slot(leftKey);
+            int r = right.slot(rightKey);
+            if (leftKey == 0 || rightKey == 0 || left.keys[l] != leftKey || right.keys[r] != rightKey) {
+                return EMPTY;
+            }
+
+            long[] a = left.lists[l];
+            long[] b = right.lists[r];
+            int na = left.sizes[l];
+            int nb = right.sizes[r];
+            long[] result = new long[Math.min(na, nb)];
+            int i = 0, j = 0, n = 0;
+            while (i < na && j < nb) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return n == result.length ? result : Arrays.copyOf(result, n);
+        }
+    }
+}
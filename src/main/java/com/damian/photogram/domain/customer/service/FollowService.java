@@ -1,7 +1,13 @@
 package com.damian.photogram.domain.customer.service;
 
+import com.damian.photogram.app.feed.TimelineService;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.InvalidCursorException;
 import com.damian.photogram.core.utils.AuthHelper;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.dto.response.FollowStateDto;
+import com.damian.photogram.domain.customer.dto.response.MutualFollowersDto;
 import com.damian.photogram.domain.customer.exception.*;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.model.Follow;
@@ -10,6 +16,9 @@ import com.damian.photogram.domain.customer.repository.FollowRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
 
 
 @Service
@@ -17,13 +26,22 @@ public class FollowService {
     private final short MAX_FOLLOWS = 20;
     private final FollowRepository followRepository;
     private final CustomerRepository customerRepository;
+    private final TimelineService timelineService;
+    private final CustomerStatsService customerStatsService;
+    private final FollowGraph followGraph;
 
     public FollowService(
             FollowRepository followRepository,
-            CustomerRepository customerRepository
+            CustomerRepository customerRepository,
+            TimelineService timelineService,
+            CustomerStatsService customerStatsService,
+            FollowGraph followGraph
     ) {
         this.followRepository = followRepository;
         this.customerRepository = customerRepository;
+        this.timelineService = timelineService;
+        this.customerStatsService = customerStatsService;
+        this.followGraph = followGraph;
     }
 
     /**
@@ -33,8 +51,8 @@ public class FollowService {
      * @return Page<Follow> a page of followers
      */
     public Page<Follow> getFollowers(Pageable pageable) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
-        return getFollowers(currentCustomer.getId(), pageable);
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+        return getFollowers(currentCustomerId, pageable);
     }
 
     /**
@@ -55,6 +73,36 @@ public class FollowService {
         return followRepository.findAllByFollowedCustomer_Id(customerId, pageable);
     }
 
+    /**
+     * Get followers from a customer using keyset pagination, newest first.
+     *
+     * @param customerId id of the customer to get followers from
+     * @param before     cursor returned by the previous page, null for the first page
+     * @param size       the number of followers per page
+     * @return CursorPage<Follow> a page of followers
+     * @throws CustomerNotFoundException if the customer is not found
+     * @throws InvalidCursorException    if the cursor is malformed
+     */
+    public CursorPage<Follow> getFollowers(Long customerId, String before, int size) {
+        // check if the customer exists
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND);
+        }
+
+        return CursorPage.fetch(
+                before,
+                size,
+                limit -> followRepository.findLatestFollowers(customerId, limit),
+                (cursor, limit) -> followRepository.findFollowersBefore(
+                        customerId,
+                        cursor.createdAt(),
+                        cursor.id(),
+                        limit
+                ),
+                follow -> new Cursor(follow.getCreatedAt(), follow.getId())
+        );
+    }
+
     /**
      * Get all following users from the current customer
      *
@@ -62,8 +110,8 @@ public class FollowService {
      * @return Page<Follow> a page of following users
      */
     public Page<Follow> getFollowed(Pageable pageable) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
-        return getFollowed(currentCustomer.getId(), pageable);
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+        return getFollowed(currentCustomerId, pageable);
     }
 
     /**
@@ -83,6 +131,36 @@ public class FollowService {
         return followRepository.findAllByFollowerCustomer_Id(customerId, pageable);
     }
 
+    /**
+     * Get customers followed by a customer using keyset pagination, newest first.
+     *
+     * @param customerId the id of the customer to get following customers from
+     * @param before     cursor returned by the previous page, null for the first page
+     * @param size       the number of follows per page
+     * @return CursorPage<Follow> a page of following users
+     * @throws CustomerNotFoundException if the customer is not found
+     * @throws InvalidCursorException    if the cursor is malformed
+     */
+    public CursorPage<Follow> getFollowed(Long customerId, String before, int size) {
+        // check if the customer exists
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND);
+        }
+
+        return CursorPage.fetch(
+                before,
+                size,
+                limit -> followRepository.findLatestFollowed(customerId, limit),
+                (cursor, limit) -> followRepository.findFollowedBefore(
+                        customerId,
+                        cursor.createdAt(),
+                        cursor.id(),
+                        limit
+                ),
+                follow -> new Cursor(follow.getCreatedAt(), follow.getId())
+        );
+    }
+
     /**
      * Get the Follow entity between the current customer and the customer specified in the customerId.
      * Its used to check if the current customer is following the specified customer.
@@ -93,21 +171,81 @@ public class FollowService {
      * @throws CustomerNotFoundException if the given customer does not exist
      */
     public Follow getFollow(Long customerId) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // check if the customer exists
         if (!customerRepository.existsById(customerId)) {
             throw new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND);
         }
 
+        // the graph answers missing follows without going to the database
+        if (followGraph.isReady() && !followGraph.isFollowing(currentCustomerId, customerId)) {
+            throw new FollowNotFoundException(Exceptions.FOLLOW.NOT_FOUND);
+        }
+
         // check if the follow exists
         return followRepository
-                .findFollowRelationshipBetweenCustomers(customerId, currentCustomer.getId())
+                .findFollowRelationshipBetweenCustomers(customerId, currentCustomerId)
                 .orElseThrow(
                         () -> new FollowNotFoundException(Exceptions.FOLLOW.NOT_FOUND)
                 );
     }
 
+    /**
+     * Get the follow state between the current customer and a list of customers
+     * using a single query, no matter how many customers are requested.
+     * Customers that do not exist are returned as not following and not followed.
+     *
+     * @param customerIds the ids of the customers
+     * @return List<FollowStateDto> the follow state of each customer, in the same order as requested
+     */
+    public List<FollowStateDto> getFollowStates(Collection<Long> customerIds) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+        Set<Long> ids = new LinkedHashSet<>(customerIds);
+
+        // customers followed by the current customer and customers following it
+        Set<Long> following = new HashSet<>();
+        Set<Long> followedBy = new HashSet<>();
+        followRepository.findFollowsBetween(currentCustomerId, ids).forEach(pair -> {
+            if (pair.getFollowerId().equals(currentCustomerId)) {
+                following.add(pair.getFollowedId());
+            } else {
+                followedBy.add(pair.getFollowerId());
+            }
+        });
+
+        return ids.stream()
+                  .map(customerId -> new FollowStateDto(
+                          customerId,
+                          following.contains(customerId),
+                          followedBy.contains(customerId)
+                  ))
+                  .toList();
+    }
+
+    /**
+     * Get how many followers of a customer are followed by the current customer.
+     *
+     * @param customerId the id of the customer
+     * @return MutualFollowersDto the number of mutual followers
+     * @throws CustomerNotFoundException if the customer does not exist
+     */
+    public MutualFollowersDto getMutualFollowers(Long customerId) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // check if the customer exists
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND);
+        }
+
+        // the graph answers without going to the database when it is loaded
+        long mutualFollowers = followGraph.isReady()
+                ? followGraph.countMutualFollowers(currentCustomerId, customerId)
+                : followRepository.countMutualFollowers(currentCustomerId, customerId);
+
+        return new MutualFollowersDto(customerId, mutualFollowers);
+    }
+
     /**
      * It follows a customer.
      * Current customer will follow the specified customer.
@@ -119,11 +257,12 @@ public class FollowService {
      * @throws CustomerNotFoundException         if the given customer does not exist
      * @throws FollowAlreadyExistsException      if the specified customer already follows the current customer
      */
+    @Transactional
     public Follow follow(Long customerId) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // check if the currentCustomer can add more following
-        if (followRepository.countFollowersFromCustomer(currentCustomer.getId()) >= MAX_FOLLOWS) {
+        if (customerStatsService.countFollowers(currentCustomerId) >= MAX_FOLLOWS) {
             throw new FollowersLimitExceededException(Exceptions.FOLLOW.MAX_FOLLOWERS);
         }
 
@@ -133,19 +272,34 @@ public class FollowService {
         );
 
         // check if currentCustomer and followedCustomer are not the same customer.
-        if (currentCustomer.getId().equals(customerToFollow.getId())) {
+        if (currentCustomerId.equals(customerToFollow.getId())) {
             throw new FollowYourselfNotAllowedException(Exceptions.FOLLOW.SELF_FOLLOW);
         }
 
         // check if customerToFollow is not already following by the currentCustomer
-        if (followRepository.isFollowing(customerToFollow.getId(), currentCustomer.getId())) {
+        boolean alreadyFollowing = followGraph.isReady()
+                ? followGraph.isFollowing(currentCustomerId, customerToFollow.getId())
+                : followRepository.isFollowing(customerToFollow.getId(), currentCustomerId);
+        if (alreadyFollowing) {
             throw new FollowAlreadyExistsException(Exceptions.FOLLOW.ALREADY_EXISTS);
         }
 
         // save the follow relationship in the database
-        return followRepository.save(
-                new Follow(customerToFollow, currentCustomer)
+        Follow follow = followRepository.save(
+                new Follow(customerToFollow, customerRepository.getReferenceById(currentCustomerId))
         );
+
+        // update the counters of both customers
+        customerStatsService.incrementFollowers(customerToFollow.getId(), 1);
+        customerStatsService.incrementFollowing(currentCustomerId, 1);
+
+        // add the follow to the in memory graph once committed
+        followGraph.follow(currentCustomerId, customerToFollow.getId());
+
+        // add the latest posts of the followed customer to the current customer timeline
+        timelineService.backfill(currentCustomerId, customerToFollow.getId());
+
+        return follow;
     }
 
     /**
@@ -156,6 +310,7 @@ public class FollowService {
      * @throws CustomerNotFoundException if the customer does not exist
      * @throws FollowNotFoundException   if the follow does not exist
      */
+    @Transactional
     public void unfollow(Long customerId) {
         // check if the customer exists
         if (!customerRepository.existsById(customerId)) {
@@ -167,5 +322,15 @@ public class FollowService {
 
         // delete the follow relationship from the database
         followRepository.deleteById(follow.getId());
+
+        // update the counters of both customers
+        customerStatsService.incrementFollowers(customerId, -1);
+        customerStatsService.incrementFollowing(follow.getFollowerCustomer().getId(), -1);
+
+        // remove the follow from the in memory graph once committed
+        followGraph.unfollow(follow.getFollowerCustomer().getId(), customerId);
+
+        // remove the posts of the unfollowed customer from the current customer timeline
+        timelineService.purge(follow.getFollowerCustomer().getId(), customerId);
     }
 }
@@ -0,0 +1,216 @@
+package com.damian.photogram.domain.customer.service;
+
+import com.damian.photogram.core.utils.AuthHelper;
+import com.damian.photogram.domain.customer.dto.response.FollowSuggestionDto;
+import com.damian.photogram.domain.customer.model.Profile;
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests customers to follow ("people you may know") from the friends of friends.
+ * A candidate is ranked by how many of the customers you follow already follow it.
+ * Suggestions are computed for every customer in a scheduled batch and kept in memory,
+ * so a request only looks up the precomputed list.
+ */
+@Service
+public class FollowSuggestionService {
+    public static final int MAX_SUGGESTIONS = 20;
+    private final FollowRepository followRepository;
+    private final ProfileRepository profileRepository;
+    private final FollowGraph followGraph;
+
+    // customer id -> suggestions computed in the last refresh
+    private volatile Map<Long, Suggestions> suggestions = Map.of();
+
+    public FollowSuggestionService(
+            FollowRepository followRepository,
+            ProfileRepository profileRepository,
+            FollowGraph followGraph
+    ) {
+        this.followRepository = followRepository;
+        this.profileRepository = profileRepository;
+        this.followGraph = followGraph;
+    }
+
+    /**
+     * Compute again the suggestions of every customer that follows someone.
+     * It uses the follow graph when loaded and the database otherwise.
+     *
+     * @return int the number of customers with suggestions
+     */
+    @Scheduled(
+            initialDelayString = "${app.follows.suggestions.initial-delay:60000}",
+            fixedDelayString = "${app.follows.suggestions.refresh-interval:3600000}"
+    )
+    public synchronized int refresh() {
+        Map<Long, Suggestions> next = new HashMap<>();
+
+        for (Long customerId : followRepository.findFollowerCustomerIds()) {
+            Suggestions computed = followGraph.isReady()
+                    ? compute(customerId)
+                    : query(customerId);
+
+            if (computed.customerIds().length > 0) {
+                next.put(customerId, computed);
+            }
+        }
+
+        suggestions = next;
+        return next.size();
+    }
+
+    /**
+     * Get the suggestions of the current customer from the last refresh.
+     * Customers followed after the refresh are left out.
+     *
+     * @param size the maximum number of suggestions
+     * @return List<FollowSuggestionDto> the suggestions, best first
+     */
+    public List<FollowSuggestionDto> getSuggestions(int size) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        Suggestions computed = suggestions.get(currentCustomerId);
+        if (computed == null) {
+            return List.of();
+        }
+
+        final int limit = Math.max(1, Math.min(size, MAX_SUGGESTIONS));
+        final boolean graphReady = followGraph.isReady();
+
+        // without the graph, the customers followed since the last refresh are found in one query
+        final Set<Long> followedSinceRefresh = graphReady
+                ? Set.of()
+                : this.findFollowed(currentCustomerId, computed.customerIds());
+
+        List<Long> customerIds = new ArrayList<>(limit);
+        Map<Long, Long> mutualFollows = new HashMap<>();
+        for (int i = 0; i < computed.customerIds().length && customerIds.size() < limit; i++) {
+            long customerId = computed.customerIds()[i];
+
+            // skip the customers followed since the last refresh
+            if (graphReady
+                    ? followGraph.isFollowing(currentCustomerId, customerId)
+                    : followedSinceRefresh.contains(customerId)) {
+                continue;
+            }
+
+            customerIds.add(customerId);
+            mutualFollows.put(customerId, (long) computed.mutualFollows()[i]);
+        }
+
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+
+        // fetch the profiles of all suggestions in one query
+        Map<Long, Profile> profiles = profileRepository
+                .findAllByCustomer_IdIn(customerIds)
+                .stream()
+                .collect(Collectors.toMap(Profile::getCustomerId, Function.identity()));
+
+        // keep the ranking, customers deleted since the refresh have no profile
+        return customerIds
+                .stream()
+                .filter(profiles::containsKey)
+                .map(customerId -> new FollowSuggestionDto(
+                        customerId,
+                        profiles.get(customerId).getUsername(),
+                        profiles.get(customerId).getImageFilename(),
+                        mutualFollows.get(customerId)
+                ))
+                .toList();
+    }
+
+    // the candidates already followed by the customer
+    private Set<Long> findFollowed(Long customerId, long[] candidateIds) {
+        return followRepository
+                .findFollowsBetween(customerId, Arrays.stream(candidateIds).boxed().toList())
+                .stream()
+                .filter(pair -> pair.getFollowerId().equals(customerId))
+                .map(FollowRepository.FollowPair::getFollowedId)
+                .collect(Collectors.toSet());
+    }
+
+    // friends of friends from the follow graph
+    private Suggestions compute(long customerId) {
+        long[] following = followGraph.getFollowing(customerId);
+
+        // every customer followed by the customers we follow, sorted so equal ids are together
+        long[][] lists = new long[following.length][];
+        int total = 0;
+        for (int i = 0; i < following.length; i++) {
+            lists[i] = followGraph.getFollowing(following[i]);
+            total += lists[i].length;
+        }
+
+        long[] candidates = new long[total];
+        int n = 0;
+        for (long[] list : lists) {
+            System.arraycopy(list, 0, candidates, n, list.length);
+            n += list.length;
+        }
+        Arrays.sort(candidates);
+
+        // keep the best MAX_SUGGESTIONS ranked by mutual follows desc, id asc
+        long[] topIds = new long[MAX_SUGGESTIONS];
+        int[] topMutuals = new int[MAX_SUGGESTIONS];
+        int top = 0;
+        for (int start = 0; start < n; ) {
+            long candidate = candidates[start];
+            int end = start;
+            while (end < n && candidates[end] == candidate) {
+                end++;
+            }
+            int mutuals = end - start;
+            start = end;
+
+            // the customer itself and the customers already followed are not suggested
+            if (candidate == customerId || Arrays.binarySearch(following, candidate) >= 0) {
+                continue;
+            }
+
+            // candidates come in id order, so on equal mutuals the earlier one stays first
+            if (top == MAX_SUGGESTIONS && mutuals <= topMutuals[top - 1]) {
+                continue;
+            }
+
+            int pos = top == MAX_SUGGESTIONS ? top - 1 : top++;
+            while (pos > 0 && topMutuals[pos - 1] < mutuals) {
+                topIds[pos] = topIds[pos - 1];
+                topMutuals[pos] = topMutuals[pos - 1];
+                pos--;
+            }
+            topIds[pos] = candidate;
+            topMutuals[pos] = mutuals;
+        }
+
+        return new Suggestions(Arrays.copyOf(topIds, top), Arrays.copyOf(topMutuals, top));
+    }
+
+    // friends of friends from the database
+    private Suggestions query(long customerId) {
+        List<FollowRepository.FollowSuggestion> rows = followRepository.findSuggestions(
+                customerId,
+                Limit.of(MAX_SUGGESTIONS)
+        );
+
+        long[] customerIds = new long[rows.size()];
+        int[] mutualFollows = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            customerIds[i] = rows.get(i).getCustomerId();
+            mutualFollows[i] = rows.get(i).getMutualFollows().intValue();
+        }
+
+        return new Suggestions(customerIds, mutualFollows);
+    }
+
+    private record Suggestions(long[] customerIds, int[] mutualFollows) {
+    }
+}
@@ -4,11 +4,12 @@ import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.ImageFileSizeExceededException;
 import com.damian.photogram.core.service.ImageStorageService;
 import com.damian.photogram.core.service.ImageUploaderService;
+import com.damian.photogram.core.service.ImageVariant;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.core.utils.AuthHelper;
 import com.damian.photogram.domain.customer.exception.ProfileNotFoundException;
 import com.damian.photogram.domain.customer.exception.ProfilePhotoNotFoundException;
 import com.damian.photogram.domain.customer.helper.ProfileHelper;
-import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.model.Profile;
 import com.damian.photogram.domain.customer.repository.ProfileRepository;
 import org.springframework.core.io.Resource;
@@ -21,15 +22,18 @@ public class ProfileImageService {
     private final ProfileRepository profileRepository;
     private final ImageUploaderService imageUploaderService;
     private final ImageStorageService imageStorageService;
+    private final PasswordVerifier passwordVerifier;
 
     public ProfileImageService(
             ImageStorageService imageStorageService,
             ProfileRepository profileRepository,
-            ImageUploaderService imageUploaderService
+            ImageUploaderService imageUploaderService,
+            PasswordVerifier passwordVerifier
     ) {
         this.imageStorageService = imageStorageService;
         this.profileRepository = profileRepository;
         this.imageUploaderService = imageUploaderService;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
@@ -55,10 +59,15 @@ public class ProfileImageService {
      * @throws ImageFileSizeExceededException if the image size exceeds the limit
      */
     public String uploadImage(String currentPassword, MultipartFile file) {
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // the principal only holds the id, so the profile is loaded
+        Profile profile = profileRepository.findByCustomer_Id(currentCustomerId).orElseThrow(
+                () -> new ProfileNotFoundException(Exceptions.PROFILE.NOT_FOUND)
+        );
 
         // validate password
-        AuthHelper.validatePassword(currentCustomer, currentPassword);
+        passwordVerifier.validatePassword(profile.getOwner(), currentPassword);
 
         // run file validations
         this.validateImageOrElseThrow(file);
@@ -66,13 +75,25 @@ public class ProfileImageService {
         // Save the uploaded file and return the stored filename
         String filename = imageUploaderService.uploadImage(
                 file,
-                ProfileHelper.getProfileImageUploadPath(currentCustomer.getId()),
+                ProfileHelper.getProfileImageUploadPath(currentCustomerId),
                 "avatar"
         );
 
+        // a content addressed image is locked by its uploads while it is deleted
+        imageStorageService.recordUpload(currentCustomerId, filename);
+
         // update profile photo in db
-        currentCustomer.getProfile().setImageFilename(filename);
-        profileRepository.save(currentCustomer.getProfile());
+        final String previousFilename = profile.getImageFilename();
+        profile.setImageFilename(filename);
+        profileRepository.save(profile);
+
+        // delete the previous photo unless it had the same name, so it was replaced
+        if (previousFilename != null && !previousFilename.equals(filename)) {
+            imageStorageService.deleteImage(
+                    ProfileHelper.getProfileImageUploadPath(currentCustomerId),
+                    previousFilename
+            );
+        }
 
         return filename;
     }
@@ -81,11 +102,12 @@ public class ProfileImageService {
      * It gets the customer profile photo
      *
      * @param customerId the id of the customer to get the photo for
+     * @param variant    the size of the photo or null for the original
      * @return the customer profile photo resource
      * @throws ProfileNotFoundException      if the customer profile does not exist
      * @throws ProfilePhotoNotFoundException if the customer profile photo does not exist in the db
      */
-    public Resource getProfileImage(Long customerId) {
+    public Resource getProfileImage(Long customerId, ImageVariant variant) {
         // find the customer profile
         Profile profile = profileRepository.findByCustomer_Id(customerId).orElseThrow(
                 () -> new ProfileNotFoundException(Exceptions.PROFILE.NOT_FOUND)
@@ -99,7 +121,8 @@ public class ProfileImageService {
         // return the image as resource
         return imageStorageService.getImage(
                 ProfileHelper.getProfileImageUploadPath(customerId),
-                profile.getImageFilename()
+                profile.getImageFilename(),
+                variant
         );
     }
 
@@ -109,8 +132,8 @@ public class ProfileImageService {
      * @return the current customer profile photo resource
      */
     public Resource getProfileImage() {
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
-        return this.getProfileImage(currentCustomer.getId());
+        return this.getProfileImage(currentCustomerId, null);
     }
 }
@@ -1,13 +1,14 @@
 package com.damian.photogram.domain.customer.service;
 
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.core.utils.AuthHelper;
 import com.damian.photogram.domain.customer.dto.request.ProfileUpdateRequest;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.exception.ProfileNotFoundException;
 import com.damian.photogram.domain.customer.exception.ProfileUpdateValidationException;
 import com.damian.photogram.domain.customer.helper.ProfileAuthorizationHelper;
-import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.core.security.CustomerDetails;
 import com.damian.photogram.domain.customer.model.Profile;
 import com.damian.photogram.domain.customer.repository.ProfileRepository;
 import org.springframework.stereotype.Service;
@@ -18,11 +19,14 @@ import java.time.LocalDate;
 @Service
 public class ProfileService {
     private final ProfileRepository profileRepository;
+    private final PasswordVerifier passwordVerifier;
 
     public ProfileService(
-            ProfileRepository profileRepository
+            ProfileRepository profileRepository,
+            PasswordVerifier passwordVerifier
     ) {
         this.profileRepository = profileRepository;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
@@ -32,9 +36,9 @@ public class ProfileService {
      * @throws ProfileNotFoundException if the profile is not found
      */
     public Profile getProfile() {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
-        return this.getProfile(currentCustomer.getId());
+        return this.getProfile(currentCustomerId);
     }
 
     /**
@@ -59,9 +63,15 @@ public class ProfileService {
      * @return Profile the updated profile
      */
     public Profile updateProfile(ProfileUpdateRequest request) {
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
-        return this.updateProfile(currentCustomer.getProfile().getId(), request);
+        // find the profile of the current customer
+        Profile profile = profileRepository
+                .findByCustomer_Id(currentCustomerId)
+                .orElseThrow(() -> new ProfileNotFoundException(
+                        Exceptions.PROFILE.NOT_FOUND));
+
+        return this.updateProfile(profile, request);
     }
 
     /**
@@ -73,14 +83,18 @@ public class ProfileService {
      * @throws ProfileNotFoundException if the profile is not found
      */
     public Profile updateProfile(Long profileId, ProfileUpdateRequest request) {
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
-
         // find the profile we want to modify
         Profile profile = profileRepository
                 .findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException(
                         Exceptions.PROFILE.NOT_FOUND));
 
+        return this.updateProfile(profile, request);
+    }
+
+    // it checks the current customer can update the profile and applies the changes
+    private Profile updateProfile(Profile profile, ProfileUpdateRequest request) {
+        final CustomerDetails currentCustomer = AuthHelper.getLoggedCustomer();
 
         // if the logged user is not admin
         if (!AuthHelper.isAdmin(currentCustomer)) {
@@ -90,7 +104,7 @@ public class ProfileService {
                     .checkOwner();
 
             // we validate the password before updating the profile
-            AuthHelper.validatePassword(currentCustomer, request.currentPassword());
+            passwordVerifier.validatePassword(profile.getOwner(), request.currentPassword());
         }
 
         // we iterate over the fields (if any)
@@ -1,5 +1,6 @@
 package com.damian.photogram.domain.post.controller;
 
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.post.dto.request.CommentCreateRequest;
 import com.damian.photogram.domain.post.dto.response.CommentDto;
 import com.damian.photogram.domain.post.mapper.CommentDtoMapper;
@@ -43,6 +44,24 @@ public class CommentController {
                 .body(commentsDTO);
     }
 
+    // endpoint to fetch comments from specific post using a cursor instead of page numbers
+    @GetMapping("/posts/{postId}/comments/scroll")
+    public ResponseEntity<?> scrollPostComments(
+            @PathVariable @NotNull @Positive
+            Long postId,
+            @RequestParam(required = false)
+            String before,
+            @RequestParam(defaultValue = "8")
+            int size
+    ) {
+        CursorPage<Comment> comments = commentService.getPostComments(postId, before, size);
+        CursorPage<CommentDto> commentsDTO = CommentDtoMapper.map(comments);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(commentsDTO);
+    }
+
     // endpoint to add a new comment for the given post
     @PostMapping("/posts/{postId}/comment")
     public ResponseEntity<?> addComment(
@@ -1,17 +1,19 @@
 package com.damian.photogram.domain.post.controller;
 
-import com.damian.photogram.domain.post.dto.response.LikeDto;
+import com.damian.photogram.domain.post.dto.request.PostLikeBatchRequest;
+import com.damian.photogram.domain.post.dto.response.LikeStatusDto;
 import com.damian.photogram.domain.post.dto.response.PostLikeDataDto;
-import com.damian.photogram.domain.post.mapper.LikeDtoMapper;
-import com.damian.photogram.domain.post.model.Like;
 import com.damian.photogram.domain.post.service.LikeService;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RequestMapping("/api/v1")
 @RestController
 public class LikeController {
@@ -35,18 +37,30 @@ public class LikeController {
                 .body(postLikeData);
     }
 
+    // endpoint to fetch the like data for a list of posts at once.
+    @PostMapping("/posts/likes/batch")
+    public ResponseEntity<?> getPostsLikeData(
+            @Validated @RequestBody
+            PostLikeBatchRequest request
+    ) {
+        List<PostLikeDataDto> postsLikeData = likeService.getPostsLikeData(request.postIds());
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(postsLikeData);
+    }
+
     // endpoint to add a new like to a post
     @PostMapping("/posts/{postId}/like")
     public ResponseEntity<?> like(
             @PathVariable @NotNull @Positive
             Long postId
     ) {
-        Like like = likeService.like(postId);
-        LikeDto likeDto = LikeDtoMapper.toLikeDto(like);
+        LikeStatusDto likeStatus = likeService.like(postId);
 
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(likeDto);
+                .status(likeStatus.changed() ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(likeStatus);
     }
 
     // endpoint to unlike a post.
@@ -55,11 +69,10 @@ public class LikeController {
             @PathVariable @NotNull @Positive
             Long postId
     ) {
-        likeService.unlike(postId);
+        LikeStatusDto likeStatus = likeService.unlike(postId);
 
         return ResponseEntity
-                .noContent()
-                .build();
+                .status(HttpStatus.OK)
+                .body(likeStatus);
     }
 }
-
@@ -1,13 +1,18 @@
 package com.damian.photogram.domain.post.controller;
 
-import com.damian.photogram.core.service.ImageHelper;
+import com.damian.photogram.core.service.ImageServingService;
+import com.damian.photogram.core.service.ImageVariant;
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.post.dto.request.PostCreateRequest;
 import com.damian.photogram.domain.post.dto.response.ImageUploadedDto;
+import com.damian.photogram.domain.post.dto.response.PostDetailDto;
 import com.damian.photogram.domain.post.dto.response.PostDto;
 import com.damian.photogram.domain.post.mapper.PostDtoMapper;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.service.PostImageService;
 import com.damian.photogram.domain.post.service.PostService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -19,12 +24,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 @RequestMapping("/api/v1")
@@ -32,14 +37,17 @@ import java.util.concurrent.TimeUnit;
 public class PostController {
     private final PostService postService;
     private final PostImageService postImageService;
+    private final ImageServingService imageServingService;
 
     @Autowired
     public PostController(
             PostService postService,
-            PostImageService postImageService
+            PostImageService postImageService,
+            ImageServingService imageServingService
     ) {
         this.postService = postService;
         this.postImageService = postImageService;
+        this.imageServingService = imageServingService;
     }
 
     // endpoint to fetch all post from specific customer
@@ -58,6 +66,39 @@ public class PostController {
                 .body(postsDTO);
     }
 
+    // endpoint to fetch all post from specific customer including likes and comments counters
+    @GetMapping("/posts/{username}/details")
+    public ResponseEntity<?> getPostDetailsByUsername(
+            @PathVariable @NotBlank
+            String username,
+            @PageableDefault(size = 6, sort = "createdAt", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        Page<PostDetailDto> postsDTO = postService.getPostDetailsByUsername(username, pageable);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(postsDTO);
+    }
+
+    // endpoint to fetch posts from specific customer using a cursor instead of page numbers
+    @GetMapping("/posts/{username}/scroll")
+    public ResponseEntity<?> scrollPostsByUsername(
+            @PathVariable @NotBlank
+            String username,
+            @RequestParam(required = false)
+            String before,
+            @RequestParam(defaultValue = "6")
+            int size
+    ) {
+        CursorPage<Post> posts = postService.getPostsByUsername(username, before, size);
+        CursorPage<PostDto> postsDTO = PostDtoMapper.toPostDtoCursorPage(posts);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(postsDTO);
+    }
+
     // endpoint to add a new post for the logged customer
     @PostMapping("/posts")
     public ResponseEntity<?> createPost(
@@ -87,17 +128,21 @@ public class PostController {
 
     // endpoint to get a post photo
     @GetMapping("/posts/{postId}/photo")
-    public ResponseEntity<?> getPostPhoto(
+    public void getPostPhoto(
             @PathVariable @NotNull @Positive
-            Long postId
-    ) {
-        Resource resource = postImageService.getImage(postId);
-        String contentType = ImageHelper.getContentType(resource);
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .contentType(MediaType.parseMediaType(contentType))
-                .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
-                .body(resource);
+            Long postId,
+            @RequestParam(required = false)
+            String size,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Resource resource = postImageService.getImage(postId, ImageVariant.fromParam(size));
+        imageServingService.serve(
+                resource,
+                CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic(),
+                request,
+                response
+        );
     }
 
     // endpoint to upload profile photo
@@ -107,7 +152,11 @@ public class PostController {
             @RequestParam("file") MultipartFile file
     ) {
         String filename = postImageService.uploadImage(file);
-        ImageUploadedDto imageUploadedDTO = new ImageUploadedDto(filename);
+        // the variants are generated in the background, a reused image may have them already
+        ImageUploadedDto imageUploadedDTO = new ImageUploadedDto(
+                filename,
+                postImageService.getVariantsStatus(filename)
+        );
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
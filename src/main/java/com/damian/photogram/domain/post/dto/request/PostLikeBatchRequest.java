@@ -0,0 +1,14 @@
+package com.damian.photogram.domain.post.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PostLikeBatchRequest(
+        @NotEmpty(message = "Post ids cannot be empty")
+        @Size(max = 50, message = "Post ids cannot contain more than 50 elements")
+        List<@NotNull Long> postIds
+) {
+}
@@ -1,6 +1,9 @@
 package com.damian.photogram.domain.post.dto.response;
 
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+
 public record ImageUploadedDto(
-        String photoFilename
+        String photoFilename,
+        ImageJobStatus variantsStatus
 ) {
 }
@@ -1,8 +0,0 @@
-package com.damian.photogram.domain.post.dto.response;
-
-public record LikeDto(
-        Long id,
-        Long postId,
-        Long customerId
-) {
-}
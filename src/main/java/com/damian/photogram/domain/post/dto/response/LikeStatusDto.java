@@ -0,0 +1,9 @@
+package com.damian.photogram.domain.post.dto.response;
+
+public record LikeStatusDto(
+        Long postId,
+        Long customerId,
+        boolean liked,
+        boolean changed
+) {
+}
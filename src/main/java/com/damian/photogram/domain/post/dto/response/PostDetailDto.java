@@ -0,0 +1,13 @@
+package com.damian.photogram.domain.post.dto.response;
+
+public record PostDetailDto(
+        Long id,
+        Long authorId,
+        String description,
+        String photoFilename,
+        String createdAt,
+        Long totalLikes,
+        Long totalComments,
+        boolean hasBeenLiked
+) {
+}
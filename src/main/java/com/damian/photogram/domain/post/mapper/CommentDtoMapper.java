@@ -1,5 +1,6 @@
 package com.damian.photogram.domain.post.mapper;
 
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.post.dto.response.CommentDto;
 import com.damian.photogram.domain.post.model.Comment;
 import org.springframework.data.domain.Page;
@@ -33,4 +34,10 @@ public class CommentDtoMapper {
                 );
     }
 
+    public static CursorPage<CommentDto> map(CursorPage<Comment> comments) {
+        return comments
+                .map(
+                        CommentDtoMapper::map
+                );
+    }
 }
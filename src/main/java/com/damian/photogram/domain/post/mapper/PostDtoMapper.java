@@ -1,8 +1,11 @@
 package com.damian.photogram.domain.post.mapper;
 
 
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.post.dto.response.PostDetailDto;
 import com.damian.photogram.domain.post.dto.response.PostDto;
 import com.damian.photogram.domain.post.model.Post;
+import com.damian.photogram.domain.post.repository.PostRepository;
 import org.springframework.data.domain.Page;
 
 import java.util.Set;
@@ -33,4 +36,24 @@ public class PostDtoMapper {
                         PostDtoMapper::toPostDtoPaginated
                 );
     }
+
+    public static CursorPage<PostDto> toPostDtoCursorPage(CursorPage<Post> posts) {
+        return posts
+                .map(
+                        PostDtoMapper::toPostDtoPaginated
+                );
+    }
+
+    public static PostDetailDto toPostDetailDto(PostRepository.PostDetail post, long totalLikes) {
+        return new PostDetailDto(
+                post.getId(),
+                post.getAuthorId(),
+                post.getDescription(),
+                post.getPhotoFilename(),
+                post.getCreatedAt().toString(),
+                totalLikes,
+                post.getTotalComments(),
+                Boolean.TRUE.equals(post.getLiked())
+        );
+    }
 }
@@ -16,7 +16,7 @@ public class Comment {
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private Customer author;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", referencedColumnName = "id")
     private Post post;
 
@@ -104,7 +104,7 @@ public class Comment {
     }
 
     // check if the given customer is the author of the comment
-    public boolean isAuthor(Customer customer) {
-        return this.author.getId().equals(customer.getId());
+    public boolean isAuthor(Long customerId) {
+        return this.author.getId().equals(customerId);
     }
 }
@@ -6,7 +6,13 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "customer_post_likes")
+@Table(
+        name = "customer_post_likes",
+        uniqueConstraints = @UniqueConstraint(
+                name = "unique_customer_post_like",
+                columnNames = {"post_id", "customer_id"}
+        )
+)
 public class Like {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,7 +22,7 @@ public class Like {
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private Customer customer;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", referencedColumnName = "id")
     private Post post;
 
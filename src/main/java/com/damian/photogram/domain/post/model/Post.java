@@ -22,6 +22,13 @@ public class Post {
     @Column
     private String description;
 
+    @Column(nullable = false)
+    private Long likeCount = 0L;
+
+    // not pushed into the followers timelines, they pull it at read time
+    @Column(nullable = false)
+    private boolean pulled = false;
+
     @Column
     private Instant createdAt;
 
@@ -94,8 +101,26 @@ public class Post {
         return this;
     }
 
+    public Long getLikeCount() {
+        return likeCount;
+    }
+
+    public Post setLikeCount(Long likeCount) {
+        this.likeCount = likeCount;
+        return this;
+    }
+
+    public boolean isPulled() {
+        return pulled;
+    }
+
+    public Post setPulled(boolean pulled) {
+        this.pulled = pulled;
+        return this;
+    }
+
     // check if the customer is the author of the post.
-    public boolean isAuthor(Customer customer) {
-        return this.author.getId().equals(customer.getId());
+    public boolean isAuthor(Long customerId) {
+        return this.author.getId().equals(customerId);
     }
 }
@@ -1,12 +1,16 @@
 package com.damian.photogram.domain.post.repository;
 
 import com.damian.photogram.domain.post.model.Like;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
@@ -16,14 +20,48 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
             @Param("customerId") Long customerId
     );
 
-    @Query("SELECT c FROM Like c WHERE c.post.id = :postId AND c.customer.id = :customerId")
-    Optional<Like> findByPostIdAndCustomerId(
+    // like a post in a single statement.
+    // nothing is inserted if the post does not exist or it is already liked by the customer.
+    @Transactional
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_post_likes (post_id, customer_id, created_at) " +
+                    "SELECT p.id, :customerId, CURRENT_TIMESTAMP FROM customer_posts p WHERE p.id = :postId " +
+                    "ON CONFLICT DO NOTHING",
+            nativeQuery = true
+    )
+    int insertIfAbsent(
             @Param("postId") Long postId,
             @Param("customerId") Long customerId
     );
 
+    // unlike a post in a single statement, returns the number of likes removed.
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Like c WHERE c.post.id = :postId AND c.customer.id = :customerId")
+    int deleteByPostIdAndCustomerId(
+            @Param("postId") Long postId,
+            @Param("customerId") Long customerId
+    );
+
+    // ids of the given posts liked by the customer
+    @Query("SELECT c.post.id FROM Like c WHERE c.post.id IN :postIds AND c.customer.id = :customerId")
+    List<Long> findPostIdsLikedByCustomer(
+            @Param("postIds") Collection<Long> postIds,
+            @Param("customerId") Long customerId
+    );
+
+    // (post, customer) pairs of the likes after the given id, used to walk the whole table in batches
+    @Query("SELECT c.id AS id, c.post.id AS postId, c.customer.id AS customerId FROM Like c " +
+           "WHERE c.id > :afterId ORDER BY c.id")
+    List<LikeKey> findKeysAfter(@Param("afterId") Long afterId, Limit limit);
+
+    interface LikeKey {
+        Long getId();
+
+        Long getPostId();
 
-    @Query("SELECT COUNT(c) FROM Like c WHERE c.post.id = :postId")
-    Long countLikesFromPost(@Param("postId") Long postId);
+        Long getCustomerId();
+    }
 }
 
@@ -1,19 +1,137 @@
 package com.damian.photogram.domain.post.repository;
 
 import com.damian.photogram.domain.post.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p FROM Post p WHERE p.author.profile.username = :username")
     Page<Post> findAllByUsername(String username, Pageable pageable);
 
+    // posts from an author with their like and comment counters
+    // and whether the given customer liked them, all in a single query.
+    // the like counter is the persisted one, without the deltas not flushed yet.
+    @Query(
+            value = "SELECT p.id AS id, p.author.id AS authorId, p.description AS description, " +
+                    "p.photoFilename AS photoFilename, p.createdAt AS createdAt, " +
+                    "p.likeCount AS totalLikes, " +
+                    "(SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id) AS totalComments, " +
+                    "CASE WHEN EXISTS (SELECT 1 FROM Like ml WHERE ml.post.id = p.id AND ml.customer.id = :customerId) " +
+                    "THEN true ELSE false END AS liked " +
+                    "FROM Post p WHERE p.author.profile.username = :username",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.profile.username = :username"
+    )
+    Page<PostDetail> findAllDetailsByUsername(
+            @Param("username") String username,
+            @Param("customerId") Long customerId,
+            Pageable pageable
+    );
+
+    // persisted like counter of a post, empty if the post does not exist
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    // persisted like counter of each post, posts that do not exist are not returned
+    @Query("SELECT p.id AS postId, p.likeCount AS totalLikes FROM Post p WHERE p.id IN :postIds")
+    List<PostLikeCount> findLikeCountsByIds(@Param("postIds") Collection<Long> postIds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // like counters that differ from the likes table, and by how much
+    @Query("SELECT p.id AS postId, (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id) - p.likeCount AS drift " +
+           "FROM Post p WHERE p.likeCount <> (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id)")
+    List<PostLikeDrift> findLikeCountDrifts();
+
+    // add the drift to a like counter, only if the drift is still the one observed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :drift WHERE p.id = :postId " +
+           "AND (SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id) - p.likeCount = :drift")
+    int addLikeCountDrift(@Param("postId") Long postId, @Param("drift") long drift);
+
     // count the number of post for a specific author
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId")
     Long countByAuthorId(Long authorId);
-}
 
+    // posts referencing a stored image
+    long countByPhotoFilename(String photoFilename);
+
+    // first page of the pulled posts from the authors followed by a customer
+    @Query("SELECT p FROM Post p, Follow f WHERE f.followerCustomer.id = :customerId " +
+           "AND p.author.id = f.followedCustomer.id AND p.pulled = true " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findLatestPulledByFollowerId(@Param("customerId") Long customerId, Limit limit);
+
+    // pulled posts from the authors followed by a customer older than the cursor
+    @Query("SELECT p FROM Post p, Follow f WHERE f.followerCustomer.id = :customerId " +
+           "AND p.author.id = f.followedCustomer.id AND p.pulled = true " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findPulledByFollowerIdBefore(
+            @Param("customerId") Long customerId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // first page of posts from an author (keyset pagination)
+    @Query("SELECT p FROM Post p WHERE p.author.id = :authorId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findLatestByAuthorId(@Param("authorId") Long authorId, Limit limit);
+
+    // posts from an author older than the cursor (keyset pagination)
+    @Query("SELECT p FROM Post p WHERE p.author.id = :authorId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByAuthorIdBefore(
+            @Param("authorId") Long authorId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    interface PostDetail {
+        Long getId();
+
+        Long getAuthorId();
+
+        String getDescription();
+
+        String getPhotoFilename();
+
+        Instant getCreatedAt();
+
+        Long getTotalLikes();
+
+        Long getTotalComments();
+
+        Boolean getLiked();
+    }
+
+    interface PostLikeCount {
+        Long getPostId();
+
+        Long getTotalLikes();
+    }
+
+    interface PostLikeDrift {
+        Long getPostId();
+
+        Long getDrift();
+    }
+}
@@ -1,8 +1,11 @@
 package com.damian.photogram.domain.post.service;
 
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.InvalidCursorException;
 import com.damian.photogram.core.utils.AuthHelper;
-import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.post.dto.request.CommentCreateRequest;
 import com.damian.photogram.domain.post.exception.CommentNotAuthorException;
 import com.damian.photogram.domain.post.exception.CommentNotFoundException;
@@ -20,13 +23,16 @@ import org.springframework.stereotype.Service;
 public class CommentService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
+    private final CustomerRepository customerRepository;
 
     public CommentService(
             PostRepository postRepository,
-            CommentRepository commentRepository
+            CommentRepository commentRepository,
+            CustomerRepository customerRepository
     ) {
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
+        this.customerRepository = customerRepository;
     }
 
     /**
@@ -45,6 +51,37 @@ public class CommentService {
         return commentRepository.findAllByPostId(postId, pageable);
     }
 
+    /**
+     * Get comments from a post using keyset pagination.
+     * It never counts the comments of the post, which is expensive on posts with many comments.
+     *
+     * @param postId the ID of the post
+     * @param before cursor returned by the previous page, null for the first page
+     * @param size   the number of comments per page
+     * @return CursorPage<Comment> a page of comments, newest first
+     * @throws PostNotFoundException  if the post does not exist
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public CursorPage<Comment> getPostComments(Long postId, String before, int size) {
+        // check if the post exists
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException(Exceptions.POSTS.NOT_FOUND);
+        }
+
+        return CursorPage.fetch(
+                before,
+                size,
+                limit -> commentRepository.findLatestByPostId(postId, limit),
+                (cursor, limit) -> commentRepository.findByPostIdBefore(
+                        postId,
+                        cursor.createdAt(),
+                        cursor.id(),
+                        limit
+                ),
+                comment -> new Cursor(comment.getCreatedAt(), comment.getId())
+        );
+    }
+
     /**
      * Add a new comment to the post
      *
@@ -54,7 +91,7 @@ public class CommentService {
      * @throws PostNotFoundException if the post does not exist
      */
     public Comment addComment(Long postId, CommentCreateRequest request) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // find the post
         Post post = postRepository.findById(postId).orElseThrow(
@@ -62,7 +99,7 @@ public class CommentService {
         );
 
         // create the comment
-        Comment comment = Comment.create(currentCustomer, post)
+        Comment comment = Comment.create(customerRepository.getReferenceById(currentCustomerId), post)
                                  .setComment(request.comment());
 
         // save the created comment
@@ -78,7 +115,7 @@ public class CommentService {
      * @throws CommentNotAuthorException if the customer is not the author of the comment
      */
     public void deleteComment(Long id) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // find the comment
         Comment comment = commentRepository.findById(id).orElseThrow(
@@ -86,7 +123,7 @@ public class CommentService {
         );
 
         // check if the customer is the author of the comment.
-        if (!comment.isAuthor(currentCustomer)) {
+        if (!comment.isAuthor(currentCustomerId)) {
             throw new CommentNotAuthorException(Exceptions.COMMENT.NOT_AUTHOR);
         }
 
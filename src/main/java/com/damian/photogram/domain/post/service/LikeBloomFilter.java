@@ -0,0 +1,247 @@
+package com.damian.photogram.domain.post.service;
+
+import com.damian.photogram.domain.post.repository.LikeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of the (post, customer) pairs in customer_post_likes.
+ * Most posts a customer sees are not liked by them, so a negative answer
+ * from the filter skips the query to the database.
+ * Likes can not be removed from a Bloom filter, unliked posts become false positives
+ * until the filter is rebuilt.
+ * Likes made by other instances of the application are not added to the filter,
+ * they would be answered as not liked until the next rebuild. So it is disabled by default
+ * and must only be enabled when a single instance runs.
+ */
+@Component
+public class LikeBloomFilter {
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    private final LikeRepository likeRepository;
+
+    // lookups the filter answered as not liked
+    private final LongAdder negatives = new LongAdder();
+    // lookups the filter answered as maybe liked and the database as liked
+    private final LongAdder truePositives = new LongAdder();
+    // lookups the filter answered as maybe liked and the database as not liked
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Value("${app.likes.bloom.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.likes.bloom.expected-likes:1000000}")
+    private long expectedLikes;
+
+    @Value("${app.likes.bloom.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    // null until the first build, every lookup goes to the database meanwhile
+    private volatile Bits bits;
+    // filter being rebuilt, it also gets the likes added during the rebuild
+    private volatile Bits building;
+
+    public LikeBloomFilter(LikeRepository likeRepository) {
+        this.likeRepository = likeRepository;
+    }
+
+    /**
+     * Build the filter again from the likes in the database.
+     * It is sized for twice the current likes so it keeps its false positive rate as likes grow.
+     *
+     * @return long the number of likes loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.likes.bloom.rebuild-cron:0 30 4 * * *}")
+    public synchronized long rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+
+        Bits next = new Bits(Math.max(expectedLikes, likeRepository.count() * 2), falsePositiveProbability);
+        building = next;
+
+        long loaded = 0;
+        long afterId = 0;
+        List<LikeRepository.LikeKey> keys;
+        do {
+            keys = likeRepository.findKeysAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+            for (LikeRepository.LikeKey key : keys) {
+                next.put(hash(key.getPostId(), key.getCustomerId()));
+                afterId = key.getId();
+            }
+            loaded += keys.size();
+        } while (keys.size() == REBUILD_BATCH_SIZE);
+
+        bits = next;
+        building = null;
+
+        // the rates are measured for the current filter
+        negatives.reset();
+        truePositives.reset();
+        falsePositives.reset();
+        return loaded;
+    }
+
+    /**
+     * Add a like to the filter.
+     *
+     * @param postId     the id of the liked post
+     * @param customerId the id of the customer who liked it
+     */
+    public void put(Long postId, Long customerId) {
+        long hash = hash(postId, customerId);
+        Bits current = bits;
+        Bits next = building;
+
+        if (current != null) {
+            current.put(hash);
+        }
+
+        if (next != null) {
+            next.put(hash);
+        }
+    }
+
+    /**
+     * Check if the customer may have liked the post.
+     * False means the customer did not like it, true must be confirmed against the database
+     * and reported back with {@link #recordPositive(boolean)}.
+     *
+     * @param postId     the id of the post
+     * @param customerId the id of the customer
+     * @return boolean false if the post is not liked by the customer
+     */
+    public boolean mightContain(Long postId, Long customerId) {
+        Bits current = bits;
+        if (current == null) {
+            return true;
+        }
+
+        if (!current.mightContain(hash(postId, customerId))) {
+            negatives.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Record the database answer for a lookup the filter answered as maybe liked.
+     *
+     * @param liked true if the database confirmed the like
+     */
+    public void recordPositive(boolean liked) {
+        if (bits == null) {
+            return;
+        }
+
+        if (liked) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * False positive rate observed since the last rebuild.
+     *
+     * @return double false positives / (false positives + negatives)
+     */
+    public double getFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long total = fp + negatives.sum();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    /**
+     * False positive rate expected from the bits set in the filter.
+     *
+     * @return double the expected false positive rate
+     */
+    public double getExpectedFalsePositiveRate() {
+        Bits current = bits;
+        return current == null ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    public long getNegatives() {
+        return negatives.sum();
+    }
+
+    public long getTruePositives() {
+        return truePositives.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    // 64-bit hash of the pair (murmur3 finalizer)
+    private static long hash(Long postId, Long customerId) {
+        long h = postId * 0x9E3779B97F4A7C15L ^ customerId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final LongAdder bitsSet = new LongAdder();
+
+        Bits(long expectedInsertions, double falsePositiveProbability) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+            this.words = new AtomicLongArray(words);
+            this.size = (long) words * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        }
+
+        void put(long hash) {
+            // double hashing, the i-th bit is h1 + i * h2
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old = words.get(word);
+                while ((old & mask) == 0) {
+                    if (words.compareAndSet(word, old, old | mask)) {
+                        bitsSet.increment();
+                        break;
+                    }
+                    old = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.sum() / size, hashes);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.damian.photogram.domain.post.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics of the {@link LikeBloomFilter}.
+ */
+@Component
+public class LikeBloomFilterMetrics implements MeterBinder {
+    private final LikeBloomFilter likeBloomFilter;
+
+    public LikeBloomFilterMetrics(LikeBloomFilter likeBloomFilter) {
+        this.likeBloomFilter = likeBloomFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("likes.bloom.false.positive.rate", likeBloomFilter, LikeBloomFilter::getFalsePositiveRate)
+             .description("False positive rate of the liked-by-me filter observed since the last rebuild")
+             .register(registry);
+
+        Gauge.builder(
+                     "likes.bloom.expected.false.positive.rate",
+                     likeBloomFilter,
+                     LikeBloomFilter::getExpectedFalsePositiveRate
+             )
+             .description("False positive rate of the liked-by-me filter expected from its bits set")
+             .register(registry);
+
+        FunctionCounter.builder("likes.bloom.lookups", likeBloomFilter, LikeBloomFilter::getNegatives)
+                       .tag("result", "negative")
+                       .register(registry);
+
+        FunctionCounter.builder("likes.bloom.lookups", likeBloomFilter, LikeBloomFilter::getTruePositives)
+                       .tag("result", "true_positive")
+                       .register(registry);
+
+        FunctionCounter.builder("likes.bloom.lookups", likeBloomFilter, LikeBloomFilter::getFalsePositives)
+                       .tag("result", "false_positive")
+                       .register(registry);
+    }
+}
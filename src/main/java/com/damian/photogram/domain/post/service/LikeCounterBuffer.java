@@ -0,0 +1,190 @@
+package com.damian.photogram.domain.post.service;
+
+import com.damian.photogram.domain.post.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for the like counter of the posts.
+ * Likes and unlikes only add to an in-memory counter per post,
+ * and the deltas are periodically flushed into customer_posts.like_count,
+ * so a hot post takes one row update per flush instead of one per like.
+ * Deltas lost in a crash are repaired against the likes table,
+ * once at startup and then on a schedule.
+ * Every instance buffers its own deltas, so the repair never overwrites a counter:
+ * it only adds a drift that stayed the same for longer than a flush interval,
+ * which deltas still pending in other instances can not do.
+ */
+@Component
+public class LikeCounterBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterBuffer.class);
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // counters removed in the last flush. They are read again in the next one
+    // to catch any increment that was still in flight when they were removed.
+    private final List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final PostRepository postRepository;
+
+    // time between the two observations of a drift, longer than the flush interval of every instance
+    @Value("${app.likes.reconcile-settle:15000}")
+    private long reconcileSettle;
+
+    public LikeCounterBuffer(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Add a delta to the like counter of a post.
+     *
+     * @param postId the id of the post
+     * @param delta  the number of likes to add, negative to remove
+     */
+    public void add(Long postId, long delta) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+    }
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    public void decrement(Long postId) {
+        add(postId, -1);
+    }
+
+    /**
+     * Get the delta not yet flushed for a post.
+     *
+     * @param postId the id of the post
+     * @return long the pending delta
+     */
+    public long pending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Get the like count of a post given its persisted counter.
+     *
+     * @param postId     the id of the post
+     * @param persisted  the like count stored in the database
+     * @return long the like count including the pending delta
+     */
+    public long count(Long postId, long persisted) {
+        return Math.max(0, persisted + pending(postId));
+    }
+
+    /**
+     * Flush the pending deltas into the database.
+     * Posts without changes since the last flush stop being tracked.
+     *
+     * @return int the number of posts updated
+     */
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval:5000}")
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+
+        // late increments on the counters removed in the previous flush
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            long delta = entry.getValue().sum();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        retired.clear();
+
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                retired.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        int updated = 0;
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            try {
+                updated += postRepository.incrementLikeCount(delta.getKey(), delta.getValue());
+            } catch (RuntimeException e) {
+                // keep the delta for the next flush
+                log.warn("Failed to flush like counter for post {}: {}", delta.getKey(), e.getMessage());
+                add(delta.getKey(), delta.getValue());
+            }
+        }
+
+        return updated;
+    }
+
+    /**
+     * Repair the like counters that drifted from the likes table.
+     * The drift of each counter is observed twice, a settle time apart,
+     * and only the drifts that did not change in between are added to the counters.
+     * A drift caused by deltas not yet flushed, in this or any other instance,
+     * changes when they are flushed, so it is left alone.
+     *
+     * @return int the number of counters repaired
+     */
+    @Scheduled(cron = "${app.likes.reconcile-cron:0 15 4 * * *}")
+    public int reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        try {
+            flush();
+            Map<Long, Long> observed = new HashMap<>();
+            for (PostRepository.PostLikeDrift drift : postRepository.findLikeCountDrifts()) {
+                observed.put(drift.getPostId(), drift.getDrift());
+            }
+
+            if (observed.isEmpty()) {
+                return 0;
+            }
+
+            Thread.sleep(reconcileSettle);
+            flush();
+
+            int repaired = 0;
+            for (PostRepository.PostLikeDrift drift : postRepository.findLikeCountDrifts()) {
+                if (drift.getDrift().equals(observed.get(drift.getPostId()))) {
+                    repaired += postRepository.addLikeCountDrift(drift.getPostId(), drift.getDrift());
+                }
+            }
+            return repaired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    // counters of a database migrated without them, or of deltas lost before the last stop
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        int repaired = reconcile();
+        if (repaired > 0) {
+            log.info("Repaired {} like counters", repaired);
+        }
+    }
+
+    // flush what is left before the application stops
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -2,29 +2,51 @@ package com.damian.photogram.domain.post.service;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.utils.AuthHelper;
-import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.post.dto.response.LikeStatusDto;
 import com.damian.photogram.domain.post.dto.response.PostLikeDataDto;
-import com.damian.photogram.domain.post.exception.LikeNotFoundException;
-import com.damian.photogram.domain.post.exception.PostAlreadyLikedException;
 import com.damian.photogram.domain.post.exception.PostNotFoundException;
-import com.damian.photogram.domain.post.model.Like;
-import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.LikeRepository;
 import com.damian.photogram.domain.post.repository.PostRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
 
 @Service
 public class LikeService {
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikeBloomFilter likeBloomFilter;
 
     public LikeService(
             LikeRepository likeRepository,
-            PostRepository postRepository
+            PostRepository postRepository,
+            LikeCounterBuffer likeCounterBuffer,
+            LikeBloomFilter likeBloomFilter
     ) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.likeBloomFilter = likeBloomFilter;
+    }
+
+    /**
+     * Check if a post is liked by a customer.
+     * The database is only queried when the bloom filter can not rule it out.
+     *
+     * @param postId     The ID of the post.
+     * @param customerId The ID of the customer.
+     * @return true if the customer liked the post.
+     */
+    private boolean isPostLikedByCustomer(Long postId, Long customerId) {
+        if (!likeBloomFilter.mightContain(postId, customerId)) {
+            return false;
+        }
+
+        boolean liked = likeRepository.isPostLikedByCustomer(postId, customerId);
+        likeBloomFilter.recordPositive(liked);
+        return liked;
     }
 
     /**
@@ -35,72 +57,118 @@ public class LikeService {
      * @throws PostNotFoundException If the post does not exist.
      */
     public PostLikeDataDto getPostLikeData(Long postId) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
-        // check if the post exists
-        if (!postRepository.existsById(postId)) {
-            throw new PostNotFoundException(Exceptions.POSTS.NOT_FOUND);
-        }
+        // get the persisted like counter, it also checks if the post exists
+        Long likeCount = postRepository.findLikeCountById(postId).orElseThrow(
+                () -> new PostNotFoundException(Exceptions.POSTS.NOT_FOUND)
+        );
 
         // get the like data for the specified post
         return new PostLikeDataDto(
                 postId,
-                likeRepository.isPostLikedByCustomer(postId, currentCustomer.getId()),
-                likeRepository.countLikesFromPost(postId)
+                isPostLikedByCustomer(postId, currentCustomerId),
+                likeCounterBuffer.count(postId, likeCount)
         );
     }
 
+    /**
+     * Get the like data for a set of posts using two queries,
+     * no matter how many posts are requested.
+     * The like counts are read from the counters like in {@link #getPostLikeData(Long)}.
+     * Posts that do not exist are returned as not liked and without likes.
+     *
+     * @param postIds The IDs of the posts to retrieve like data for.
+     * @return The like data for each post, in the same order as requested.
+     */
+    public List<PostLikeDataDto> getPostsLikeData(Collection<Long> postIds) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+        Set<Long> ids = new LinkedHashSet<>(postIds);
+
+        // total likes by post, including the deltas not flushed yet
+        Map<Long, Long> totalLikes = new HashMap<>();
+        postRepository.findLikeCountsByIds(ids).forEach(
+                count -> totalLikes.put(
+                        count.getPostId(),
+                        likeCounterBuffer.count(count.getPostId(), count.getTotalLikes())
+                )
+        );
+
+        // posts that may be liked by the current customer according to the bloom filter
+        Set<Long> candidateIds = new HashSet<>();
+        for (Long postId : ids) {
+            if (likeBloomFilter.mightContain(postId, currentCustomerId)) {
+                candidateIds.add(postId);
+            }
+        }
+
+        // posts liked by the current customer
+        Set<Long> likedPostIds = new HashSet<>();
+        if (!candidateIds.isEmpty()) {
+            likedPostIds.addAll(likeRepository.findPostIdsLikedByCustomer(candidateIds, currentCustomerId));
+            candidateIds.forEach(postId -> likeBloomFilter.recordPositive(likedPostIds.contains(postId)));
+        }
+
+        return ids.stream()
+                  .map(postId -> new PostLikeDataDto(
+                          postId,
+                          likedPostIds.contains(postId),
+                          totalLikes.getOrDefault(postId, 0L)
+                  ))
+                  .toList();
+    }
+
     /**
      * Like a post.
      * The like will be assigned to the current customer.
+     * It is idempotent, liking an already liked post does not change anything.
      *
      * @param postId The ID of the post to like.
-     * @return The like object representing the like.
-     * @throws PostNotFoundException     If the post does not exist.
-     * @throws PostAlreadyLikedException If the post is already liked by the current customer.
+     * @return The like status, changed is false if the post was already liked.
+     * @throws PostNotFoundException If the post does not exist.
      */
-    public Like like(Long postId) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+    public LikeStatusDto like(Long postId) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
-        // find the post to like
-        Post post = postRepository.findById(postId).orElseThrow(
-                () -> new PostNotFoundException(Exceptions.POSTS.NOT_FOUND)
-        );
+        // insert the like unless it already exists
+        if (likeRepository.insertIfAbsent(postId, currentCustomerId) == 1) {
+            likeCounterBuffer.increment(postId);
+            likeBloomFilter.put(postId, currentCustomerId);
+            return new LikeStatusDto(postId, currentCustomerId, true, true);
+        }
 
-        // check if post its already liked by the current customer
-        if (likeRepository.isPostLikedByCustomer(postId, currentCustomer.getId())) {
-            throw new PostAlreadyLikedException(Exceptions.POSTS.ALREADY_LIKED);
+        // nothing was inserted, either the post does not exist or it was already liked
+        if (!postRepository.existsById(postId)) {
+            throw new PostNotFoundException(Exceptions.POSTS.NOT_FOUND);
         }
 
-        // save the like
-        return likeRepository.save(
-                new Like(post, currentCustomer)
-        );
+        likeBloomFilter.put(postId, currentCustomerId);
+        return new LikeStatusDto(postId, currentCustomerId, true, false);
     }
 
     /**
      * Unlike a post.
      * The unlike will be assigned to the current customer.
+     * It is idempotent, unliking a post not liked does not change anything.
      *
      * @param postId The ID of the post to unlike.
+     * @return The like status, changed is false if the post was not liked.
      * @throws PostNotFoundException If the post does not exist.
-     * @throws LikeNotFoundException If the post like does not exist.
      */
-    public void unlike(Long postId) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+    public LikeStatusDto unlike(Long postId) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // delete the like if it exists
+        if (likeRepository.deleteByPostIdAndCustomerId(postId, currentCustomerId) == 1) {
+            likeCounterBuffer.decrement(postId);
+            return new LikeStatusDto(postId, currentCustomerId, false, true);
+        }
 
-        // check if the post exists
+        // nothing was deleted, either the post does not exist or it was not liked
         if (!postRepository.existsById(postId)) {
             throw new PostNotFoundException(Exceptions.POSTS.NOT_FOUND);
         }
 
-        // check if the like exists
-        Like like = likeRepository
-                .findByPostIdAndCustomerId(postId, currentCustomer.getId())
-                .orElseThrow(
-                        () -> new LikeNotFoundException(Exceptions.LIKE.NOT_FOUND)
-                );
-
-        likeRepository.deleteById(like.getId());
+        return new LikeStatusDto(postId, currentCustomerId, false, false);
     }
 }
@@ -1,10 +1,11 @@
 package com.damian.photogram.domain.post.service;
 
+import com.damian.photogram.app.images.enums.ImageJobStatus;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.service.ImageStorageService;
 import com.damian.photogram.core.service.ImageUploaderService;
+import com.damian.photogram.core.service.ImageVariant;
 import com.damian.photogram.core.utils.AuthHelper;
-import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.post.exception.PostImageFileSizeExceededException;
 import com.damian.photogram.domain.post.exception.PostNotFoundException;
 import com.damian.photogram.domain.post.helper.PostHelper;
@@ -52,26 +53,45 @@ public class PostImageService {
      * @return String
      */
     public String uploadImage(MultipartFile image) {
-        final Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        final Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // run image validations
         this.validateImageOrThrow(image);
 
         // saving image
-        return imageUploaderService.uploadImage(
+        String filename = imageUploaderService.uploadImage(
                 image,
-                PostHelper.getPostsImagePath(currentCustomer.getId())
+                PostHelper.getPostsImagePath(currentCustomerId)
+        );
+
+        // a content addressed image can only be posted by the customers who uploaded it
+        imageStorageService.recordUpload(currentCustomerId, filename);
+
+        return filename;
+    }
+
+    /**
+     * Returns the state of the variants of an image uploaded by the current customer.
+     *
+     * @param filename name returned by the upload
+     * @return ImageJobStatus
+     */
+    public ImageJobStatus getVariantsStatus(String filename) {
+        return imageUploaderService.getVariantsStatus(
+                PostHelper.getPostsImagePath(AuthHelper.getLoggedCustomerId()),
+                filename
         );
     }
 
     /**
      * Returns the post image as Resource from storage
      *
-     * @param postId id of the post
+     * @param postId  id of the post
+     * @param variant the size of the image or null for the original
      * @return Resource
      * @throws PostNotFoundException if the post does not exist
      */
-    public Resource getImage(Long postId) {
+    public Resource getImage(Long postId, ImageVariant variant) {
 
         // find the post
         Post post = postRepository.findById(postId).orElseThrow(
@@ -80,7 +100,8 @@ public class PostImageService {
 
         return imageStorageService.getImage(
                 PostHelper.getPostsImagePath(post.getAuthor().getId()),
-                post.getPhotoFilename()
+                post.getPhotoFilename(),
+                variant
         );
     }
 }
@@ -1,20 +1,30 @@
 package com.damian.photogram.domain.post.service;
 
+import com.damian.photogram.app.feed.TimelineService;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.core.exception.InvalidCursorException;
 import com.damian.photogram.core.service.ImageStorageService;
 import com.damian.photogram.core.utils.AuthHelper;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.customer.exception.CustomerNotFoundException;
-import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.model.Profile;
+import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
 import com.damian.photogram.domain.post.dto.request.PostCreateRequest;
+import com.damian.photogram.domain.post.dto.response.PostDetailDto;
 import com.damian.photogram.domain.post.exception.PostNotAuthorException;
 import com.damian.photogram.domain.post.exception.PostNotFoundException;
 import com.damian.photogram.domain.post.helper.PostHelper;
+import com.damian.photogram.domain.post.mapper.PostDtoMapper;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.PostRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
@@ -22,15 +32,27 @@ public class PostService {
     private final PostRepository postRepository;
     private final ProfileRepository profileRepository;
     private final ImageStorageService imageStorageService;
+    private final TimelineService timelineService;
+    private final CustomerStatsService customerStatsService;
+    private final CustomerRepository customerRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
 
     public PostService(
             PostRepository postRepository,
             ProfileRepository profileRepository,
-            ImageStorageService imageStorageService
+            ImageStorageService imageStorageService,
+            TimelineService timelineService,
+            CustomerStatsService customerStatsService,
+            CustomerRepository customerRepository,
+            LikeCounterBuffer likeCounterBuffer
     ) {
         this.postRepository = postRepository;
         this.profileRepository = profileRepository;
         this.imageStorageService = imageStorageService;
+        this.timelineService = timelineService;
+        this.customerStatsService = customerStatsService;
+        this.customerRepository = customerRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
     }
 
     /**
@@ -49,24 +71,97 @@ public class PostService {
         return postRepository.findAllByUsername(username, pageable);
     }
 
+    /**
+     * Get posts paged by username along with their like and comment counters
+     * and whether the current customer liked them.
+     *
+     * @param username the username to get posts from
+     * @param pageable pagination parameters
+     * @return Page<PostDetailDto>
+     * @throws CustomerNotFoundException if no customer has this username
+     */
+    public Page<PostDetailDto> getPostDetailsByUsername(String username, Pageable pageable) {
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // check if the customer exists by this username
+        profileRepository.findByUsernameIgnoreCase(username).orElseThrow(
+                () -> new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND)
+        );
+
+        // the persisted like counters plus the deltas not flushed yet
+        return postRepository
+                .findAllDetailsByUsername(username, currentCustomerId, pageable)
+                .map(post -> PostDtoMapper.toPostDetailDto(
+                        post,
+                        likeCounterBuffer.count(post.getId(), post.getTotalLikes())
+                ));
+    }
+
+    /**
+     * Get posts by username using keyset pagination.
+     * Each page seeks on (createdAt, id) so deep pages cost the same as the first one.
+     *
+     * @param username the username to get posts from
+     * @param before   cursor returned by the previous page, null for the first page
+     * @param size     the number of posts per page
+     * @return CursorPage<Post> a page of posts, newest first
+     * @throws CustomerNotFoundException if no customer has this username
+     * @throws InvalidCursorException    if the cursor is malformed
+     */
+    public CursorPage<Post> getPostsByUsername(String username, String before, int size) {
+        // check if the customer exists by this username
+        Profile profile = profileRepository.findByUsernameIgnoreCase(username).orElseThrow(
+                () -> new CustomerNotFoundException(Exceptions.CUSTOMER.NOT_FOUND)
+        );
+
+        final Long authorId = profile.getCustomerId();
+
+        return CursorPage.fetch(
+                before,
+                size,
+                limit -> postRepository.findLatestByAuthorId(authorId, limit),
+                (cursor, limit) -> postRepository.findByAuthorIdBefore(
+                        authorId,
+                        cursor.createdAt(),
+                        cursor.id(),
+                        limit
+                ),
+                post -> new Cursor(post.getCreatedAt(), post.getId())
+        );
+    }
+
     /**
      * Add a new post for the current customer
+     * and push it into the timelines of its followers.
      *
      * @param request
      * @return Post the post created
+     * @throws ImageNotFoundException if the customer did not upload the image
      */
+    @Transactional
     public Post createPost(PostCreateRequest request) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+
+        // the image must have been uploaded by the customer
+        imageStorageService.validateUploaderOrElseThrow(currentCustomerId, request.photoFilename());
 
         // create the post
-        Post post = Post.create(currentCustomer)
+        Post post = Post.create(customerRepository.getReferenceById(currentCustomerId))
                         .setPhotoFilename(request.photoFilename())
                         .setDescription(request.description());
 
         // save the post
-        return postRepository.save(
+        post = postRepository.save(
                 post
         );
+
+        // update the posts counter of the author
+        customerStatsService.incrementPosts(currentCustomerId, 1);
+
+        // push the post into the followers timelines
+        timelineService.fanOut(post);
+
+        return post;
     }
 
     /**
@@ -77,8 +172,9 @@ public class PostService {
      * @throws PostNotFoundException  if the post does not exist.
      * @throws PostNotAuthorException if the current customer is not the author of the post.
      */
+    @Transactional
     public void deletePost(Long id) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // check if the post exists
         Post post = postRepository.findById(id).orElseThrow(
@@ -86,17 +182,20 @@ public class PostService {
         );
 
         // check if the current customer is the owner of the post.
-        if (!post.isAuthor(currentCustomer)) {
+        if (!post.isAuthor(currentCustomerId)) {
             throw new PostNotAuthorException(Exceptions.POSTS.NOT_AUTHOR);
         }
 
         // path to the folder where the image is stored.
         String path = PostHelper.getPostsImagePath(post.getAuthor().getId());
 
-        // delete the image from the storage.
-        imageStorageService.deleteImage(path, post.getPhotoFilename());
-
         // delete the post from the database.
         postRepository.deleteById(id);
+
+        // delete the image from the storage, once the post does not reference it.
+        imageStorageService.deleteImage(path, post.getPhotoFilename());
+
+        // update the posts counter of the author
+        customerStatsService.incrementPosts(currentCustomerId, -1);
     }
 }
@@ -84,7 +84,7 @@ public class Setting {
         return this;
     }
 
-    public boolean isOwner(Customer customer) {
-        return this.customer.getId().equals(customer.getId());
+    public boolean isOwner(Long customerId) {
+        return this.customer.getId().equals(customerId);
     }
 }
@@ -2,7 +2,6 @@ package com.damian.photogram.domain.setting;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.utils.AuthHelper;
-import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.setting.dto.SettingUpdateRequest;
 import com.damian.photogram.domain.setting.dto.SettingsPatchRequest;
 import com.damian.photogram.domain.setting.exception.SettingNotFoundException;
@@ -23,13 +22,13 @@ public class SettingService {
 
     // get all the settings for the logged customer
     public Set<Setting> getSettings() {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
-        return settingRepository.findByCustomer_Id(currentCustomer.getId());
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
+        return settingRepository.findByCustomer_Id(currentCustomerId);
     }
 
     // update only one setting
     public Setting updateSetting(Long id, SettingUpdateRequest request) {
-        Customer currentCustomer = AuthHelper.getLoggedCustomer();
+        Long currentCustomerId = AuthHelper.getLoggedCustomerId();
 
         // find the setting by id
         Setting setting = settingRepository.findById(id).orElseThrow(
@@ -37,7 +36,7 @@ public class SettingService {
         );
 
         // check if the logged customer is the owner of the setting.
-        if (!setting.isOwner(currentCustomer)) {
+        if (!setting.isOwner(currentCustomerId)) {
             throw new SettingNotOwnerException(Exceptions.SETTINGS.NOT_OWNER);
         }
 
@@ -46,6 +46,8 @@ CREATE TABLE public.customer_profiles (
 	CONSTRAINT profiles_customer_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE
 );
 
+CREATE INDEX customer_profiles_image_filename_idx ON public.customer_profiles (image_filename);
+
 CREATE TYPE public."account_status_type" AS ENUM (
 	'PENDING_VERIFICATION',
 	'SUSPENDED',
@@ -95,16 +97,25 @@ CREATE TABLE public.customer_follows (
     CONSTRAINT follower_customer_id_fkey FOREIGN KEY (follower_customer_id) REFERENCES public.customers(id) ON DELETE CASCADE
 );
 
+CREATE INDEX customer_follows_followed_created_idx ON public.customer_follows (followed_customer_id, created_at DESC, id DESC);
+CREATE INDEX customer_follows_follower_created_idx ON public.customer_follows (follower_customer_id, created_at DESC, id DESC);
+
 CREATE TABLE public.customer_posts (
     id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
     customer_id int4 NOT NULL,
     photo_filename varchar(255) NOT NULL,
     description varchar(255) NOT NULL,
+    like_count int8 DEFAULT 0 NOT NULL,
+    pulled BOOLEAN DEFAULT FALSE NOT NULL,
     created_at timestamp DEFAULT CURRENT_TIMESTAMP NULL,
     CONSTRAINT customer_posts_pkey PRIMARY KEY (id),
     CONSTRAINT customer_posts_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE
 );
 
+CREATE INDEX customer_posts_customer_created_idx ON public.customer_posts (customer_id, created_at DESC, id DESC);
+CREATE INDEX customer_posts_photo_filename_idx ON public.customer_posts (photo_filename);
+CREATE INDEX customer_posts_pulled_customer_created_idx ON public.customer_posts (customer_id, created_at DESC, id DESC) WHERE pulled;
+
 CREATE TABLE public.customer_post_likes (
     id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
     post_id int4 NOT NULL,
@@ -127,6 +138,8 @@ CREATE TABLE public.customer_post_comments (
     CONSTRAINT post_id_fkey FOREIGN KEY (post_id) REFERENCES public.customer_posts(id) ON DELETE CASCADE
 );
 
+CREATE INDEX customer_post_comments_post_created_idx ON public.customer_post_comments (post_id, created_at DESC, id DESC);
+
 CREATE TABLE public.customer_settings (
 	id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
 	customer_id int4 NOT NULL,
@@ -135,4 +148,64 @@ CREATE TABLE public.customer_settings (
 	CONSTRAINT settings_pkey PRIMARY KEY (id),
     CONSTRAINT settings_customer_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE,
     CONSTRAINT unique_customer_setting UNIQUE (customer_id, setting_key)
-);
\ No newline at end of file
+);
+
+CREATE TABLE public.customer_timelines (
+    id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
+    customer_id int4 NOT NULL,
+    post_id int4 NOT NULL,
+    created_at timestamp DEFAULT CURRENT_TIMESTAMP NULL,
+    CONSTRAINT customer_timelines_pkey PRIMARY KEY (id),
+    CONSTRAINT unique_customer_timeline_post UNIQUE (customer_id, post_id),
+    CONSTRAINT timeline_customer_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE,
+    CONSTRAINT timeline_post_id_fkey FOREIGN KEY (post_id) REFERENCES public.customer_posts(id) ON DELETE CASCADE
+);
+
+CREATE INDEX customer_timelines_customer_created_idx ON public.customer_timelines (customer_id, created_at DESC, post_id DESC);
+
+CREATE TABLE public.customer_stats (
+    customer_id int4 NOT NULL,
+    posts int4 DEFAULT 0 NOT NULL,
+    followers int4 DEFAULT 0 NOT NULL,
+    following int4 DEFAULT 0 NOT NULL,
+    updated_at timestamp DEFAULT CURRENT_TIMESTAMP NULL,
+    CONSTRAINT customer_stats_pkey PRIMARY KEY (customer_id),
+    CONSTRAINT customer_stats_customer_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE
+);
+
+CREATE TABLE public.customer_revoked_tokens (
+    jti varchar(36) NOT NULL,
+    customer_id int4 NOT NULL,
+    expires_at timestamp NOT NULL,
+    revoked_at timestamp NOT NULL,
+    CONSTRAINT customer_revoked_tokens_pkey PRIMARY KEY (jti)
+);
+
+CREATE INDEX customer_revoked_tokens_revoked_at_idx ON public.customer_revoked_tokens (revoked_at);
+CREATE INDEX customer_revoked_tokens_expires_at_idx ON public.customer_revoked_tokens (expires_at);
+
+CREATE TABLE public.customer_image_jobs (
+    id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
+    path varchar(255) NOT NULL,
+    status varchar(20) NOT NULL,
+    attempts int4 DEFAULT 0 NOT NULL,
+    created_at timestamp NOT NULL,
+    started_at timestamp NULL,
+    finished_at timestamp NULL,
+    CONSTRAINT customer_image_jobs_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX customer_image_jobs_status_idx ON public.customer_image_jobs (status, id);
+CREATE INDEX customer_image_jobs_path_idx ON public.customer_image_jobs (path, id);
+
+CREATE TABLE public.customer_image_uploads (
+    id int4 GENERATED ALWAYS AS IDENTITY NOT NULL,
+    customer_id int4 NOT NULL,
+    filename varchar(255) NOT NULL,
+    uploaded_at timestamp NOT NULL,
+    CONSTRAINT customer_image_uploads_pkey PRIMARY KEY (id),
+    CONSTRAINT unique_customer_image_upload UNIQUE (customer_id, filename),
+    CONSTRAINT customer_image_uploads_customer_id_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id) ON DELETE CASCADE
+);
+
+CREATE INDEX customer_image_uploads_filename_idx ON public.customer_image_uploads (filename);
@@ -3,6 +3,7 @@ package com.damian.photogram.app.auth;
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.security.CustomerPrincipal;
 import com.damian.photogram.core.utils.JwtUtil;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
@@ -114,6 +115,98 @@ public class AuthenticationIntegrationTest {
         assertThat(emailFromToken).isEqualTo(this.email);
     }
 
+    @Test
+    @DisplayName("Should refresh the token carrying the customer claims")
+    void shouldRefreshToken() throws Exception {
+        // given
+        customer.getAccount().setAccountStatus(AccountStatus.VERIFIED);
+        customerRepository.save(customer);
+
+        AuthenticationRequest request = new AuthenticationRequest(
+                this.email, this.rawPassword
+        );
+
+        MvcResult loginResult = mockMvc.perform(MockMvcRequestBuilders
+                                               .post("/api/v1/auth/login")
+                                               .contentType(MediaType.APPLICATION_JSON)
+                                               .content(objectMapper.writeValueAsString(request)))
+                                       .andExpect(MockMvcResultMatchers.status().is(200))
+                                       .andReturn();
+
+        String token = objectMapper.readValue(
+                loginResult.getResponse().getContentAsString(),
+                AuthenticationResponse.class
+        ).token();
+
+        // when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                                          .post("/api/v1/auth/token/refresh")
+                                          .header("Authorization", "Bearer " + token))
+                                  .andDo(print())
+                                  .andExpect(MockMvcResultMatchers.status().is(200))
+                                  .andReturn();
+
+        AuthenticationResponse response = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                AuthenticationResponse.class
+        );
+
+        // then
+        CustomerPrincipal principal = jwtUtil.getPrincipal(jwtUtil.getVerifiedClaims(response.token()));
+        assertThat(principal.getId()).isEqualTo(customer.getId());
+        assertThat(principal.getEmail()).isEqualTo(this.email);
+        assertThat(principal.getRole()).isEqualTo(CustomerRole.ADMIN);
+    }
+
+    @Test
+    @DisplayName("Should not accept the token after logout")
+    void shouldNotAcceptTokenAfterLogout() throws Exception {
+        // given
+        customer.getAccount().setAccountStatus(AccountStatus.VERIFIED);
+        customerRepository.save(customer);
+
+        AuthenticationRequest request = new AuthenticationRequest(
+                this.email, this.rawPassword
+        );
+
+        MvcResult loginResult = mockMvc.perform(MockMvcRequestBuilders
+                                               .post("/api/v1/auth/login")
+                                               .contentType(MediaType.APPLICATION_JSON)
+                                               .content(objectMapper.writeValueAsString(request)))
+                                       .andExpect(MockMvcResultMatchers.status().is(200))
+                                       .andReturn();
+
+        String token = objectMapper.readValue(
+                loginResult.getResponse().getContentAsString(),
+                AuthenticationResponse.class
+        ).token();
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders
+                       .post("/api/v1/auth/logout")
+                       .header("Authorization", "Bearer " + token))
+               .andDo(print())
+               .andExpect(MockMvcResultMatchers.status().is(204));
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders
+                       .post("/api/v1/auth/token/refresh")
+                       .header("Authorization", "Bearer " + token))
+               .andDo(print())
+               .andExpect(MockMvcResultMatchers.status().is(401))
+               .andExpect(jsonPath("$.message").value(Exceptions.JWT.TOKEN_REVOKED));
+    }
+
+    @Test
+    @DisplayName("Should not refresh the token when not authenticated")
+    void shouldNotRefreshTokenWhenNotAuthenticated() throws Exception {
+        // when
+        mockMvc.perform(MockMvcRequestBuilders
+                       .post("/api/v1/auth/token/refresh"))
+               .andDo(print())
+               .andExpect(MockMvcResultMatchers.status().is(401));
+    }
+
     @Test
     @DisplayName("Should not login when invalid credentials")
     void shouldNotLoginWhenInvalidCredentials() throws Exception {
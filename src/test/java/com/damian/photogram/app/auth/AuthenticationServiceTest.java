@@ -3,12 +3,15 @@ package com.damian.photogram.app.auth;
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.TooManyPasswordAttemptsException;
+import com.damian.photogram.core.security.PasswordAttemptThrottle;
 import com.damian.photogram.core.utils.JwtUtil;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.account.exception.AccountNotVerifiedException;
 import com.damian.photogram.domain.account.exception.AccountSuspendedException;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,14 +23,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.Date;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthenticationServiceTest {
@@ -43,6 +49,12 @@ public class AuthenticationServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private PasswordAttemptThrottle passwordAttemptThrottle;
+
     @BeforeEach
     void setUp() {
     }
@@ -53,6 +65,14 @@ public class AuthenticationServiceTest {
         SecurityContextHolder.clearContext();
     }
 
+    void setUpContext(Customer customer) {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(customer);
+    }
+
     @Test
     @DisplayName("should login when valid credentials")
     void shouldLoginWhenValidCredentials() {
@@ -74,7 +94,7 @@ public class AuthenticationServiceTest {
         when(jwtUtil.generateToken(anyMap(), anyString())).thenReturn(token);
         when(authentication.getPrincipal()).thenReturn(customer);
 
-        AuthenticationResponse response = authenticationService.login(request);
+        AuthenticationResponse response = authenticationService.login(request, "127.0.0.1");
 
         // then
         assertThat(response.token()).isEqualTo(token);
@@ -97,7 +117,7 @@ public class AuthenticationServiceTest {
 
         BadCredentialsException exception = assertThrows(
                 BadCredentialsException.class,
-                () -> authenticationService.login(request)
+                () -> authenticationService.login(request, "127.0.0.1")
         );
 
         // Then
@@ -127,7 +147,7 @@ public class AuthenticationServiceTest {
 
         AccountSuspendedException exception = assertThrows(
                 AccountSuspendedException.class,
-                () -> authenticationService.login(request)
+                () -> authenticationService.login(request, "127.0.0.1")
         );
 
         // Then
@@ -157,10 +177,105 @@ public class AuthenticationServiceTest {
 
         AccountNotVerifiedException exception = assertThrows(
                 AccountNotVerifiedException.class,
-                () -> authenticationService.login(request)
+                () -> authenticationService.login(request, "127.0.0.1")
         );
 
         // Then
         assertEquals(Exceptions.ACCOUNT.EMAIL_NOT_VERIFIED, exception.getMessage());
     }
+
+    @Test
+    @DisplayName("should refresh token of the current customer")
+    void shouldRefreshToken() {
+        // given
+        String token = "jwt-token";
+
+        Customer customer = new Customer(
+                1L,
+                "alice@gmail.com",
+                "123456"
+        );
+        customer.getAccount().setAccountStatus(AccountStatus.VERIFIED);
+        setUpContext(customer);
+
+        // when
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        when(jwtUtil.generateToken(anyMap(), eq(customer.getEmail()))).thenReturn(token);
+
+        AuthenticationResponse response = authenticationService.refreshToken();
+
+        // then
+        assertThat(response.token()).isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("should not refresh token when account is suspended")
+    void shouldNotRefreshTokenWhenAccountIsSuspended() {
+        // given
+        Customer customer = new Customer(
+                1L,
+                "alice@gmail.com",
+                "123456"
+        );
+        customer.getAccount().setAccountStatus(AccountStatus.SUSPENDED);
+        setUpContext(customer);
+
+        // when
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+
+        AccountSuspendedException exception = assertThrows(
+                AccountSuspendedException.class,
+                () -> authenticationService.refreshToken()
+        );
+
+        // Then
+        assertEquals(Exceptions.ACCOUNT.SUSPENDED, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("should revoke the token on logout")
+    void shouldLogout() {
+        // given
+        String token = "jwt-token";
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+        Customer customer = new Customer(
+                1L,
+                "alice@gmail.com",
+                "123456"
+        );
+        setUpContext(customer);
+
+        Claims claims = mock(Claims.class);
+
+        // when
+        when(jwtUtil.getVerifiedClaims(token)).thenReturn(claims);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(expiration);
+
+        authenticationService.logout(token);
+
+        // then
+        verify(tokenRevocationService, times(1)).revoke("jti-1", customer.getId(), expiration);
+    }
+
+    @Test
+    @DisplayName("should not login when there are too many attempts")
+    void shouldNotLoginWhenTooManyAttempts() {
+        // given
+        AuthenticationRequest request = new AuthenticationRequest("alice@gmail.com", "123456");
+
+        // when
+        doThrow(new TooManyPasswordAttemptsException(Exceptions.PASSWORD.TOO_MANY_ATTEMPTS))
+                .when(passwordAttemptThrottle).acquire(request.email(), "127.0.0.1");
+
+        TooManyPasswordAttemptsException exception = assertThrows(
+                TooManyPasswordAttemptsException.class,
+                () -> authenticationService.login(request, "127.0.0.1")
+        );
+
+        // Then
+        assertEquals(Exceptions.PASSWORD.TOO_MANY_ATTEMPTS, exception.getMessage());
+        verify(authenticationManager, never()).authenticate(any());
+    }
 }
@@ -2,6 +2,7 @@ package com.damian.photogram.app.auth;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.utils.JwtUtil;
+import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.customer.dto.request.ProfileUpdateRequest;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
@@ -95,6 +96,25 @@ public class AuthorizationIntegrationTest {
                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("Should not have access when the token claims an account not verified")
+    void shouldNotHaveAccessWhenTokenClaimsAccountSuspended() throws Exception {
+        // given
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtUtil.CLAIM_CUSTOMER_ID, customer.getId());
+        claims.put(JwtUtil.CLAIM_ROLE, customer.getRole().name());
+        claims.put(JwtUtil.CLAIM_STATUS, AccountStatus.SUSPENDED.name());
+        final String token = jwtUtil.generateToken(claims, customer.getEmail());
+
+        // when
+        mockMvc.perform(MockMvcRequestBuilders
+                       .get("/api/v1/customers/profile")
+                       .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+               .andDo(print())
+               .andExpect(MockMvcResultMatchers.status().is(401))
+               .andExpect(jsonPath("$.message").value(Exceptions.ACCOUNT.SUSPENDED));
+    }
+
     @Test
     @DisplayName("Should not have access when token has expired")
     void shouldNotHaveAccessWhenTokenHasExpired() throws Exception {
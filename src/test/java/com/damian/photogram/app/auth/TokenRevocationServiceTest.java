@@ -0,0 +1,156 @@
+package com.damian.photogram.app.auth;
+
+import com.damian.photogram.app.auth.model.RevokedToken;
+import com.damian.photogram.app.auth.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "bucketWidth", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "syncInterval", 60_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "tokenExpiration", 60_000L);
+        ReflectionTestUtils.invokeMethod(tokenRevocationService, "init");
+    }
+
+    @Test
+    @DisplayName("Should reject a token once revoked")
+    void shouldRevokeToken() {
+        // given
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        // when
+        tokenRevocationService.revoke("jti-1", 1L, expiresAt);
+
+        // then
+        assertThat(tokenRevocationService.isRevoked("jti-1", expiresAt)).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2", expiresAt)).isFalse();
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Should not store tokens without id or already expired")
+    void shouldNotRevokeExpiredToken() {
+        // when
+        tokenRevocationService.revoke(null, 1L, new Date(System.currentTimeMillis() + 60_000));
+        tokenRevocationService.revoke("jti-1", 1L, new Date(System.currentTimeMillis() - 1_000));
+
+        // then
+        assertThat(tokenRevocationService.size()).isZero();
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Should load the tokens revoked in the database")
+    void shouldSyncRevokedTokens() {
+        // given
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        RevokedToken token = new RevokedToken("jti-1", 1L, expiresAt);
+
+        // when
+        when(revokedTokenRepository.findActiveRevokedSince(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(token));
+        int loaded = tokenRevocationService.sync();
+
+        // then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(tokenRevocationService.isRevoked("jti-1", Date.from(expiresAt))).isTrue();
+        verify(revokedTokenRepository, times(1)).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should reject the tokens of a customer issued before they were revoked")
+    void shouldRevokeTokensIssuedBefore() {
+        // given
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+
+        // when
+        tokenRevocationService.revokeAll(1L);
+        Date issuedAfter = new Date(System.currentTimeMillis() + 1_000);
+
+        // then
+        assertThat(tokenRevocationService.isRevoked(1L, issuedBefore)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(1L, issuedAfter)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(2L, issuedBefore)).isFalse();
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Should load the customers revoked in the database")
+    void shouldSyncRevokedCustomers() {
+        // given
+        Instant revokedAt = Instant.now().minusSeconds(10);
+        RevokedToken revoked = RevokedToken.ofCustomer(1L, revokedAt, revokedAt.plusSeconds(60));
+
+        // when
+        when(revokedTokenRepository.findActiveRevokedSince(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(revoked));
+        int loaded = tokenRevocationService.sync();
+
+        // then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(revoked.isCustomerWide()).isTrue();
+        assertThat(tokenRevocationService.isRevoked(1L, Date.from(revokedAt.minusSeconds(1)))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(1L, Date.from(revokedAt.plusSeconds(1)))).isFalse();
+        assertThat(tokenRevocationService.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never drop a customer revocation before it expires")
+    void shouldKeepEveryLiveCustomerRevocation() {
+        // given
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+
+        // when
+        for (long customerId = 1; customerId <= 1_000; customerId++) {
+            tokenRevocationService.revokeAll(customerId);
+        }
+        tokenRevocationService.sync();
+
+        // then
+        for (long customerId = 1; customerId <= 1_000; customerId++) {
+            assertThat(tokenRevocationService.isRevoked(customerId, issuedBefore)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop the customer revocations once expired")
+    void shouldPruneExpiredCustomerRevocations() {
+        // given
+        Instant revokedAt = Instant.now().minusSeconds(120);
+        RevokedToken expired = RevokedToken.ofCustomer(1L, revokedAt, Instant.now().minusSeconds(60));
+        RevokedToken live = RevokedToken.ofCustomer(2L, revokedAt, Instant.now().plusSeconds(60));
+
+        // when
+        when(revokedTokenRepository.findActiveRevokedSince(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(expired, live));
+        tokenRevocationService.sync();
+
+        // then
+        assertThat(tokenRevocationService.isRevoked(1L, Date.from(revokedAt.minusSeconds(1)))).isFalse();
+        assertThat(tokenRevocationService.isRevoked(2L, Date.from(revokedAt.minusSeconds(1)))).isTrue();
+    }
+}
@@ -3,11 +3,19 @@ package com.damian.photogram.app.feed;
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
 import com.damian.photogram.app.feed.dto.response.FeedDto;
+import com.damian.photogram.app.feed.repository.TimelineRepository;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
 import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.model.CustomerStats;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import com.damian.photogram.domain.customer.repository.CustomerStatsRepository;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
+import com.damian.photogram.domain.post.dto.request.PostCreateRequest;
+import com.damian.photogram.domain.post.dto.response.PostDto;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +48,18 @@ public class FeedIntegrationTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private CustomerStatsRepository customerStatsRepository;
+
+    @Autowired
+    private CustomerStatsService customerStatsService;
+
     @Autowired
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
@@ -65,6 +85,9 @@ public class FeedIntegrationTest {
 
     @AfterAll
     void tearDown() {
+        customerStatsRepository.deleteAll();
+        timelineRepository.deleteAll();
+        postRepository.deleteAll();
         customerRepository.deleteAll();
     }
 
@@ -113,6 +136,82 @@ public class FeedIntegrationTest {
         );
 
         // then
-        assertThat(feedDto).isNotNull();
+        assertThat(feedDto)
+                .isNotNull()
+                .extracting(FeedDto::customerId, FeedDto::username)
+                .containsExactly(customer.getId(), customer.getProfile().getUsername());
+    }
+
+    @Test
+    @DisplayName("Should get home timeline with own posts")
+    void shouldGetHomeTimeline() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        PostCreateRequest request = new PostCreateRequest(
+                "photo.jpg",
+                "hello timeline!"
+        );
+
+        mockMvc.perform(
+                       post("/api/v1/posts")
+                               .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                               .contentType(MediaType.APPLICATION_JSON)
+                               .content(objectMapper.writeValueAsBytes(request)))
+               .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/feed/home")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // then
+        JsonNode root = objectMapper.readTree(result.getResponse().getContentAsString());
+        PostDto[] postsDto = objectMapper.treeToValue(root.get("content"), PostDto[].class);
+
+        assertThat(postsDto)
+                .extracting(PostDto::description)
+                .contains(request.description());
+    }
+
+    @Test
+    @DisplayName("Should get feed counters repaired after reconcile")
+    void shouldGetFeedCountersAfterReconcile() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        // counters drifted from the real values
+        customerStatsRepository.save(
+                new CustomerStats(customer.getId())
+                        .setPosts(99L)
+                        .setFollowers(99L)
+                        .setFollowing(99L)
+        );
+
+        customerStatsService.reconcile();
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/customers/{username}/feed", customer.getProfile().getUsername())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        // then
+        FeedDto feedDto = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                FeedDto.class
+        );
+
+        assertThat(feedDto)
+                .extracting(FeedDto::totalPosts, FeedDto::following, FeedDto::followers)
+                .containsExactly(postRepository.countByAuthorId(customer.getId()), 0L, 0L);
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,9 @@
 package com.damian.photogram.app.feed;
 
 import com.damian.photogram.app.feed.dto.response.FeedDto;
+import com.damian.photogram.app.feed.repository.FeedRepository;
+import com.damian.photogram.domain.customer.exception.CustomerNotFoundException;
 import com.damian.photogram.domain.customer.model.Customer;
-import com.damian.photogram.domain.customer.repository.FollowRepository;
-import com.damian.photogram.domain.customer.repository.ProfileRepository;
-import com.damian.photogram.domain.post.repository.PostRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,19 +21,14 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class FeedServiceTest {
 
     @Mock
-    private ProfileRepository profileRepository;
-
-    @Mock
-    private PostRepository postRepository;
-
-    @Mock
-    private FollowRepository followRepository;
+    private FeedRepository feedRepository;
 
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
@@ -70,23 +64,42 @@ public class FeedServiceTest {
         );
         loggedCustomer.getProfile().setUsername("customer7777");
 
+        FeedDto feedDto = new FeedDto(
+                loggedCustomer.getId(),
+                loggedCustomer.getProfile().getUsername(),
+                0L,
+                0L,
+                0L,
+                null,
+                null
+        );
+
         // when
-        when(profileRepository.findByUsernameIgnoreCase(loggedCustomer.getUsername()))
-                .thenReturn(Optional.of(loggedCustomer.getProfile()));
+        when(feedRepository.findFeedByUsername(loggedCustomer.getProfile().getUsername()))
+                .thenReturn(Optional.of(feedDto));
 
-        when(postRepository.countByAuthorId(anyLong()))
-                .thenReturn(0L);
+        FeedDto result = feedService.getUserFeed(loggedCustomer.getProfile().getUsername());
 
-        when(followRepository.countFollowsFromCustomer(anyLong()))
-                .thenReturn(0L);
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isEqualTo(feedDto);
+        verify(feedRepository, times(1)).findFeedByUsername(loggedCustomer.getProfile().getUsername());
+    }
 
-        when(followRepository.countFollowersFromCustomer(anyLong()))
-                .thenReturn(0L);
-        FeedDto result = feedService.getUserFeed(loggedCustomer.getUsername());
+    @Test
+    @DisplayName("Should not get feed when customer not found")
+    void shouldNotGetFeedWhenCustomerNotFound() {
+        // given
+        String username = "customer7777";
+
+        // when
+        when(feedRepository.findFeedByUsername(username)).thenReturn(Optional.empty());
 
         // then
-        assertThat(result)
-                .isNotNull();
-        verify(profileRepository, times(1)).findByUsernameIgnoreCase(loggedCustomer.getUsername());
+        assertThrows(
+                CustomerNotFoundException.class,
+                () -> feedService.getUserFeed(username)
+        );
     }
 }
@@ -0,0 +1,216 @@
+package com.damian.photogram.app.feed;
+
+import com.damian.photogram.app.feed.model.TimelineEntry;
+import com.damian.photogram.app.feed.repository.TimelineRepository;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
+import com.damian.photogram.domain.post.model.Post;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimelineServiceTest {
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CustomerStatsService customerStatsService;
+
+    @Mock
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        ReflectionTestUtils.setField(timelineService, "fanOutThreshold", 100L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    void setUpContext(Customer customer) {
+        Authentication authentication = Mockito.mock(Authentication.class);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).thenReturn(customer);
+    }
+
+    @Test
+    @DisplayName("Should get home timeline")
+    void shouldGetHomeTimeline() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        Post post = Post.create(currentCustomer)
+                        .setId(1L)
+                        .setDescription("Hello world");
+
+        // when
+        when(timelineRepository.findLatestTimelinePosts(currentCustomer.getId(), Limit.of(7)))
+                .thenReturn(List.of(post));
+        CursorPage<Post> result = timelineService.getHomeTimeline(null, 6);
+
+        // then
+        assertThat(result.content()).containsExactly(post);
+        assertThat(result.hasNext()).isFalse();
+        verify(postRepository, times(1)).findLatestPulledByFollowerId(currentCustomer.getId(), Limit.of(7));
+    }
+
+    @Test
+    @DisplayName("Should fan out a post to the author and its followers")
+    void shouldFanOutPost() {
+        // given
+        Customer author = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Post post = Post.create(author)
+                        .setId(5L)
+                        .setDescription("Hello world");
+
+        // when
+        timelineService.fanOut(post);
+
+        // then
+        assertThat(post.isPulled()).isFalse();
+        verify(timelineRepository, times(1)).save(any(TimelineEntry.class));
+        verify(timelineRepository, times(1)).fanOutToFollowers(author.getId(), post.getId(), post.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should not fan out a post when the author is above the threshold")
+    void shouldNotFanOutPostWhenAuthorAboveThreshold() {
+        // given
+        Customer author = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Post post = Post.create(author)
+                        .setId(5L)
+                        .setDescription("Hello world");
+
+        // when
+        when(customerStatsService.countFollowers(author.getId())).thenReturn(100L);
+        timelineService.fanOut(post);
+
+        // then
+        assertThat(post.isPulled()).isTrue();
+        verify(postRepository, times(1)).save(post);
+        verify(timelineRepository, times(1)).save(any(TimelineEntry.class));
+        verify(timelineRepository, never()).fanOutToFollowers(anyLong(), anyLong(), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should backfill the pushed posts of an author above the threshold")
+    void shouldBackfillAuthorAboveThreshold() {
+        // when
+        timelineService.backfill(1L, 2L);
+
+        // then
+        verify(timelineRepository, times(1)).backfillFromAuthor(eq(1L), eq(2L), anyInt());
+        verifyNoInteractions(customerStatsService);
+    }
+
+    @Test
+    @DisplayName("Should merge pushed and pulled posts in the home timeline")
+    void shouldMergePushedAndPulledPosts() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        Customer popularCustomer = new Customer(
+                2L, "popular@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Instant now = Instant.now();
+        Post pushedNewest = Post.create(currentCustomer).setId(4L).setCreatedAt(now);
+        Post pushedOldest = Post.create(currentCustomer).setId(1L).setCreatedAt(now.minusSeconds(30));
+        Post pulledNewer = Post.create(popularCustomer).setId(3L).setCreatedAt(now.minusSeconds(10));
+        Post pulledOlder = Post.create(popularCustomer).setId(2L).setCreatedAt(now.minusSeconds(20));
+
+        // when
+        when(timelineRepository.findLatestTimelinePosts(currentCustomer.getId(), Limit.of(4)))
+                .thenReturn(List.of(pushedNewest, pushedOldest));
+        when(postRepository.findLatestPulledByFollowerId(currentCustomer.getId(), Limit.of(4)))
+                .thenReturn(List.of(pulledNewer, pulledOlder));
+
+        CursorPage<Post> result = timelineService.getHomeTimeline(null, 3);
+
+        // then
+        assertThat(result.content()).containsExactly(pushedNewest, pulledNewer, pulledOlder);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(Cursor.decode(result.nextCursor())).isEqualTo(new Cursor(pulledOlder.getCreatedAt(), 2L));
+    }
+
+    @Test
+    @DisplayName("Should seek both sources after the cursor for the next page")
+    void shouldGetNextPageAfterCursor() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        Instant now = Instant.now();
+        Post pushed = Post.create(currentCustomer).setId(1L).setCreatedAt(now.minusSeconds(30));
+        Cursor cursor = new Cursor(now.minusSeconds(20), 2L);
+
+        // when
+        when(timelineRepository.findTimelinePostsBefore(
+                currentCustomer.getId(), cursor.createdAt(), cursor.id(), Limit.of(4)
+        )).thenReturn(List.of(pushed));
+        when(postRepository.findPulledByFollowerIdBefore(
+                currentCustomer.getId(), cursor.createdAt(), cursor.id(), Limit.of(4)
+        )).thenReturn(List.of());
+
+        CursorPage<Post> result = timelineService.getHomeTimeline(cursor.encode(), 3);
+
+        // then
+        assertThat(result.content()).containsExactly(pushed);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+}
@@ -0,0 +1,216 @@
+package com.damian.photogram.app.images;
+
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+import com.damian.photogram.app.images.model.ImageJob;
+import com.damian.photogram.app.images.repository.ImageJobRepository;
+import com.damian.photogram.core.service.ImageVariantService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageJobServiceTest {
+
+    @Mock
+    private ImageJobRepository imageJobRepository;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @InjectMocks
+    private ImageJobService imageJobService;
+
+    @TempDir
+    private Path folder;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageJobService, "threads", 1);
+        ReflectionTestUtils.setField(imageJobService, "queueSize", 10);
+        ReflectionTestUtils.setField(imageJobService, "maxAttempts", 2);
+        ReflectionTestUtils.setField(imageJobService, "staleAfter", 600_000L);
+        ReflectionTestUtils.setField(imageJobService, "retention", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(imageJobService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(imageJobService, "shutdown");
+    }
+
+    private ImageJob givenJob(Long id, String path) {
+        ImageJob job = new ImageJob(path);
+        job.setId(id);
+        return job;
+    }
+
+    @Test
+    @DisplayName("Should store the job as pending and process it in the background")
+    void shouldEnqueueJob() throws IOException {
+        // given
+        // the worker loads its own instance of the job, as it would from the database
+        ImageJob stored = givenJob(1L, "uploads/images/photo.jpg");
+        ImageJob loaded = givenJob(1L, "uploads/images/photo.jpg");
+        when(imageJobRepository.save(any(ImageJob.class))).thenReturn(stored);
+        when(imageJobRepository.claim(eq(1L), any(Instant.class))).thenReturn(1);
+        when(imageJobRepository.findById(1L)).thenReturn(Optional.of(loaded));
+
+        // when
+        ImageJob enqueued = imageJobService.enqueue(Path.of("uploads/images/photo.jpg"));
+
+        // then
+        assertThat(enqueued.getStatus()).isEqualTo(ImageJobStatus.PENDING);
+        verify(imageVariantService, timeout(1000)).generateVariants(Path.of("uploads/images/photo.jpg"));
+        verify(imageJobRepository, timeout(1000)).save(loaded);
+        assertThat(loaded.getStatus()).isEqualTo(ImageJobStatus.DONE);
+    }
+
+    @Test
+    @DisplayName("Should get the status of the last job of an image")
+    void shouldGetStatus() {
+        // given
+        ImageJob job = givenJob(1L, "uploads/images/photo.jpg");
+        job.setStatus(ImageJobStatus.PROCESSING);
+        when(imageJobRepository.findFirstByPathOrderByIdDesc("uploads/images/photo.jpg")).thenReturn(Optional.of(job));
+        when(imageJobRepository.findFirstByPathOrderByIdDesc("uploads/images/old.jpg")).thenReturn(Optional.empty());
+
+        // then
+        assertThat(imageJobService.getStatus(Path.of("uploads/images/photo.jpg"))).isEqualTo(ImageJobStatus.PROCESSING);
+        assertThat(imageJobService.getStatus(Path.of("uploads/images/old.jpg"))).isEqualTo(ImageJobStatus.DONE);
+    }
+
+    @Test
+    @DisplayName("Should mark the job as done and count its latency")
+    void shouldProcessJob() throws IOException {
+        // given
+        ImageJob job = givenJob(1L, "uploads/images/photo.jpg");
+        when(imageJobRepository.claim(eq(1L), any(Instant.class))).thenReturn(1);
+        when(imageJobRepository.findById(1L)).thenReturn(Optional.of(job));
+
+        // when
+        imageJobService.process(1L);
+
+        // then
+        assertThat(job.getStatus()).isEqualTo(ImageJobStatus.DONE);
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(imageJobService.getCompletedJobs()).isEqualTo(1);
+        assertThat(imageJobService.getLatencyMillis()).isGreaterThanOrEqualTo(0);
+        verify(imageJobRepository).save(job);
+    }
+
+    @Test
+    @DisplayName("Should not process a job claimed by another worker")
+    void shouldNotProcessClaimedJob() throws IOException {
+        // given
+        when(imageJobRepository.claim(eq(1L), any(Instant.class))).thenReturn(0);
+
+        // when
+        imageJobService.process(1L);
+
+        // then
+        verify(imageJobRepository, never()).findById(any());
+        verify(imageVariantService, never()).generateVariants(any());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed job until the max attempts")
+    void shouldRetryFailedJob() throws IOException {
+        // given
+        ImageJob job = givenJob(1L, "uploads/images/photo.jpg");
+        job.setAttempts(1);
+        when(imageJobRepository.claim(eq(1L), any(Instant.class))).thenReturn(1);
+        when(imageJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(imageVariantService.generateVariants(any())).thenThrow(new IOException("disk"));
+
+        // when
+        imageJobService.process(1L);
+        job.setAttempts(2);
+        imageJobService.process(1L);
+
+        // then
+        assertThat(job.getStatus()).isEqualTo(ImageJobStatus.FAILED);
+        assertThat(imageJobService.getFailedJobs()).isEqualTo(1);
+        assertThat(imageJobService.getCompletedJobs()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should submit the stored pending jobs on poll")
+    void shouldPollPendingJobs() {
+        // given
+        when(imageJobRepository.countByStatus(ImageJobStatus.PENDING)).thenReturn(2L);
+        when(imageJobRepository.findIdsByStatus(eq(ImageJobStatus.PENDING), any())).thenReturn(List.of(1L, 2L));
+        when(imageJobRepository.claim(any(), any(Instant.class))).thenReturn(0);
+
+        // when
+        int submitted = imageJobService.poll();
+
+        // then
+        assertThat(submitted).isEqualTo(2);
+        assertThat(imageJobService.getPendingJobs()).isEqualTo(2);
+        verify(imageJobRepository).releaseStale(any(Instant.class));
+        verify(imageJobRepository).deleteDone(any(Instant.class));
+        verify(imageJobRepository, timeout(1000).times(2)).claim(any(), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should fail the job of an image that can not be read")
+    void shouldFailJobOfCorruptImage() throws IOException {
+        // given
+        ImageVariantService realVariantService = new ImageVariantService();
+        ReflectionTestUtils.setField(realVariantService, "enabled", true);
+        ReflectionTestUtils.setField(realVariantService, "maxPixels", 40_000_000L);
+        ReflectionTestUtils.setField(realVariantService, "quality", 0.8f);
+        ImageJobService service = new ImageJobService(imageJobRepository, realVariantService);
+        ReflectionTestUtils.setField(service, "maxAttempts", 2);
+
+        // a jpeg cut after its header
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+        byte[] corrupt = Arrays.copyOf(jpeg.toByteArray(), 400);
+        Arrays.fill(corrupt, 200, 400, (byte) 0xFF);
+        Path original = Files.write(folder.resolve("photo.jpg"), corrupt);
+        Path missing = folder.resolve("missing.jpg");
+
+        ImageJob corruptJob = givenJob(1L, original.toString());
+        ImageJob missingJob = givenJob(2L, missing.toString());
+        corruptJob.setAttempts(1);
+        missingJob.setAttempts(2);
+        when(imageJobRepository.claim(any(), any(Instant.class))).thenReturn(1);
+        when(imageJobRepository.findById(1L)).thenReturn(Optional.of(corruptJob));
+        when(imageJobRepository.findById(2L)).thenReturn(Optional.of(missingJob));
+
+        // when
+        service.process(1L);
+        service.process(2L);
+
+        // then
+        assertThat(corruptJob.getStatus()).isEqualTo(ImageJobStatus.PENDING);
+        assertThat(missingJob.getStatus()).isEqualTo(ImageJobStatus.FAILED);
+        assertThat(service.getCompletedJobs()).isZero();
+        assertThat(service.getFailedJobs()).isEqualTo(1);
+        assertThat(Files.list(folder)).containsExactly(original);
+    }
+}
@@ -0,0 +1,125 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.app.auth.TokenRevocationService;
+import com.damian.photogram.core.security.CustomerDetails;
+import com.damian.photogram.core.security.CustomerPrincipal;
+import com.damian.photogram.core.service.CustomerDetailsService;
+import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerDetailsServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private CustomerDetailsService customerDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(customerDetailsService, "customerCacheTtl", 60_000L);
+        ReflectionTestUtils.setField(customerDetailsService, "customerCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(customerDetailsService, "init");
+    }
+
+    @Test
+    @DisplayName("Should load a customer from the database only once")
+    void shouldCacheCustomer() {
+        // given
+        Customer customer = new Customer(1L, "customer@test.com", "password");
+
+        // when
+        when(customerRepository.findByEmail(customer.getEmail())).thenReturn(Optional.of(customer));
+        CustomerDetails first = customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+        CustomerDetails second = customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+
+        // then
+        assertThat(second).isSameAs(first);
+        verify(customerRepository, times(1)).findByEmail(customer.getEmail());
+    }
+
+    @Test
+    @DisplayName("Should cache a snapshot of the customer instead of the entity")
+    void shouldCacheCustomerSnapshot() {
+        // given
+        Customer customer = new Customer(1L, "customer@test.com", "password");
+
+        // when
+        when(customerRepository.findByEmail(customer.getEmail())).thenReturn(Optional.of(customer));
+        CustomerPrincipal cached = customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+        customer.setEmail("changed@test.com");
+
+        // then
+        assertThat(cached).isNotSameAs(customer);
+        assertThat(cached.getId()).isEqualTo(customer.getId());
+        assertThat(cached.getEmail()).isEqualTo("customer@test.com");
+        assertThat(cached.getRole()).isEqualTo(customer.getRole());
+        assertThat(cached.getAccountStatus()).isEqualTo(customer.getAccount().getAccountStatus());
+        assertThat(cached.getPassword()).isEqualTo(customer.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should load a customer again after it is evicted")
+    void shouldReloadEvictedCustomer() {
+        // given
+        Customer customer = new Customer(1L, "customer@test.com", "password");
+
+        // when
+        when(customerRepository.findByEmail(customer.getEmail())).thenReturn(Optional.of(customer));
+        customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+        customerDetailsService.evict(customer.getId());
+        customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+
+        // then
+        verify(customerRepository, times(2)).findByEmail(customer.getEmail());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing customers")
+    void shouldNotCacheMissingCustomer() {
+        // when
+        when(customerRepository.findByEmail("missing@test.com")).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(
+                UsernameNotFoundException.class,
+                () -> customerDetailsService.loadCachedCustomerByEmail("missing@test.com")
+        );
+    }
+
+    @Test
+    @DisplayName("Should revoke the tokens of a customer and evict it")
+    void shouldRevokeTokensAndEvictCustomer() {
+        // given
+        Customer customer = new Customer(1L, "customer@test.com", "password");
+
+        // when
+        when(customerRepository.findByEmail(customer.getEmail())).thenReturn(Optional.of(customer));
+        customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+        customerDetailsService.revokeTokens(customer.getId());
+        customerDetailsService.loadCachedCustomerByEmail(customer.getEmail());
+
+        // then
+        verify(tokenRevocationService, times(1)).revokeAll(customer.getId());
+        verify(customerRepository, times(2)).findByEmail(customer.getEmail());
+    }
+}
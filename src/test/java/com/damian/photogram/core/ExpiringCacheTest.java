@@ -0,0 +1,64 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.utils.ExpiringCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpiringCacheTest {
+
+    @Test
+    @DisplayName("Should get a value until it expires")
+    void shouldExpireValues() {
+        // given
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        final long now = System.currentTimeMillis();
+
+        // when
+        cache.put("alive", "value", now + 60_000);
+        cache.put("expired", "value", now - 1);
+
+        // then
+        assertThat(cache.get("alive")).isEqualTo("value");
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should never grow over its max size")
+    void shouldBeBounded() {
+        // given
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100);
+        final long expiresAt = System.currentTimeMillis() + 60_000;
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i, expiresAt);
+        }
+
+        // then
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get(999)).isEqualTo(999);
+    }
+
+    @Test
+    @DisplayName("Should invalidate values")
+    void shouldInvalidate() {
+        // given
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        final long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("a", "alice", expiresAt);
+        cache.put("b", "bob", expiresAt);
+        cache.put("c", "carol", expiresAt);
+
+        // when
+        cache.invalidate("a");
+        cache.invalidateIf((key, value) -> value.startsWith("b"));
+
+        // then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("carol");
+    }
+}
@@ -0,0 +1,220 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.core.service.ImageServingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ImageServingServiceTest {
+    private final byte[] content = "0123456789".getBytes();
+    private final CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+
+    @TempDir
+    private Path folder;
+
+    private Path image;
+
+    private ImageServingService imageServingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        image = Files.write(folder.resolve("photo.jpg"), content);
+
+        imageServingService = new ImageServingService();
+        ReflectionTestUtils.setField(imageServingService, "sendfile", true);
+        ReflectionTestUtils.setField(imageServingService, "metadataCacheTtl", 60_000L);
+        ReflectionTestUtils.setField(imageServingService, "metadataCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(imageServingService, "init");
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        imageServingService.serve(new FileSystemResource(image), cacheControl, request, response);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should send the whole image with its etag")
+    void shouldServeImage() throws IOException {
+        // when
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"));
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"").endsWith("\"");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(cacheControl.getHeaderValue());
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    @DisplayName("Should not send the image when the etag matches")
+    void shouldNotServeImageWhenNotModified() throws IOException {
+        // given
+        String etag = serve(new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+
+        // when
+        MockHttpServletResponse response = serve(request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Should change the etag when the image changes")
+    void shouldChangeEtagWhenImageChanges() throws IOException {
+        // given
+        String etag = serve(new MockHttpServletRequest("GET", "/")).getHeader(HttpHeaders.ETAG);
+        Files.write(image, "another image".getBytes());
+
+        // when
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"));
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(response.getContentAsString()).isEqualTo("another image");
+    }
+
+    @Test
+    @DisplayName("Should send the range requested")
+    void shouldServeRange() throws IOException {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+
+        // when
+        MockHttpServletResponse response = serve(request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should send the last bytes and the open ranges")
+    void shouldServeSuffixAndOpenRanges() throws IOException {
+        // given
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/");
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletRequest open = new MockHttpServletRequest("GET", "/");
+        open.addHeader(HttpHeaders.RANGE, "bytes=8-");
+
+        // when
+        MockHttpServletResponse suffixResponse = serve(suffix);
+        MockHttpServletResponse openResponse = serve(open);
+
+        // then
+        assertThat(suffixResponse.getContentAsString()).isEqualTo("789");
+        assertThat(openResponse.getContentAsString()).isEqualTo("89");
+        assertThat(openResponse.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+    }
+
+    @Test
+    @DisplayName("Should reject a range after the end of the image")
+    void shouldRejectUnsatisfiableRange() throws IOException {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-20");
+
+        // when
+        MockHttpServletResponse response = serve(request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    @DisplayName("Should send the whole image when the range is of another version")
+    void shouldIgnoreRangeOfAnotherVersion() throws IOException {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"old\"");
+
+        // when
+        MockHttpServletResponse response = serve(request);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("Should leave the body to sendfile when the connector supports it")
+    void shouldUseSendfile() throws IOException {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+
+        // when
+        MockHttpServletResponse response = serve(request);
+
+        // then
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(image.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should send the hot images from the cache")
+    void shouldServeImageFromCache() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageServingService, "contentCacheEnabled", true);
+        ReflectionTestUtils.setField(imageServingService, "contentCacheMaxBytes", 1024L);
+        ReflectionTestUtils.setField(imageServingService, "contentCacheMaxEntryBytes", 1024L);
+        ReflectionTestUtils.invokeMethod(imageServingService, "init");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+
+        // when
+        MockHttpServletResponse first = serve(new MockHttpServletRequest("GET", "/"));
+        MockHttpServletResponse second = serve(new MockHttpServletRequest("GET", "/"));
+        MockHttpServletResponse range = serve(request);
+
+        // then
+        assertThat(first.getContentAsByteArray()).isEqualTo(content);
+        assertThat(second.getContentAsByteArray()).isEqualTo(content);
+        assertThat(range.getContentAsString()).isEqualTo("234");
+        assertThat(imageServingService.getCacheMisses()).isEqualTo(1);
+        assertThat(imageServingService.getCacheHits()).isEqualTo(2);
+        assertThat(imageServingService.getCacheBytes()).isEqualTo(content.length);
+    }
+
+    @Test
+    @DisplayName("Should not serve a missing image")
+    void shouldNotServeMissingImage() throws IOException {
+        // given
+        Files.delete(image);
+
+        // then
+        assertThatThrownBy(() -> serve(new MockHttpServletRequest("GET", "/")))
+                .isInstanceOf(ImageNotFoundException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.app.images.repository.ImageUploadRepository;
+import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.core.service.ImageStorageService;
+import com.damian.photogram.core.service.ImageVariantService;
+import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageStorageServiceTest {
+    private final String filename = "ab".repeat(32) + ".jpg";
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @Mock
+    private ImageUploadRepository imageUploadRepository;
+
+    @InjectMocks
+    private ImageStorageService imageStorageService;
+
+    private Path object;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(imageStorageService, "orphanGrace", 60_000L);
+
+        object = imageStorageService.getContentAddressedPath(filename);
+        Files.createDirectories(object.getParent());
+        Files.write(object, new byte[]{1, 2, 3});
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(object);
+    }
+
+    @Test
+    @DisplayName("Should store content addressed images in two level folders")
+    void shouldShardContentAddressedImages() {
+        // when
+        Resource resource = imageStorageService.getImage("customers/1/posts/", filename);
+
+        // then
+        assertThat(object).isEqualTo(Path.of("uploads/images/objects/ab/ab/" + filename));
+        assertThat(resource.exists()).isTrue();
+        assertThat(ImageStorageService.isContentAddressed(filename)).isTrue();
+        assertThat(ImageStorageService.isContentAddressed("ab".repeat(32) + "_thumb.jpg")).isTrue();
+        assertThat(ImageStorageService.isContentAddressed("avatar.jpg")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should delete a content addressed image when nothing references it")
+    void shouldDeleteUnreferencedImage() {
+        // given
+        when(imageUploadRepository.lockByFilename(filename)).thenReturn(List.of(Instant.now().minusSeconds(120)));
+        when(postRepository.countByPhotoFilename(filename)).thenReturn(0L);
+        when(profileRepository.countByImageFilename(filename)).thenReturn(0L);
+
+        // when
+        imageStorageService.deleteImage("customers/1/posts/", filename);
+
+        // then
+        assertThat(object).doesNotExist();
+        verify(imageVariantService).deleteVariants(object);
+        verify(imageUploadRepository).deleteByFilename(filename);
+    }
+
+    @Test
+    @DisplayName("Should keep a content addressed image still referenced")
+    void shouldKeepReferencedImage() {
+        // given
+        when(postRepository.countByPhotoFilename(filename)).thenReturn(1L);
+        when(profileRepository.countByImageFilename(filename)).thenReturn(0L);
+
+        // when
+        imageStorageService.deleteImage("customers/1/posts/", filename);
+
+        // then
+        assertThat(object).exists();
+        verify(imageVariantService, never()).deleteVariants(any());
+    }
+
+    @Test
+    @DisplayName("Should keep a content addressed image uploaded recently")
+    void shouldKeepRecentlyUploadedImage() {
+        // given
+        when(imageUploadRepository.lockByFilename(filename)).thenReturn(List.of(Instant.now()));
+
+        // when
+        imageStorageService.deleteImage("customers/1/posts/", filename);
+
+        // then
+        assertThat(object).exists();
+        verify(imageUploadRepository, never()).deleteByFilename(anyString());
+    }
+
+    @Test
+    @DisplayName("Should sweep the content addressed images never referenced")
+    void shouldSweepOrphanImages() {
+        // given
+        when(imageUploadRepository.findOrphanFilenames(any(Instant.class))).thenReturn(List.of(filename));
+        when(imageUploadRepository.lockByFilename(filename)).thenReturn(List.of(Instant.now().minusSeconds(120)));
+        when(postRepository.countByPhotoFilename(filename)).thenReturn(0L);
+        when(profileRepository.countByImageFilename(filename)).thenReturn(0L);
+
+        // when
+        int deleted = imageStorageService.sweepOrphans();
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(object).doesNotExist();
+        verify(imageUploadRepository).deleteByFilename(filename);
+    }
+
+    @Test
+    @DisplayName("Should not sweep an orphan image uploaded again before it was locked")
+    void shouldNotSweepImageUploadedAgain() {
+        // given
+        when(imageUploadRepository.findOrphanFilenames(any(Instant.class))).thenReturn(List.of(filename));
+        // refreshed by the upload after the orphans were selected
+        when(imageUploadRepository.lockByFilename(filename)).thenReturn(List.of(Instant.now()));
+
+        // when
+        int deleted = imageStorageService.sweepOrphans();
+
+        // then
+        assertThat(deleted).isZero();
+        assertThat(object).exists();
+        verify(imageVariantService, never()).deleteVariants(any());
+    }
+
+    @Test
+    @DisplayName("Should only accept the content addressed images uploaded by the customer")
+    void shouldValidateUploader() {
+        // given
+        when(imageUploadRepository.existsByCustomerIdAndFilename(1L, filename)).thenReturn(true);
+        when(imageUploadRepository.existsByCustomerIdAndFilename(2L, filename)).thenReturn(false);
+
+        // when
+        imageStorageService.validateUploaderOrElseThrow(1L, filename);
+        imageStorageService.validateUploaderOrElseThrow(2L, "photo.jpg");
+
+        // then
+        assertThatThrownBy(() -> imageStorageService.validateUploaderOrElseThrow(2L, filename))
+                .isInstanceOf(ImageNotFoundException.class);
+    }
+}
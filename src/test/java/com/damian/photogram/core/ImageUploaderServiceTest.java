@@ -1,27 +1,59 @@
 package com.damian.photogram.core;
 
+import com.damian.photogram.app.images.ImageJobService;
+import com.damian.photogram.app.images.enums.ImageJobStatus;
+import com.damian.photogram.app.images.model.ImageJob;
+import com.damian.photogram.app.images.repository.ImageJobRepository;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.ImageEmptyFileException;
 import com.damian.photogram.core.exception.ImageFileSizeExceededException;
 import com.damian.photogram.core.exception.ImageTypeNotAllowedException;
+import com.damian.photogram.core.service.ImageStorageService;
 import com.damian.photogram.core.service.ImageUploaderService;
+import com.damian.photogram.core.service.ImageVariantService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ImageUploaderServiceTest {
 
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private ImageJobService imageJobService;
+
+    @Mock
+    private ImageStorageService imageStorageService;
+
+    @TempDir
+    private Path objectsFolder;
+
     @InjectMocks
     private ImageUploaderService imageUploaderService;
 
@@ -44,9 +76,177 @@ public class ImageUploaderServiceTest {
         // then
         assertNotNull(filename);
         assertEquals(filename, givenFile.getName());
+        verify(imageVariantService).deleteVariants(Path.of("uploads/images/posts/" + filename));
+        verify(imageJobService).enqueue(Path.of("uploads/images/posts/" + filename));
         Files.deleteIfExists(Path.of("./uploads/images/posts/" + filename));
     }
 
+    @Test
+    @DisplayName("Should store identical images once when content addressed")
+    void shouldStoreIdenticalImagesOnce() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageUploaderService, "contentAddressed", true);
+        when(imageStorageService.getContentAddressedRoot()).thenReturn(objectsFolder);
+        when(imageStorageService.getContentAddressedPath(anyString())).thenAnswer(
+                invocation -> objectsFolder.resolve(invocation.<String>getArgument(0))
+        );
+        MultipartFile givenFile = new MockMultipartFile("file", "photo.JPG", "image/jpeg", new byte[]{1, 2, 3});
+        MultipartFile givenRepost = new MockMultipartFile("file", "repost.jpg", "image/jpeg", new byte[]{1, 2, 3});
+
+        // when
+        String filename = imageUploaderService.uploadImage(givenFile, "posts");
+        String repostFilename = imageUploaderService.uploadImage(givenRepost, "other");
+
+        // then
+        assertTrue(filename.matches("[0-9a-f]{64}\\.jpg"));
+        assertTrue(ImageStorageService.isContentAddressed(filename));
+        assertEquals(filename, repostFilename);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(objectsFolder.resolve(filename)));
+        verify(imageJobService, times(1)).enqueue(any(Path.class));
+        verify(imageVariantService, never()).deleteVariants(any());
+    }
+
+    @Test
+    @DisplayName("Should store the image again when it was deleted while being reused")
+    void shouldStoreAgainImageDeletedWhileReused() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageUploaderService, "contentAddressed", true);
+        when(imageStorageService.getContentAddressedRoot()).thenReturn(objectsFolder);
+        when(imageStorageService.getContentAddressedPath(anyString())).thenAnswer(
+                invocation -> objectsFolder.resolve(invocation.<String>getArgument(0))
+        );
+        MultipartFile givenFile = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        String filename = imageUploaderService.uploadImage(givenFile, "posts");
+
+        // a release of the image was holding its uploads, it finished before the refresh
+        doAnswer(invocation -> Files.deleteIfExists(objectsFolder.resolve(filename)))
+                .when(imageStorageService).retain(filename);
+
+        // when
+        String repostFilename = imageUploaderService.uploadImage(givenFile, "posts");
+
+        // then
+        assertEquals(filename, repostFilename);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(objectsFolder.resolve(filename)));
+        verify(imageJobService, times(2)).enqueue(objectsFolder.resolve(filename));
+    }
+
+    @Test
+    @DisplayName("Should generate again the variants of a reused image when they failed")
+    void shouldRetryVariantsOfReusedImage() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageUploaderService, "contentAddressed", true);
+        when(imageStorageService.getContentAddressedRoot()).thenReturn(objectsFolder);
+        when(imageStorageService.getContentAddressedPath(anyString())).thenAnswer(
+                invocation -> objectsFolder.resolve(invocation.<String>getArgument(0))
+        );
+        MultipartFile givenFile = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        String filename = imageUploaderService.uploadImage(givenFile, "posts");
+        when(imageJobService.getStatus(objectsFolder.resolve(filename))).thenReturn(ImageJobStatus.FAILED);
+
+        // when
+        imageUploaderService.uploadImage(givenFile, "posts");
+
+        // then
+        verify(imageJobService, times(2)).enqueue(objectsFolder.resolve(filename));
+    }
+
+    @Test
+    @DisplayName("Should queue again the variants of a reused image after its job failed")
+    void shouldQueueReusedImageAfterFailedJob() throws IOException {
+        // given
+        ImageJobRepository imageJobRepository = mock(ImageJobRepository.class);
+        ImageVariantService realVariantService = new ImageVariantService();
+        ReflectionTestUtils.setField(realVariantService, "enabled", true);
+        ReflectionTestUtils.setField(realVariantService, "maxPixels", 40_000_000L);
+        ImageJobService realJobService = new ImageJobService(imageJobRepository, realVariantService);
+        ReflectionTestUtils.setField(realJobService, "threads", 1);
+        ReflectionTestUtils.setField(realJobService, "queueSize", 10);
+        ReflectionTestUtils.setField(realJobService, "maxAttempts", 1);
+        ReflectionTestUtils.invokeMethod(realJobService, "init");
+
+        // the repository keeps the jobs in a list, claiming one counts an attempt
+        List<ImageJob> jobs = new CopyOnWriteArrayList<>();
+        when(imageJobRepository.save(any(ImageJob.class))).thenAnswer(invocation -> {
+            ImageJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId((long) jobs.size() + 1);
+                jobs.add(job);
+            }
+            return job;
+        });
+        when(imageJobRepository.findById(any())).thenAnswer(
+                invocation -> Optional.of(jobs.get(invocation.<Long>getArgument(0).intValue() - 1))
+        );
+        when(imageJobRepository.claim(any(), any(Instant.class))).thenAnswer(invocation -> {
+            ImageJob job = jobs.get(invocation.<Long>getArgument(0).intValue() - 1);
+            job.setAttempts(job.getAttempts() + 1);
+            return 1;
+        });
+        when(imageJobRepository.findFirstByPathOrderByIdDesc(anyString())).thenAnswer(
+                invocation -> jobs.isEmpty() ? Optional.empty() : Optional.of(jobs.get(jobs.size() - 1))
+        );
+
+        ImageUploaderService uploader = new ImageUploaderService(realVariantService, realJobService, imageStorageService);
+        ReflectionTestUtils.setField(uploader, "contentAddressed", true);
+        when(imageStorageService.getContentAddressedRoot()).thenReturn(objectsFolder);
+        when(imageStorageService.getContentAddressedPath(anyString())).thenAnswer(
+                invocation -> objectsFolder.resolve(invocation.<String>getArgument(0))
+        );
+
+        // a jpeg cut after its header, its variants can not be generated
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+        byte[] corrupt = Arrays.copyOf(jpeg.toByteArray(), 400);
+        Arrays.fill(corrupt, 200, 400, (byte) 0xFF);
+        MultipartFile givenFile = new MockMultipartFile("file", "photo.jpg", "image/jpeg", corrupt);
+
+        try {
+            // when
+            String filename = uploader.uploadImage(givenFile, "posts");
+            verify(imageJobRepository, timeout(1000).times(2)).save(any(ImageJob.class));
+            ImageJobStatus firstStatus = realJobService.getStatus(objectsFolder.resolve(filename));
+            uploader.uploadImage(givenFile, "posts");
+
+            // then
+            assertEquals(ImageJobStatus.FAILED, firstStatus);
+            assertEquals(2, jobs.size());
+            verify(imageJobRepository, timeout(1000).times(4)).save(any(ImageJob.class));
+        } finally {
+            ReflectionTestUtils.invokeMethod(realJobService, "shutdown");
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the status of the variants of an uploaded image")
+    void shouldGetVariantsStatus() {
+        // given
+        Path path = Path.of("uploads/images/objects/ab/cd/abcd.jpg");
+        when(imageStorageService.resolve("posts", "abcd.jpg")).thenReturn(path);
+        when(imageJobService.getStatus(path)).thenReturn(ImageJobStatus.DONE);
+
+        // then
+        assertEquals(ImageJobStatus.DONE, imageUploaderService.getVariantsStatus("posts", "abcd.jpg"));
+    }
+
+    @Test
+    @DisplayName("Should name content addressed images by the content type, not the client extension")
+    void shouldTakeExtensionFromContentType() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageUploaderService, "contentAddressed", true);
+        when(imageStorageService.getContentAddressedRoot()).thenReturn(objectsFolder);
+        when(imageStorageService.getContentAddressedPath(anyString())).thenAnswer(
+                invocation -> objectsFolder.resolve(invocation.<String>getArgument(0))
+        );
+        MultipartFile givenFile = new MockMultipartFile("file", "photo.html", "image/webp", new byte[]{4, 5, 6});
+
+        // when
+        String filename = imageUploaderService.uploadImage(givenFile, "posts");
+
+        // then
+        assertTrue(filename.matches("[0-9a-f]{64}\\.webp"));
+    }
+
     @Test
     @DisplayName("Should not upload image when file is empty")
     void shouldNotUploadImageWhenFileIsEmpty() {
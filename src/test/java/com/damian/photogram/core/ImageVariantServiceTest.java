@@ -0,0 +1,150 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.exception.ImageVariantNotValidException;
+import com.damian.photogram.core.service.ImageVariant;
+import com.damian.photogram.core.service.ImageVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ImageVariantServiceTest {
+
+    @TempDir
+    private Path folder;
+
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantService();
+        ReflectionTestUtils.setField(imageVariantService, "enabled", true);
+        ReflectionTestUtils.setField(imageVariantService, "maxPixels", 40_000_000L);
+        ReflectionTestUtils.setField(imageVariantService, "quality", 0.8f);
+    }
+
+    private Path givenImage(String filename, int width, int height) throws IOException {
+        Path path = folder.resolve(filename);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", path.toFile());
+        return path;
+    }
+
+    @Test
+    @DisplayName("Should generate the variants scaled down to their size")
+    void shouldGenerateVariants() throws IOException {
+        // given
+        Path original = givenImage("photo.jpg", 2000, 1000);
+
+        // when
+        int written = imageVariantService.generateVariants(original);
+
+        // then
+        assertThat(written).isEqualTo(ImageVariant.values().length);
+        BufferedImage thumb = ImageIO.read(folder.resolve("photo_thumb.jpg").toFile());
+        BufferedImage medium = ImageIO.read(folder.resolve("photo_medium.jpg").toFile());
+        BufferedImage full = ImageIO.read(folder.resolve("photo_full.jpg").toFile());
+        assertThat(thumb.getWidth()).isEqualTo(320);
+        assertThat(thumb.getHeight()).isEqualTo(160);
+        assertThat(medium.getWidth()).isEqualTo(720);
+        assertThat(full.getWidth()).isEqualTo(1080);
+    }
+
+    @Test
+    @DisplayName("Should not scale up images smaller than the variant")
+    void shouldNotScaleUpSmallImages() throws IOException {
+        // given
+        Path original = givenImage("photo.jpg", 500, 400);
+
+        // when
+        imageVariantService.generateVariants(original);
+
+        // then
+        BufferedImage full = ImageIO.read(folder.resolve("photo_full.jpg").toFile());
+        BufferedImage thumb = ImageIO.read(folder.resolve("photo_thumb.jpg").toFile());
+        assertThat(full.getWidth()).isEqualTo(500);
+        assertThat(full.getHeight()).isEqualTo(400);
+        assertThat(thumb.getWidth()).isEqualTo(320);
+        assertThat(thumb.getHeight()).isEqualTo(256);
+    }
+
+    @Test
+    @DisplayName("Should not generate variants when the image can not be decoded")
+    void shouldSkipUndecodableImages() throws IOException {
+        // given
+        Path original = folder.resolve("photo.webp");
+        Files.write(original, new byte[5]);
+
+        // when
+        int written = imageVariantService.generateVariants(original);
+
+        // then
+        assertThat(written).isZero();
+        assertThat(Files.list(folder)).containsExactly(original);
+    }
+
+    @Test
+    @DisplayName("Should fail and leave no variants when the image is corrupt or missing")
+    void shouldFailOnUnreadableImages() throws IOException {
+        // given
+        Path original = givenImage("photo.jpg", 200, 200);
+        byte[] corrupt = Arrays.copyOf(Files.readAllBytes(original), 400);
+        Arrays.fill(corrupt, 200, 400, (byte) 0xFF);
+        Files.write(original, corrupt);
+
+        // then
+        assertThatThrownBy(() -> imageVariantService.generateVariants(original)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> imageVariantService.generateVariants(folder.resolve("missing.jpg")))
+                .isInstanceOf(IOException.class);
+        assertThat(Files.list(folder)).containsExactly(original);
+    }
+
+    @Test
+    @DisplayName("Should not generate variants when the image has too many pixels")
+    void shouldSkipTooLargeImages() throws IOException {
+        // given
+        ReflectionTestUtils.setField(imageVariantService, "maxPixels", 100L);
+        Path original = givenImage("photo.jpg", 20, 20);
+
+        // when
+        int written = imageVariantService.generateVariants(original);
+
+        // then
+        assertThat(written).isZero();
+        assertThat(folder.resolve("photo_thumb.jpg")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should delete the variants of an image")
+    void shouldDeleteVariants() throws IOException {
+        // given
+        Path original = givenImage("photo.jpg", 400, 400);
+        imageVariantService.generateVariants(original);
+
+        // when
+        imageVariantService.deleteVariants(original);
+
+        // then
+        assertThat(Files.list(folder)).containsExactly(original);
+    }
+
+    @Test
+    @DisplayName("Should get the variant from the size parameter")
+    void shouldGetVariantFromParam() {
+        assertThat(ImageVariant.fromParam(null)).isNull();
+        assertThat(ImageVariant.fromParam("Thumb")).isEqualTo(ImageVariant.THUMB);
+        assertThat(ImageVariant.THUMB.filename("avatar.webp")).isEqualTo("avatar_thumb.jpg");
+        assertThatThrownBy(() -> ImageVariant.fromParam("huge"))
+                .isInstanceOf(ImageVariantNotValidException.class);
+    }
+}
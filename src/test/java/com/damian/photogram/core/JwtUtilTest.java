@@ -0,0 +1,104 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.security.CustomerPrincipal;
+import com.damian.photogram.core.utils.JwtUtil;
+import com.damian.photogram.domain.account.enums.AccountStatus;
+import com.damian.photogram.domain.customer.enums.CustomerRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtUtilTest {
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "THIS-IS-A-BIG-SECRET!-KEEP-IT-SAFE-THIS-IS-A-BIG-SECRET");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 100);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and reuse its claims")
+    void shouldCacheVerifiedClaims() {
+        // given
+        String token = jwtUtil.generateToken(Map.of(), "customer@test.com");
+
+        // when
+        Claims first = jwtUtil.getVerifiedClaims(token);
+        Claims second = jwtUtil.getVerifiedClaims(token);
+
+        // then
+        assertThat(first.getSubject()).isEqualTo("customer@test.com");
+        assertThat(second).isSameAs(first);
+        assertThat(jwtUtil.extractEmail(token)).isEqualTo("customer@test.com");
+    }
+
+    @Test
+    @DisplayName("Should build the principal from the claims of a token")
+    void shouldBuildPrincipalFromClaims() {
+        // given
+        String token = jwtUtil.generateToken(
+                Map.of(
+                        JwtUtil.CLAIM_CUSTOMER_ID, 7L,
+                        JwtUtil.CLAIM_ROLE, CustomerRole.CUSTOMER.name(),
+                        JwtUtil.CLAIM_STATUS, AccountStatus.VERIFIED.name()
+                ),
+                "customer@test.com"
+        );
+
+        // when
+        CustomerPrincipal principal = jwtUtil.getPrincipal(jwtUtil.getVerifiedClaims(token));
+
+        // then
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getEmail()).isEqualTo("customer@test.com");
+        assertThat(principal.getRole()).isEqualTo(CustomerRole.CUSTOMER);
+        assertThat(principal.getAccountStatus()).isEqualTo(AccountStatus.VERIFIED);
+    }
+
+    @Test
+    @DisplayName("Should not build the principal from a token without the customer claims")
+    void shouldNotBuildPrincipalWithoutClaims() {
+        // given
+        String token = jwtUtil.generateToken(Map.of(), "customer@test.com");
+
+        // then
+        assertThat(jwtUtil.getPrincipal(jwtUtil.getVerifiedClaims(token))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not verify an expired token")
+    void shouldNotVerifyExpiredToken() {
+        // given
+        String token = jwtUtil.generateToken("customer@test.com", new Date(System.currentTimeMillis() - 1000));
+
+        // then
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.getVerifiedClaims(token));
+        assertThat(jwtUtil.isTokenExpired(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not verify a token with a tampered signature")
+    void shouldNotVerifyTamperedToken() {
+        // given
+        String token = jwtUtil.generateToken(Map.of(), "customer@test.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // then
+        assertThrows(JwtException.class, () -> jwtUtil.getVerifiedClaims(tampered));
+        assertThat(jwtUtil.isTokenValid(tampered)).isFalse();
+    }
+}
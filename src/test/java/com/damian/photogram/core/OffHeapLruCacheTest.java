@@ -0,0 +1,97 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.utils.OffHeapLruCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OffHeapLruCacheTest {
+
+    private ByteBuffer givenContent(int length) {
+        ByteBuffer content = ByteBuffer.allocateDirect(length);
+        for (int i = 0; i < length; i++) {
+            content.put((byte) i);
+        }
+        return content.flip();
+    }
+
+    @Test
+    @DisplayName("Should return a read only view of the content cached")
+    void shouldGetCachedContent() {
+        // given
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(100);
+        cache.put("a", givenContent(10));
+
+        // when
+        ByteBuffer content = cache.get("a");
+        content.position(5);
+
+        // then
+        assertThat(content.isReadOnly()).isTrue();
+        assertThat(content.isDirect()).isTrue();
+        assertThat(cache.get("a").remaining()).isEqualTo(10);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getBytes()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entries to keep the budget")
+    void shouldEvictLeastRecentlyUsed() {
+        // given
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(30);
+        cache.put("a", givenContent(10));
+        cache.put("b", givenContent(10));
+        cache.put("c", givenContent(10));
+        cache.get("a");
+
+        // when
+        cache.put("d", givenContent(15));
+
+        // then
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNull();
+        assertThat(cache.get("d")).isNotNull();
+        assertThat(cache.getEvictions()).isEqualTo(2);
+        assertThat(cache.getBytes()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should not cache contents larger than the budget")
+    void shouldNotCacheContentLargerThanBudget() {
+        // given
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(10);
+        cache.put("a", givenContent(5));
+
+        // when
+        boolean cached = cache.put("b", givenContent(11));
+
+        // then
+        assertThat(cached).isFalse();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep an evicted content valid for its readers")
+    void shouldKeepEvictedContentForReaders() {
+        // given
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(10);
+        cache.put("a", givenContent(10));
+        ByteBuffer reading = cache.get("a");
+
+        // when
+        cache.put("b", givenContent(10));
+        cache.invalidate("b");
+
+        // then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.getBytes()).isZero();
+        assertThat(reading.get(9)).isEqualTo((byte) 9);
+    }
+}
@@ -0,0 +1,98 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.TooManyPasswordAttemptsException;
+import com.damian.photogram.core.security.PasswordAttemptThrottle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PasswordAttemptThrottleTest {
+    private PasswordAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new PasswordAttemptThrottle();
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "emailCapacity", 3);
+        ReflectionTestUtils.setField(throttle, "emailRefillPeriod", 60_000L);
+        ReflectionTestUtils.setField(throttle, "ipEnabled", true);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 5);
+        ReflectionTestUtils.setField(throttle, "ipRefillPeriod", 60_000L);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 100);
+    }
+
+    @Test
+    @DisplayName("Should reject the attempts of an email over its capacity")
+    void shouldThrottleEmail() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("customer@test.com", null);
+        }
+
+        // when
+        TooManyPasswordAttemptsException exception = assertThrows(
+                TooManyPasswordAttemptsException.class,
+                () -> throttle.acquire("CUSTOMER@test.com", null)
+        );
+
+        // then
+        assertEquals(Exceptions.PASSWORD.TOO_MANY_ATTEMPTS, exception.getMessage());
+        assertDoesNotThrow(() -> throttle.acquire("other@test.com", null));
+    }
+
+    @Test
+    @DisplayName("Should reject the attempts of an ip over its capacity for any email")
+    void shouldThrottleIp() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("customer" + i + "@test.com", "10.0.0.1");
+        }
+
+        // then
+        assertThrows(
+                TooManyPasswordAttemptsException.class,
+                () -> throttle.acquire("new@test.com", "10.0.0.1")
+        );
+        assertDoesNotThrow(() -> throttle.acquire("new@test.com", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should not throttle the ip when its bucket is disabled")
+    void shouldNotThrottleIpWhenDisabled() {
+        // given
+        ReflectionTestUtils.setField(throttle, "ipEnabled", false);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            throttle.acquire("customer" + i + "@test.com", "10.0.0.1");
+        }
+
+        // then
+        assertThat(throttle.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should drop only the buckets refilled completely")
+    void shouldPruneFullBuckets() throws InterruptedException {
+        // given
+        ReflectionTestUtils.setField(throttle, "emailRefillPeriod", 1L);
+        throttle.acquire("customer@test.com", "10.0.0.1");
+
+        // the email bucket refills in a milli
+        Thread.sleep(10);
+
+        // when
+        int pruned = throttle.prune();
+
+        // then
+        assertThat(pruned).isEqualTo(1);
+        assertThat(throttle.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.security.PasswordAttemptThrottle;
+import com.damian.photogram.core.service.PasswordVerifier;
+import com.damian.photogram.domain.customer.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordVerifierTest {
+    private final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(4);
+
+    @Mock
+    private PasswordAttemptThrottle passwordAttemptThrottle;
+
+    private PasswordVerifier passwordVerifier;
+
+    @BeforeEach
+    void setUp() {
+        passwordVerifier = new PasswordVerifier(bCryptPasswordEncoder, passwordAttemptThrottle);
+        ReflectionTestUtils.setField(passwordVerifier, "threads", 2);
+        ReflectionTestUtils.setField(passwordVerifier, "queueSize", 10);
+        ReflectionTestUtils.setField(passwordVerifier, "timeout", 5000L);
+        ReflectionTestUtils.invokeMethod(passwordVerifier, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(passwordVerifier, "shutdown");
+    }
+
+    @Test
+    @DisplayName("Should encode and match passwords on the pool")
+    void shouldMatchPassword() {
+        // when
+        String encoded = passwordVerifier.encode("123456");
+
+        // then
+        assertThat(passwordVerifier.matches("123456", encoded)).isTrue();
+        assertThat(passwordVerifier.matches("654321", encoded)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should validate the password of a customer counting the attempt")
+    void shouldValidatePassword() {
+        // given
+        Customer customer = new Customer(1L, "customer@test.com", bCryptPasswordEncoder.encode("123456"));
+
+        // then
+        assertDoesNotThrow(() -> passwordVerifier.validatePassword(customer, "123456"));
+        assertThrows(
+                PasswordMismatchException.class,
+                () -> passwordVerifier.validatePassword(customer, "wrong")
+        );
+        verify(passwordAttemptThrottle, times(2)).acquire(customer.getEmail(), null);
+    }
+}
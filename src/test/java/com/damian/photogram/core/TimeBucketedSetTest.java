@@ -0,0 +1,65 @@
+package com.damian.photogram.core;
+
+import com.damian.photogram.core.utils.TimeBucketedSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeBucketedSetTest {
+
+    @Test
+    @DisplayName("Should contain the keys added until they expire")
+    void shouldContainAddedKeys() {
+        // given
+        TimeBucketedSet<String> set = new TimeBucketedSet<>(1000);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        // when
+        boolean added = set.add("jti-1", expiresAt);
+        boolean addedAgain = set.add("jti-1", expiresAt);
+
+        // then
+        assertThat(added).isTrue();
+        assertThat(addedAgain).isFalse();
+        assertThat(set.contains("jti-1", expiresAt)).isTrue();
+        assertThat(set.contains("jti-2", expiresAt)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not add keys already expired")
+    void shouldNotAddExpiredKeys() {
+        // given
+        TimeBucketedSet<String> set = new TimeBucketedSet<>(1000);
+        long expiresAt = System.currentTimeMillis() - 1;
+
+        // when
+        boolean added = set.add("jti-1", expiresAt);
+
+        // then
+        assertThat(added).isFalse();
+        assertThat(set.contains("jti-1", expiresAt)).isFalse();
+        assertThat(set.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop the buckets where every key has expired")
+    void shouldPruneExpiredBuckets() {
+        // given
+        TimeBucketedSet<String> set = new TimeBucketedSet<>(1000);
+        long now = System.currentTimeMillis();
+        set.add("jti-1", now + 10_000);
+        set.add("jti-2", now + 10_500);
+        set.add("jti-3", now + 60_000);
+
+        // when
+        int pruned = set.prune(now + 30_000);
+
+        // then
+        assertThat(pruned).isEqualTo(2);
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.contains("jti-1", now + 10_000)).isFalse();
+        assertThat(set.contains("jti-3", now + 60_000)).isTrue();
+    }
+}
@@ -1,7 +1,9 @@
 package com.damian.photogram.domain.account;
 
+import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.domain.account.dto.request.AccountPasswordResetRequest;
 import com.damian.photogram.domain.account.dto.request.AccountPasswordResetSetRequest;
 import com.damian.photogram.domain.account.dto.request.AccountPasswordUpdateRequest;
@@ -42,6 +44,12 @@ public class AccountPasswordServiceTest {
 
     private final String RAW_PASSWORD = "123456";
 
+    @Mock
+    private CustomerDetailsService customerDetailsService;
+
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -104,12 +112,14 @@ public class AccountPasswordServiceTest {
         setUpContext(customer);
 
         // when
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
         when(bCryptPasswordEncoder.encode(rawNewPassword)).thenReturn(encodedNewPassword);
         when(accountRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getAccount()));
         accountPasswordService.updatePassword(updateRequest);
 
         // then
         verify(accountRepository, times(1)).save(customer.getAccount());
+        verify(customerDetailsService, times(1)).revokeTokens(customer.getId());
         assertThat(customer.getPassword()).isEqualTo(encodedNewPassword);
     }
 
@@ -132,6 +142,9 @@ public class AccountPasswordServiceTest {
         );
 
         // when
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        doThrow(new PasswordMismatchException(PasswordMismatchException.PASSWORD_MISMATCH))
+                .when(passwordVerifier).validatePassword(customer, updateRequest.currentPassword());
         PasswordMismatchException exception = assertThrows(
                 PasswordMismatchException.class,
                 () -> accountPasswordService.updatePassword(
@@ -160,6 +173,7 @@ public class AccountPasswordServiceTest {
                 "1234678Ax$"
         );
 
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
         when(accountRepository.findByCustomer_Id(customer.getId()))
                 .thenReturn(Optional.empty());
 
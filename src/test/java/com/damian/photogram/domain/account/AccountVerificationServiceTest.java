@@ -1,5 +1,6 @@
 package com.damian.photogram.domain.account;
 
+import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.domain.account.enums.AccountStatus;
 import com.damian.photogram.domain.account.enums.AccountTokenType;
 import com.damian.photogram.domain.account.exception.*;
@@ -36,6 +37,9 @@ public class AccountVerificationServiceTest {
 
     private final String RAW_PASSWORD = "123456";
 
+    @Mock
+    private CustomerDetailsService customerDetailsService;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -86,6 +90,7 @@ public class AccountVerificationServiceTest {
         //        verify(accountRepository, times(1)).save(customer.getAccount());
         assertThat(activationToken.isUsed()).isEqualTo(true);
         assertThat(customer.getAccount().getAccountStatus()).isEqualTo(AccountStatus.VERIFIED);
+        verify(customerDetailsService, times(1)).evict(customer.getId());
     }
 
     @Test
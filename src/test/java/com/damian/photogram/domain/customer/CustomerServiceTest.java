@@ -1,7 +1,9 @@
 package com.damian.photogram.domain.customer;
 
+import com.damian.photogram.core.service.CustomerDetailsService;
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.domain.account.dto.request.AccountRegistrationRequest;
 import com.damian.photogram.domain.customer.dto.request.CustomerEmailUpdateRequest;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
@@ -40,6 +42,12 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class CustomerServiceTest {
 
+    @Mock
+    private CustomerDetailsService customerDetailsService;
+
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -199,6 +207,7 @@ public class CustomerServiceTest {
 
         // then
         verify(customerRepository, times(1)).deleteById(id);
+        verify(customerDetailsService, times(1)).revokeTokens(id);
         verify(customerRepository).deleteById(id);
         assertThat(isDeleted).isTrue();
     }
@@ -250,6 +259,7 @@ public class CustomerServiceTest {
 
         // then
         verify(customerRepository, times(1)).save(customer);
+        verify(customerDetailsService, times(1)).revokeTokens(customer.getId());
         assertThat(customer.getEmail()).isEqualTo(updateRequest.newEmail());
         assertThat(customer.getPassword()).isEqualTo(currentEncodedPassword);
     }
@@ -276,6 +286,9 @@ public class CustomerServiceTest {
         );
 
         // when
+        when(customerRepository.findById(customer.getId())).thenReturn(Optional.of(customer));
+        doThrow(new PasswordMismatchException(PasswordMismatchException.PASSWORD_MISMATCH))
+                .when(passwordVerifier).validatePassword(customer, updateRequest.currentPassword());
         PasswordMismatchException exception = assertThrows(
                 PasswordMismatchException.class,
                 () -> customerService.updateEmail(updateRequest)
@@ -0,0 +1,145 @@
+package com.damian.photogram.domain.customer;
+
+import com.damian.photogram.domain.customer.model.CustomerStats;
+import com.damian.photogram.domain.customer.repository.CustomerStatsRepository;
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
+import com.damian.photogram.domain.post.repository.PostRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerStatsServiceTest {
+
+    @Mock
+    private CustomerStatsRepository customerStatsRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @InjectMocks
+    private CustomerStatsService customerStatsService;
+
+    @Test
+    @DisplayName("Should get stats from counters row")
+    void shouldGetStats() {
+        // given
+        CustomerStats stats = new CustomerStats(1L)
+                .setPosts(3L)
+                .setFollowers(5L)
+                .setFollowing(7L);
+
+        // when
+        when(customerStatsRepository.findById(stats.getCustomerId())).thenReturn(Optional.of(stats));
+        CustomerStats result = customerStatsService.getStats(stats.getCustomerId());
+
+        // then
+        assertThat(result)
+                .extracting(CustomerStats::getPosts, CustomerStats::getFollowers, CustomerStats::getFollowing)
+                .containsExactly(3L, 5L, 7L);
+        verify(postRepository, never()).countByAuthorId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should recount stats when counters row not found")
+    void shouldRecountStatsWhenNotFound() {
+        // given
+        Long customerId = 1L;
+
+        // when
+        when(customerStatsRepository.findById(customerId)).thenReturn(Optional.empty());
+        when(postRepository.countByAuthorId(customerId)).thenReturn(2L);
+        when(followRepository.countFollowersFromCustomer(customerId)).thenReturn(4L);
+        when(followRepository.countFollowsFromCustomer(customerId)).thenReturn(6L);
+        when(customerStatsRepository.insertIfAbsent(customerId, 2L, 4L, 6L)).thenReturn(1);
+
+        CustomerStats result = customerStatsService.getStats(customerId);
+
+        // then
+        assertThat(result)
+                .extracting(CustomerStats::getPosts, CustomerStats::getFollowers, CustomerStats::getFollowing)
+                .containsExactly(2L, 4L, 6L);
+        verify(customerStatsRepository, times(1)).insertIfAbsent(customerId, 2L, 4L, 6L);
+    }
+
+    @Test
+    @DisplayName("Should increment posts counter")
+    void shouldIncrementPosts() {
+        // given
+        Long customerId = 1L;
+
+        // when
+        when(customerStatsRepository.incrementPosts(customerId, 1)).thenReturn(1);
+        customerStatsService.incrementPosts(customerId, 1);
+
+        // then
+        verify(customerStatsRepository, times(1)).incrementPosts(customerId, 1);
+        verify(customerStatsRepository, never()).insertIfAbsent(anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should recount when incrementing a missing counters row")
+    void shouldRecountWhenIncrementingMissingRow() {
+        // given
+        Long customerId = 1L;
+
+        // when
+        when(customerStatsRepository.incrementFollowers(customerId, 1)).thenReturn(0);
+        when(followRepository.countFollowersFromCustomer(customerId)).thenReturn(1L);
+        when(customerStatsRepository.insertIfAbsent(customerId, 0L, 1L, 0L)).thenReturn(1);
+        customerStatsService.incrementFollowers(customerId, 1);
+
+        // then
+        verify(customerStatsRepository, times(1)).insertIfAbsent(customerId, 0L, 1L, 0L);
+        verify(customerStatsRepository, times(1)).incrementFollowers(customerId, 1);
+    }
+
+    @Test
+    @DisplayName("Should increment again when another transaction created the counters row")
+    void shouldIncrementAgainWhenRowCreatedConcurrently() {
+        // given
+        Long customerId = 1L;
+
+        // when
+        when(customerStatsRepository.incrementFollowers(customerId, 1)).thenReturn(0, 1);
+        when(customerStatsRepository.insertIfAbsent(anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0);
+        customerStatsService.incrementFollowers(customerId, 1);
+
+        // then
+        verify(customerStatsRepository, times(2)).incrementFollowers(customerId, 1);
+    }
+
+    @Test
+    @DisplayName("Should lock each drifted counters row before recounting it")
+    void shouldLockDriftedRowsBeforeRepair() {
+        // given
+        when(customerStatsRepository.insertMissing()).thenReturn(1);
+        when(customerStatsRepository.findDriftedCustomerIds()).thenReturn(List.of(1L, 2L));
+        when(customerStatsRepository.repairDrift(anyLong())).thenReturn(1);
+
+        // when
+        int result = customerStatsService.reconcile();
+
+        // then
+        assertThat(result).isEqualTo(3);
+        InOrder inOrder = inOrder(customerStatsRepository);
+        inOrder.verify(customerStatsRepository).lockById(1L);
+        inOrder.verify(customerStatsRepository).repairDrift(1L);
+        inOrder.verify(customerStatsRepository).lockById(2L);
+        inOrder.verify(customerStatsRepository).repairDrift(2L);
+    }
+}
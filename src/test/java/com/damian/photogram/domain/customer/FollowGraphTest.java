@@ -0,0 +1,134 @@
+package com.damian.photogram.domain.customer;
+
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.service.FollowGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FollowGraphTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @InjectMocks
+    private FollowGraph followGraph;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(followGraph, "enabled", true);
+    }
+
+    FollowRepository.FollowEdge edge(Long id, Long followerId, Long followedId) {
+        FollowRepository.FollowEdge edge = mock(FollowRepository.FollowEdge.class);
+        when(edge.getId()).thenReturn(id);
+        when(edge.getFollowerId()).thenReturn(followerId);
+        when(edge.getFollowedId()).thenReturn(followedId);
+        return edge;
+    }
+
+    void load(FollowRepository.FollowEdge... edges) {
+        when(followRepository.findEdgesAfter(0L, Limit.of(10_000))).thenReturn(List.of(edges));
+        followGraph.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should not be ready until loaded")
+    void shouldNotBeReadyBeforeRebuild() {
+        // then
+        assertThat(followGraph.isReady()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should load the follows from the database")
+    void shouldRebuildFromDatabase() {
+        // given
+        load(
+                edge(1L, 1L, 2L),
+                edge(2L, 3L, 2L),
+                edge(3L, 2L, 1L)
+        );
+
+        // then
+        assertThat(followGraph.isReady()).isTrue();
+        assertThat(followGraph.isFollowing(1L, 2L)).isTrue();
+        assertThat(followGraph.isFollowing(2L, 3L)).isFalse();
+        assertThat(followGraph.countFollowers(2L)).isEqualTo(2);
+        assertThat(followGraph.countFollowing(2L)).isEqualTo(1);
+        assertThat(followGraph.getFollowers(2L)).containsExactly(1L, 3L);
+        assertThat(followGraph.countFollowers(99L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should add and remove follows")
+    void shouldFollowAndUnfollow() {
+        // given
+        load();
+
+        // when
+        followGraph.follow(5L, 6L);
+        followGraph.follow(5L, 6L);
+        followGraph.follow(5L, 4L);
+        followGraph.unfollow(5L, 6L);
+
+        // then
+        assertThat(followGraph.isFollowing(5L, 6L)).isFalse();
+        assertThat(followGraph.getFollowing(5L)).containsExactly(4L);
+        assertThat(followGraph.countFollowers(6L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the follows sorted when many are added")
+    void shouldGrowAdjacency() {
+        // given
+        load();
+
+        // when
+        for (long id = 1000; id > 1; id--) {
+            followGraph.follow(1L, id);
+            followGraph.follow(id, 1L);
+        }
+
+        // then
+        long[] following = followGraph.getFollowing(1L);
+        assertThat(following).hasSize(999);
+        assertThat(following[0]).isEqualTo(2L);
+        assertThat(following[998]).isEqualTo(1000L);
+        assertThat(followGraph.isFollowing(500L, 1L)).isTrue();
+        assertThat(followGraph.countFollowers(1L)).isEqualTo(999);
+    }
+
+    @Test
+    @DisplayName("Should get mutual follows and mutual followers")
+    void shouldGetMutuals() {
+        // given
+        load(
+                edge(1L, 1L, 2L),
+                edge(2L, 2L, 1L),
+                edge(3L, 1L, 3L),
+                edge(4L, 4L, 1L),
+                edge(5L, 4L, 3L),
+                edge(6L, 2L, 3L)
+        );
+
+        // then
+        assertThat(followGraph.getMutualFollows(1L)).containsExactly(2L);
+        // customer 3 is followed by 1, 2 and 4, customer 1 follows 2 and customer 4 follows 1
+        assertThat(followGraph.countMutualFollowers(1L, 3L)).isEqualTo(1);
+        assertThat(followGraph.countMutualFollowers(4L, 3L)).isEqualTo(1);
+        assertThat(followGraph.countMutualFollowers(3L, 1L)).isZero();
+        assertThat(followGraph.countMutualFollowers(1L, 99L)).isZero();
+    }
+}
@@ -3,13 +3,19 @@ package com.damian.photogram.domain.customer;
 import com.damian.photogram.app.auth.dto.AuthenticationRequest;
 import com.damian.photogram.app.auth.dto.AuthenticationResponse;
 import com.damian.photogram.domain.account.enums.AccountStatus;
+import com.damian.photogram.domain.customer.dto.request.FollowStateBatchRequest;
 import com.damian.photogram.domain.customer.dto.response.FollowDto;
+import com.damian.photogram.domain.customer.dto.response.FollowStateDto;
+import com.damian.photogram.domain.customer.dto.response.FollowSuggestionDto;
+import com.damian.photogram.domain.customer.dto.response.MutualFollowersDto;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.model.Follow;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.service.FollowGraph;
+import com.damian.photogram.domain.customer.service.FollowSuggestionService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
@@ -24,6 +30,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -48,6 +55,12 @@ public class FollowIntegrationTest {
     @Autowired
     private FollowRepository followRepository;
 
+    @Autowired
+    private FollowGraph followGraph;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
     @Autowired
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
@@ -137,6 +150,62 @@ public class FollowIntegrationTest {
         assertThat(followDto[0].followedCustomerId()).isEqualTo(customer.getId());
     }
 
+    @Test
+    @DisplayName("Should scroll followers with cursor")
+    void shouldScrollFollowers() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Customer followedCustomer = new Customer(
+                "scroll-followed@test.com",
+                bCryptPasswordEncoder.encode("123456")
+        );
+        customerRepository.save(followedCustomer);
+
+        for (int i = 0; i < 2; i++) {
+            Customer follower = new Customer(
+                    "scroll-follower" + i + "@test.com",
+                    bCryptPasswordEncoder.encode("123456")
+            );
+            customerRepository.save(follower);
+            followRepository.save(new Follow(followedCustomer, follower));
+        }
+
+        // when
+        MvcResult firstResult = mockMvc
+                .perform(
+                        get("/api/v1/customers/{id}/followers/scroll", followedCustomer.getId())
+                                .param("size", "1")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode firstPage = objectMapper.readTree(firstResult.getResponse().getContentAsString());
+
+        MvcResult secondResult = mockMvc
+                .perform(
+                        get("/api/v1/customers/{id}/followers/scroll", followedCustomer.getId())
+                                .param("size", "1")
+                                .param("before", firstPage.get("nextCursor").asText())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode secondPage = objectMapper.readTree(secondResult.getResponse().getContentAsString());
+
+        // then
+        FollowDto[] firstFollows = objectMapper.treeToValue(firstPage.get("content"), FollowDto[].class);
+        FollowDto[] secondFollows = objectMapper.treeToValue(secondPage.get("content"), FollowDto[].class);
+
+        assertThat(firstPage.get("hasNext").asBoolean()).isTrue();
+        assertThat(secondPage.get("hasNext").asBoolean()).isFalse();
+        assertEquals(1, firstFollows.length);
+        assertEquals(1, secondFollows.length);
+        assertThat(secondFollows[0].followerCustomerId()).isNotEqualTo(firstFollows[0].followerCustomerId());
+    }
+
     @Test
     @DisplayName("Should follow")
     void shouldFollow() throws Exception {
@@ -185,6 +254,7 @@ public class FollowIntegrationTest {
 
         Follow follow = new Follow(customerToBeFollowed, customer);
         followRepository.save(follow);
+        followGraph.rebuild();
 
         // when
         mockMvc
@@ -230,6 +300,7 @@ public class FollowIntegrationTest {
 
         Follow givenFollow = new Follow(customerFollowed, customer);
         followRepository.save(givenFollow);
+        followGraph.rebuild();
 
         // when
         mockMvc
@@ -266,4 +337,150 @@ public class FollowIntegrationTest {
 
         // then
     }
+
+    @Test
+    @DisplayName("Should get follow suggestions ranked by mutual follows")
+    void shouldGetFollowSuggestions() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Customer friend1 = new Customer("suggest-friend1@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer friend2 = new Customer("suggest-friend2@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer suggested1 = new Customer("suggested1@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer suggested2 = new Customer("suggested2@test.com", bCryptPasswordEncoder.encode("123456"));
+        customerRepository.saveAll(List.of(friend1, friend2, suggested1, suggested2));
+
+        followRepository.saveAll(List.of(
+                new Follow(friend1, customer),
+                new Follow(friend2, customer),
+                new Follow(suggested1, friend1),
+                new Follow(suggested1, friend2),
+                new Follow(suggested2, friend1),
+                new Follow(customer, friend2)
+        ));
+        followGraph.rebuild();
+        followSuggestionService.refresh();
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/follows/suggestions")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // then
+        FollowSuggestionDto[] suggestions = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                FollowSuggestionDto[].class
+        );
+
+        assertThat(suggestions).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(suggestions[0].customerId()).isEqualTo(suggested1.getId());
+        assertThat(suggestions[0].mutualFollows()).isEqualTo(2);
+        assertThat(suggestions[1].customerId()).isEqualTo(suggested2.getId());
+        assertThat(suggestions[1].mutualFollows()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should get the follow state of many customers at once")
+    void shouldGetFollowStates() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Customer followed = new Customer("state-followed@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer follower = new Customer("state-follower@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer stranger = new Customer("state-stranger@test.com", bCryptPasswordEncoder.encode("123456"));
+        customerRepository.saveAll(List.of(followed, follower, stranger));
+
+        followRepository.saveAll(List.of(
+                new Follow(followed, customer),
+                new Follow(customer, follower)
+        ));
+
+        FollowStateBatchRequest request = new FollowStateBatchRequest(
+                List.of(followed.getId(), follower.getId(), stranger.getId())
+        );
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        post("/api/v1/customers/follows/batch")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // then
+        FollowStateDto[] states = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                FollowStateDto[].class
+        );
+
+        assertThat(states).containsExactly(
+                new FollowStateDto(followed.getId(), true, false),
+                new FollowStateDto(follower.getId(), false, true),
+                new FollowStateDto(stranger.getId(), false, false)
+        );
+    }
+
+    @Test
+    @DisplayName("Should not get the follow state when no customer ids are given")
+    void shouldNotGetFollowStatesWhenEmpty() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        FollowStateBatchRequest request = new FollowStateBatchRequest(List.of());
+
+        // when
+        mockMvc
+                .perform(
+                        post("/api/v1/customers/follows/batch")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().is(400));
+    }
+
+    @Test
+    @DisplayName("Should count the followers of a customer followed by current customer")
+    void shouldGetMutualFollowers() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Customer profile = new Customer("mutual-profile@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer friend = new Customer("mutual-friend@test.com", bCryptPasswordEncoder.encode("123456"));
+        Customer other = new Customer("mutual-other@test.com", bCryptPasswordEncoder.encode("123456"));
+        customerRepository.saveAll(List.of(profile, friend, other));
+
+        followRepository.saveAll(List.of(
+                new Follow(friend, customer),
+                new Follow(profile, friend),
+                new Follow(profile, other)
+        ));
+        followGraph.rebuild();
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/customers/{id}/followers/mutual", profile.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        // then
+        MutualFollowersDto mutualFollowers = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                MutualFollowersDto.class
+        );
+
+        assertThat(mutualFollowers).isEqualTo(new MutualFollowersDto(profile.getId(), 1L));
+    }
 }
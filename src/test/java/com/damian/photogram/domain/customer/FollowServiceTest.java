@@ -1,6 +1,11 @@
 package com.damian.photogram.domain.customer;
 
+import com.damian.photogram.app.feed.TimelineService;
 import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
+import com.damian.photogram.domain.customer.dto.response.FollowStateDto;
+import com.damian.photogram.domain.customer.dto.response.MutualFollowersDto;
 import com.damian.photogram.domain.customer.exception.CustomerNotFoundException;
 import com.damian.photogram.domain.customer.exception.FollowAlreadyExistsException;
 import com.damian.photogram.domain.customer.exception.FollowNotFoundException;
@@ -9,6 +14,8 @@ import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.model.Follow;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
+import com.damian.photogram.domain.customer.service.FollowGraph;
 import com.damian.photogram.domain.customer.service.FollowService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +26,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +37,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -47,6 +57,15 @@ public class FollowServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private CustomerStatsService customerStatsService;
+
+    @Mock
+    private FollowGraph followGraph;
+
     @InjectMocks
     private FollowService followService;
 
@@ -145,6 +164,74 @@ public class FollowServiceTest {
         verify(followRepository, times(1)).findAllByFollowerCustomer_Id(currentCustomer.getId(), pageable);
     }
 
+    @Test
+    @DisplayName("Should get followers with cursor")
+    void shouldGetFollowersWithCursor() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Customer follower1 = new Customer(
+                2L, "customer1@test.com", passwordEncoder.encode("password")
+        );
+
+        Customer follower2 = new Customer(
+                3L, "customer2@test.com", passwordEncoder.encode("password")
+        );
+
+        Instant now = Instant.now();
+        Follow follow1 = new Follow(currentCustomer, follower1);
+        follow1.setId(2L);
+        follow1.setCreatedAt(now);
+
+        Follow follow2 = new Follow(currentCustomer, follower2);
+        follow2.setId(1L);
+        follow2.setCreatedAt(now.minusSeconds(10));
+
+        // when
+        when(customerRepository.existsById(currentCustomer.getId())).thenReturn(true);
+        when(followRepository.findLatestFollowers(currentCustomer.getId(), Limit.of(2)))
+                .thenReturn(List.of(follow1, follow2));
+        CursorPage<Follow> result = followService.getFollowers(currentCustomer.getId(), null, 1);
+
+        // then
+        assertEquals(List.of(follow1), result.content());
+        assertTrue(result.hasNext());
+        assertEquals(new Cursor(follow1.getCreatedAt(), follow1.getId()), Cursor.decode(result.nextCursor()));
+        verify(followRepository, never()).findAllByFollowedCustomer_Id(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should get followings with cursor")
+    void shouldGetFollowingsWithCursor() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Customer followed = new Customer(
+                2L, "customer1@test.com", passwordEncoder.encode("password")
+        );
+
+        Follow follow = new Follow(followed, currentCustomer);
+        follow.setId(1L);
+        Cursor cursor = new Cursor(Instant.now(), 5L);
+
+        // when
+        when(customerRepository.existsById(currentCustomer.getId())).thenReturn(true);
+        when(followRepository.findFollowedBefore(currentCustomer.getId(), cursor.createdAt(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(follow));
+        CursorPage<Follow> result = followService.getFollowed(currentCustomer.getId(), cursor.encode(), 2);
+
+        // then
+        assertEquals(List.of(follow), result.content());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
     @Test
     @DisplayName("Should add a follow")
     void shouldFollow() {
@@ -172,6 +259,10 @@ public class FollowServiceTest {
         // then
         assertNotNull(result);
         verify(followRepository, times(1)).save(any(Follow.class));
+        verify(customerStatsService, times(1)).incrementFollowers(friendCustomer.getId(), 1);
+        verify(customerStatsService, times(1)).incrementFollowing(currentCustomer.getId(), 1);
+        verify(timelineService, times(1)).backfill(currentCustomer.getId(), friendCustomer.getId());
+        verify(followGraph, times(1)).follow(currentCustomer.getId(), friendCustomer.getId());
     }
 
     @Test
@@ -196,7 +287,7 @@ public class FollowServiceTest {
         }
 
         // when
-        when(followRepository.countFollowersFromCustomer(followerCustomer.getId())).thenReturn((long) MAX_FOLLOWS + 1);
+        when(customerStatsService.countFollowers(followerCustomer.getId())).thenReturn((long) MAX_FOLLOWS + 1);
         FollowersLimitExceededException exception = assertThrows(
                 FollowersLimitExceededException.class,
                 () -> followService.follow(0L)
@@ -233,6 +324,35 @@ public class FollowServiceTest {
         assertEquals(Exceptions.FOLLOW.ALREADY_EXISTS, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Should not add a follow when the follow graph already has it")
+    void shouldNotFollowWhenAlreadyInGraph() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L,
+                "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        Customer friend1 = new Customer(
+                2L, "customer1@test.com", passwordEncoder.encode("password")
+        );
+
+        // when
+        when(customerRepository.findById(friend1.getId())).thenReturn(Optional.of(friend1));
+        when(followGraph.isReady()).thenReturn(true);
+        when(followGraph.isFollowing(currentCustomer.getId(), friend1.getId())).thenReturn(true);
+        FollowAlreadyExistsException exception = assertThrows(
+                FollowAlreadyExistsException.class,
+                () -> followService.follow(friend1.getId())
+        );
+
+        // then
+        assertEquals(Exceptions.FOLLOW.ALREADY_EXISTS, exception.getMessage());
+        verify(followRepository, never()).isFollowing(anyLong(), anyLong());
+    }
+
     @Test
     @DisplayName("Should not add a follow when customer not found")
     void shouldNotFollowWhenCustomerNotFound() {
@@ -286,6 +406,10 @@ public class FollowServiceTest {
 
         // then
         verify(followRepository, times(1)).deleteById(givenFollow.getId());
+        verify(customerStatsService, times(1)).incrementFollowers(followedCustomer.getId(), -1);
+        verify(customerStatsService, times(1)).incrementFollowing(currentCustomer.getId(), -1);
+        verify(timelineService, times(1)).purge(currentCustomer.getId(), followedCustomer.getId());
+        verify(followGraph, times(1)).unfollow(currentCustomer.getId(), followedCustomer.getId());
     }
 
     @Test
@@ -313,4 +437,100 @@ public class FollowServiceTest {
         // then
         assertEquals(Exceptions.FOLLOW.NOT_FOUND, exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Should not query the follow when the follow graph does not have it")
+    void shouldNotUnfollowWhenNotInGraph() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", passwordEncoder.encode("password"));
+        setUpContext(currentCustomer);
+
+        Customer followedCustomer = new Customer(
+                2L, "customer1@test.com", passwordEncoder.encode("password")
+        );
+
+        // when
+        when(customerRepository.existsById(followedCustomer.getId())).thenReturn(true);
+        when(followGraph.isReady()).thenReturn(true);
+        when(followGraph.isFollowing(currentCustomer.getId(), followedCustomer.getId())).thenReturn(false);
+        FollowNotFoundException exception = assertThrows(
+                FollowNotFoundException.class,
+                () -> followService.unfollow(followedCustomer.getId())
+        );
+
+        // then
+        assertEquals(Exceptions.FOLLOW.NOT_FOUND, exception.getMessage());
+        verify(followRepository, never()).findFollowRelationshipBetweenCustomers(anyLong(), anyLong());
+    }
+
+    FollowRepository.FollowPair followPair(Long followerId, Long followedId) {
+        FollowRepository.FollowPair pair = mock(FollowRepository.FollowPair.class);
+        when(pair.getFollowerId()).thenReturn(followerId);
+        lenient().when(pair.getFollowedId()).thenReturn(followedId);
+        return pair;
+    }
+
+    @Test
+    @DisplayName("Should get the follow state of many customers with one query")
+    void shouldGetFollowStates() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", passwordEncoder.encode("password"));
+        setUpContext(currentCustomer);
+
+        List<Long> customerIds = List.of(4L, 2L, 3L);
+        List<FollowRepository.FollowPair> pairs = List.of(
+                followPair(1L, 2L),
+                followPair(2L, 1L),
+                followPair(3L, 1L)
+        );
+
+        // when
+        when(followRepository.findFollowsBetween(eq(1L), anyCollection())).thenReturn(pairs);
+        List<FollowStateDto> result = followService.getFollowStates(customerIds);
+
+        // then
+        assertEquals(
+                List.of(
+                        new FollowStateDto(4L, false, false),
+                        new FollowStateDto(2L, true, true),
+                        new FollowStateDto(3L, false, true)
+                ),
+                result
+        );
+        verify(followRepository, times(1)).findFollowsBetween(eq(1L), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should count mutual followers from the database when the graph is not loaded")
+    void shouldGetMutualFollowers() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", passwordEncoder.encode("password"));
+        setUpContext(currentCustomer);
+
+        // when
+        when(customerRepository.existsById(2L)).thenReturn(true);
+        when(followRepository.countMutualFollowers(1L, 2L)).thenReturn(3L);
+        MutualFollowersDto result = followService.getMutualFollowers(2L);
+
+        // then
+        assertEquals(new MutualFollowersDto(2L, 3L), result);
+    }
+
+    @Test
+    @DisplayName("Should count mutual followers from the graph when loaded")
+    void shouldGetMutualFollowersFromGraph() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", passwordEncoder.encode("password"));
+        setUpContext(currentCustomer);
+
+        // when
+        when(customerRepository.existsById(2L)).thenReturn(true);
+        when(followGraph.isReady()).thenReturn(true);
+        when(followGraph.countMutualFollowers(1L, 2L)).thenReturn(5);
+        MutualFollowersDto result = followService.getMutualFollowers(2L);
+
+        // then
+        assertEquals(new MutualFollowersDto(2L, 5L), result);
+        verify(followRepository, never()).countMutualFollowers(anyLong(), anyLong());
+    }
 }
@@ -0,0 +1,163 @@
+package com.damian.photogram.domain.customer;
+
+import com.damian.photogram.domain.customer.dto.response.FollowSuggestionDto;
+import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.model.Profile;
+import com.damian.photogram.domain.customer.repository.FollowRepository;
+import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import com.damian.photogram.domain.customer.service.FollowGraph;
+import com.damian.photogram.domain.customer.service.FollowSuggestionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FollowSuggestionServiceTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @InjectMocks
+    private FollowSuggestionService followSuggestionService;
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    void setUpContext(Customer customer) {
+        Authentication authentication = Mockito.mock(Authentication.class);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(customer);
+    }
+
+    Profile profile(Long customerId) {
+        Customer customer = new Customer(customerId, "customer" + customerId + "@test.com", "password");
+        return customer.getProfile().setUsername("customer" + customerId);
+    }
+
+    @Test
+    @DisplayName("Should rank friends of friends by mutual follows using the graph")
+    void shouldGetSuggestionsFromGraph() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", "password");
+        setUpContext(currentCustomer);
+
+        // customer 1 follows 2 and 3, both follow 4, only 3 follows 5, 2 follows 1 back
+        when(followRepository.findFollowerCustomerIds()).thenReturn(List.of(1L));
+        when(followGraph.isReady()).thenReturn(true);
+        when(followGraph.getFollowing(1L)).thenReturn(new long[]{2L, 3L});
+        when(followGraph.getFollowing(2L)).thenReturn(new long[]{1L, 4L});
+        when(followGraph.getFollowing(3L)).thenReturn(new long[]{2L, 4L, 5L});
+        when(profileRepository.findAllByCustomer_IdIn(anyCollection())).thenReturn(List.of(profile(5L), profile(4L)));
+
+        // when
+        int refreshed = followSuggestionService.refresh();
+        List<FollowSuggestionDto> result = followSuggestionService.getSuggestions(10);
+
+        // then
+        assertThat(refreshed).isEqualTo(1);
+        assertThat(result).extracting(FollowSuggestionDto::customerId).containsExactly(4L, 5L);
+        assertThat(result).extracting(FollowSuggestionDto::mutualFollows).containsExactly(2L, 1L);
+        assertThat(result.get(0).username()).isEqualTo("customer4");
+    }
+
+    @Test
+    @DisplayName("Should compute suggestions from the database when the graph is not loaded")
+    void shouldGetSuggestionsFromDatabase() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", "password");
+        setUpContext(currentCustomer);
+
+        FollowRepository.FollowSuggestion row = mock(FollowRepository.FollowSuggestion.class);
+        when(row.getCustomerId()).thenReturn(7L);
+        when(row.getMutualFollows()).thenReturn(3L);
+
+        when(followRepository.findFollowerCustomerIds()).thenReturn(List.of(1L));
+        when(followRepository.findSuggestions(1L, Limit.of(FollowSuggestionService.MAX_SUGGESTIONS)))
+                .thenReturn(List.of(row));
+        when(profileRepository.findAllByCustomer_IdIn(List.of(7L))).thenReturn(List.of(profile(7L)));
+
+        // when
+        followSuggestionService.refresh();
+        List<FollowSuggestionDto> result = followSuggestionService.getSuggestions(10);
+
+        // then
+        assertThat(result).containsExactly(new FollowSuggestionDto(7L, "customer7", null, 3L));
+        verify(followGraph, never()).getFollowing(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should leave out the customers followed since the refresh when the graph is not loaded")
+    void shouldSkipFollowedSinceRefreshFromDatabase() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", "password");
+        setUpContext(currentCustomer);
+
+        FollowRepository.FollowSuggestion first = mock(FollowRepository.FollowSuggestion.class);
+        when(first.getCustomerId()).thenReturn(7L);
+        when(first.getMutualFollows()).thenReturn(3L);
+        FollowRepository.FollowSuggestion second = mock(FollowRepository.FollowSuggestion.class);
+        when(second.getCustomerId()).thenReturn(8L);
+        when(second.getMutualFollows()).thenReturn(2L);
+
+        // customer 1 followed 7 after the refresh, 8 follows 1
+        FollowRepository.FollowPair followed = mock(FollowRepository.FollowPair.class);
+        when(followed.getFollowerId()).thenReturn(1L);
+        when(followed.getFollowedId()).thenReturn(7L);
+        FollowRepository.FollowPair follower = mock(FollowRepository.FollowPair.class);
+        when(follower.getFollowerId()).thenReturn(8L);
+
+        when(followRepository.findFollowerCustomerIds()).thenReturn(List.of(1L));
+        when(followRepository.findSuggestions(1L, Limit.of(FollowSuggestionService.MAX_SUGGESTIONS)))
+                .thenReturn(List.of(first, second));
+        when(followRepository.findFollowsBetween(1L, List.of(7L, 8L))).thenReturn(List.of(followed, follower));
+        when(profileRepository.findAllByCustomer_IdIn(List.of(8L))).thenReturn(List.of(profile(8L)));
+
+        // when
+        followSuggestionService.refresh();
+        List<FollowSuggestionDto> result = followSuggestionService.getSuggestions(10);
+
+        // then
+        assertThat(result).containsExactly(new FollowSuggestionDto(8L, "customer8", null, 2L));
+        verify(followRepository, times(1)).findFollowsBetween(anyLong(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should return no suggestions before the first refresh")
+    void shouldGetNoSuggestionsBeforeRefresh() {
+        // given
+        Customer currentCustomer = new Customer(1L, "customer@test.com", "password");
+        setUpContext(currentCustomer);
+
+        // when
+        List<FollowSuggestionDto> result = followSuggestionService.getSuggestions(10);
+
+        // then
+        assertThat(result).isEmpty();
+        verify(profileRepository, never()).findAllByCustomer_IdIn(anyCollection());
+    }
+}
@@ -6,6 +6,7 @@ import com.damian.photogram.core.exception.ImageFileSizeExceededException;
 import com.damian.photogram.core.exception.ImageTypeNotAllowedException;
 import com.damian.photogram.core.service.ImageStorageService;
 import com.damian.photogram.core.service.ImageUploaderService;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
 import com.damian.photogram.domain.customer.model.Customer;
@@ -40,6 +41,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +52,9 @@ public class ProfileImageServiceTest {
     @Mock
     private ProfileRepository profileRepository;
 
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -112,8 +117,8 @@ public class ProfileImageServiceTest {
 
         // when
         when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
-        when(imageStorageService.getImage(anyString(), anyString())).thenReturn(r);
-        Resource resource = profileImageService.getProfileImage(customer.getId());
+        when(imageStorageService.getImage(anyString(), anyString(), isNull())).thenReturn(r);
+        Resource resource = profileImageService.getProfileImage(customer.getId(), null);
 
         // then
         assertNotNull(resource);
@@ -144,6 +149,7 @@ public class ProfileImageServiceTest {
         // when
         when(imageUploaderService.uploadImage(any(MultipartFile.class), anyString(), anyString())).thenReturn(
                 filename);
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         when(profileRepository.save(any(Profile.class))).thenReturn(customer.getProfile());
         String result = profileImageService.uploadImage(
                 RAW_PASSWORD, givenFile
@@ -166,6 +172,7 @@ public class ProfileImageServiceTest {
         );
 
         // when
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         when(imageUploaderService.uploadImage(any(MultipartFile.class), anyString(), anyString())).thenThrow(
                 ImageEmptyFileException.class
         );
@@ -188,6 +195,7 @@ public class ProfileImageServiceTest {
         );
 
         // when
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         when(imageUploaderService.uploadImage(any(MultipartFile.class), anyString(), anyString())).thenThrow(
                 ImageTypeNotAllowedException.class
         );
@@ -212,6 +220,7 @@ public class ProfileImageServiceTest {
         );
 
         // when
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         ImageFileSizeExceededException exception = assertThrows(
                 ImageFileSizeExceededException.class,
                 () -> profileImageService.uploadImage(RAW_PASSWORD, givenFile)
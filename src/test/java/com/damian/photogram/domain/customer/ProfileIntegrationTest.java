@@ -32,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -260,4 +261,69 @@ public class ProfileIntegrationTest {
         assertEquals(resource.contentLength(), file.getBytes().length);
         assertEquals(result.getResponse().getContentType(), file.getContentType());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should get customer profile image only when modified")
+    void shouldGetCustomerProfileImageWhenModified() throws Exception {
+        // given
+        loginWithCustomer(customerA);
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "avatar.jpg",
+                "image/jpeg",
+                new byte[]{1, 2, 3, 4, 5}
+        );
+
+        mockMvc.perform(
+                       multipart("/api/v1/customers/profile/photo")
+                               .file(file)
+                               .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                               .param("currentPassword", this.rawPassword))
+               .andExpect(status().is(201));
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/customers/{id}/profile/photo", customerA.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(status().is(200))
+                .andReturn();
+
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // then
+        assertThat(etag).isNotNull();
+        assertThat(result.getResponse().getContentAsByteArray()).isEqualTo(file.getBytes());
+
+        mockMvc.perform(
+                       get("/api/v1/customers/{id}/profile/photo", customerA.getId())
+                               .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                               .header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().is(304));
+
+        mockMvc.perform(
+                       get("/api/v1/customers/{id}/profile/photo", customerA.getId())
+                               .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                               .header(HttpHeaders.RANGE, "bytes=1-2"))
+               .andExpect(status().is(206))
+               .andExpect(content().bytes(new byte[]{2, 3}));
+    }
+
+    @Test
+    @DisplayName("Should not get customer profile image when size is not valid")
+    void shouldNotGetCustomerProfileImageWhenSizeIsNotValid() throws Exception {
+        // given
+        loginWithCustomer(customerA);
+
+        // when
+        mockMvc
+                .perform(
+                        get("/api/v1/customers/{id}/profile/photo", customerA.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .param("size", "huge"))
+                .andDo(print())
+                .andExpect(status().is(400));
+    }
+}
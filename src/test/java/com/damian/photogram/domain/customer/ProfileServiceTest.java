@@ -2,6 +2,7 @@ package com.damian.photogram.domain.customer;
 
 import com.damian.photogram.core.exception.Exceptions;
 import com.damian.photogram.core.exception.PasswordMismatchException;
+import com.damian.photogram.core.service.PasswordVerifier;
 import com.damian.photogram.domain.customer.dto.request.ProfileUpdateRequest;
 import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.exception.ProfileNotFoundException;
@@ -44,6 +45,9 @@ public class ProfileServiceTest {
     @Mock
     private ProfileRepository profileRepository;
 
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
     private BCryptPasswordEncoder passwordEncoder;
 
     @InjectMocks
@@ -100,7 +104,7 @@ public class ProfileServiceTest {
         );
 
         // when
-        when(profileRepository.findById(customer.getProfile().getId())).thenReturn(Optional.of(customer.getProfile()));
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         when(profileRepository.save(any(Profile.class))).thenReturn(customer.getProfile());
 
         Profile result = profileService.updateProfile(givenRequest);
@@ -129,7 +133,9 @@ public class ProfileServiceTest {
         );
 
         // when
-        when(profileRepository.findById(customer.getProfile().getId())).thenReturn(Optional.of(customer.getProfile()));
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
+        doThrow(new PasswordMismatchException(PasswordMismatchException.PASSWORD_MISMATCH))
+                .when(passwordVerifier).validatePassword(customer, givenRequest.currentPassword());
         PasswordMismatchException exception = assertThrows(
                 PasswordMismatchException.class,
                 () -> profileService.updateProfile(givenRequest)
@@ -153,7 +159,7 @@ public class ProfileServiceTest {
         );
 
         // when
-        when(profileRepository.findById(customer.getProfile().getId())).thenReturn(Optional.empty());
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.empty());
         ProfileNotFoundException exception = assertThrows(
                 ProfileNotFoundException.class,
                 () -> profileService.updateProfile(givenRequest)
@@ -180,7 +186,7 @@ public class ProfileServiceTest {
         givenProfile.setOwner(new Customer(5L, "customer@test.com", "12345"));
 
         // when
-        when(profileRepository.findById(customer.getProfile().getId())).thenReturn(Optional.of(givenProfile));
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(givenProfile));
         ProfileNotOwnerException exception = assertThrows(
                 ProfileNotOwnerException.class,
                 () -> profileService.updateProfile(givenRequest)
@@ -205,7 +211,7 @@ public class ProfileServiceTest {
         );
 
         // when
-        when(profileRepository.findById(customer.getProfile().getId())).thenReturn(Optional.of(customer.getProfile()));
+        when(profileRepository.findByCustomer_Id(customer.getId())).thenReturn(Optional.of(customer.getProfile()));
         ProfileUpdateValidationException exception = assertThrows(
                 ProfileUpdateValidationException.class,
                 () -> profileService.updateProfile(givenRequest)
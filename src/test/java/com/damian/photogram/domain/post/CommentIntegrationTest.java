@@ -158,6 +158,59 @@ public class CommentIntegrationTest {
 
     }
 
+    @Test
+    @DisplayName("Should scroll post comments with cursor")
+    void shouldScrollPostComments() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Post post = new Post(customer);
+        post.setDescription("Hello world.");
+        postRepository.save(post);
+
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment(customer, post);
+            comment.setComment("Comment " + i);
+            commentRepository.save(comment);
+        }
+
+        // when
+        MvcResult firstResult = mockMvc
+                .perform(
+                        get("/api/v1/posts/{id}/comments/scroll", post.getId())
+                                .param("size", "2")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode firstPage = objectMapper.readTree(firstResult.getResponse().getContentAsString());
+
+        MvcResult secondResult = mockMvc
+                .perform(
+                        get("/api/v1/posts/{id}/comments/scroll", post.getId())
+                                .param("size", "2")
+                                .param("before", firstPage.get("nextCursor").asText())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode secondPage = objectMapper.readTree(secondResult.getResponse().getContentAsString());
+
+        // then
+        CommentDto[] firstComments = objectMapper.treeToValue(firstPage.get("content"), CommentDto[].class);
+        CommentDto[] secondComments = objectMapper.treeToValue(secondPage.get("content"), CommentDto[].class);
+
+        assertThat(firstPage.get("hasNext").asBoolean()).isTrue();
+        assertThat(firstComments).hasSize(2);
+        assertThat(secondPage.get("hasNext").asBoolean()).isFalse();
+        assertThat(secondComments)
+                .hasSize(1)
+                .extracting(CommentDto::id)
+                .doesNotContain(firstComments[0].id(), firstComments[1].id());
+    }
+
     @Test
     @DisplayName("Should comment in post")
     void shouldAddComment() throws Exception {
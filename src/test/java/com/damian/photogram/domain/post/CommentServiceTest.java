@@ -1,6 +1,9 @@
 package com.damian.photogram.domain.post;
 
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.customer.model.Customer;
+import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.post.dto.request.CommentCreateRequest;
 import com.damian.photogram.domain.post.exception.CommentNotAuthorException;
 import com.damian.photogram.domain.post.exception.CommentNotFoundException;
@@ -19,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -28,6 +32,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -44,6 +50,9 @@ public class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private CustomerRepository customerRepository;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -108,6 +117,64 @@ public class CommentServiceTest {
         verify(commentRepository, times(1)).findAllByPostId(post.getId(), pageable);
     }
 
+    @Test
+    @DisplayName("Should get comments with cursor")
+    void shouldGetCommentsWithCursor() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+
+        Post post = Post.create(currentCustomer)
+                        .setId(1L)
+                        .setPhotoFilename("image.jpg")
+                        .setDescription("Hello world");
+
+        Instant now = Instant.now();
+        Comment comment1 = Comment.create(currentCustomer, post)
+                                  .setId(2L)
+                                  .setComment("comment 2")
+                                  .setCreatedAt(now);
+
+        Comment comment2 = Comment.create(currentCustomer, post)
+                                  .setId(1L)
+                                  .setComment("comment 1")
+                                  .setCreatedAt(now.minusSeconds(10));
+
+        Cursor cursor = new Cursor(now.plusSeconds(10), 3L);
+
+        // when
+        when(postRepository.existsById(post.getId())).thenReturn(true);
+        when(commentRepository.findByPostIdBefore(post.getId(), cursor.createdAt(), cursor.id(), Limit.of(2)))
+                .thenReturn(List.of(comment1, comment2));
+        CursorPage<Comment> result = commentService.getPostComments(post.getId(), cursor.encode(), 1);
+
+        // then
+        assertThat(result.content()).containsExactly(comment1);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(Cursor.decode(result.nextCursor()))
+                .isEqualTo(new Cursor(comment1.getCreatedAt(), comment1.getId()));
+        verify(commentRepository, never()).findAllByPostId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should not get comments with cursor when post not exists")
+    void shouldNotGetCommentsWithCursorWhenPostNotExists() {
+        // given
+        final Long postId = 1L;
+
+        // when
+        when(postRepository.existsById(postId)).thenReturn(false);
+
+        // then
+        assertThrows(
+                PostNotFoundException.class,
+                () -> commentService.getPostComments(postId, null, 8)
+        );
+        verify(commentRepository, never()).findLatestByPostId(anyLong(), any(Limit.class));
+    }
+
     @Test
     @DisplayName("Should comment in a post")
     void shouldComment() {
@@ -132,6 +199,7 @@ public class CommentServiceTest {
 
         // when
         when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        when(customerRepository.getReferenceById(currentCustomer.getId())).thenReturn(currentCustomer);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
         Comment result = commentService.addComment(post.getId(), request);
@@ -0,0 +1,118 @@
+package com.damian.photogram.domain.post;
+
+import com.damian.photogram.domain.post.repository.LikeRepository;
+import com.damian.photogram.domain.post.service.LikeBloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeBloomFilterTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @InjectMocks
+    private LikeBloomFilter likeBloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeBloomFilter, "enabled", true);
+        ReflectionTestUtils.setField(likeBloomFilter, "expectedLikes", 1000L);
+        ReflectionTestUtils.setField(likeBloomFilter, "falsePositiveProbability", 0.01);
+    }
+
+    LikeRepository.LikeKey likeKey(Long id, Long postId, Long customerId) {
+        LikeRepository.LikeKey key = mock(LikeRepository.LikeKey.class);
+        when(key.getId()).thenReturn(id);
+        when(key.getPostId()).thenReturn(postId);
+        when(key.getCustomerId()).thenReturn(customerId);
+        return key;
+    }
+
+    @Test
+    @DisplayName("Should go to the database until the filter is built")
+    void shouldMightContainBeforeBuild() {
+        // when
+        boolean result = likeBloomFilter.mightContain(1L, 1L);
+
+        // then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should contain the likes loaded on rebuild")
+    void shouldRebuildFromDatabase() {
+        // given
+        List<LikeRepository.LikeKey> keys = List.of(likeKey(1L, 10L, 1L), likeKey(2L, 11L, 2L));
+
+        // when
+        when(likeRepository.count()).thenReturn(2L);
+        when(likeRepository.findKeysAfter(0L, Limit.of(10_000))).thenReturn(keys);
+        long loaded = likeBloomFilter.rebuild();
+
+        // then
+        assertThat(loaded).isEqualTo(2L);
+        assertThat(likeBloomFilter.mightContain(10L, 1L)).isTrue();
+        assertThat(likeBloomFilter.mightContain(11L, 2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rule out most likes never added")
+    void shouldRuleOutMissingLikes() {
+        // given
+        when(likeRepository.count()).thenReturn(0L);
+        when(likeRepository.findKeysAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+        likeBloomFilter.rebuild();
+
+        for (long postId = 1; postId <= 500; postId++) {
+            likeBloomFilter.put(postId, 1L);
+        }
+
+        // when
+        int positives = 0;
+        for (long postId = 1; postId <= 1000; postId++) {
+            if (likeBloomFilter.mightContain(postId, 2L)) {
+                positives++;
+            }
+        }
+
+        // then
+        assertThat(positives).isLessThan(50);
+        assertThat(likeBloomFilter.mightContain(250L, 1L)).isTrue();
+        assertThat(likeBloomFilter.getExpectedFalsePositiveRate()).isLessThan(0.05);
+    }
+
+    @Test
+    @DisplayName("Should measure the false positive rate")
+    void shouldMeasureFalsePositiveRate() {
+        // given
+        when(likeRepository.count()).thenReturn(0L);
+        when(likeRepository.findKeysAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+        likeBloomFilter.rebuild();
+        likeBloomFilter.put(1L, 1L);
+
+        // when
+        likeBloomFilter.mightContain(1L, 1L);
+        likeBloomFilter.recordPositive(false);
+        likeBloomFilter.mightContain(2L, 1L);
+        likeBloomFilter.mightContain(3L, 1L);
+        likeBloomFilter.mightContain(4L, 1L);
+
+        // then
+        assertThat(likeBloomFilter.getFalsePositives()).isEqualTo(1L);
+        assertThat(likeBloomFilter.getFalsePositiveRate())
+                .isEqualTo((double) 1 / (1 + likeBloomFilter.getNegatives()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.damian.photogram.domain.post;
+
+import com.damian.photogram.domain.post.repository.PostRepository;
+import com.damian.photogram.domain.post.service.LikeCounterBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeCounterBufferTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Test
+    @DisplayName("Should count pending likes on top of the persisted counter")
+    void shouldCountPendingLikes() {
+        // given
+        likeCounterBuffer.increment(1L);
+        likeCounterBuffer.increment(1L);
+        likeCounterBuffer.decrement(1L);
+
+        // when
+        long result = likeCounterBuffer.count(1L, 5L);
+
+        // then
+        assertThat(result).isEqualTo(6L);
+        assertThat(likeCounterBuffer.count(2L, 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should flush only the deltas of changed posts")
+    void shouldFlushDeltas() {
+        // given
+        likeCounterBuffer.increment(1L);
+        likeCounterBuffer.increment(1L);
+        likeCounterBuffer.decrement(2L);
+        likeCounterBuffer.increment(3L);
+        likeCounterBuffer.decrement(3L);
+
+        // when
+        when(postRepository.incrementLikeCount(anyLong(), anyLong())).thenReturn(1);
+        int result = likeCounterBuffer.flush();
+
+        // then
+        assertThat(result).isEqualTo(2);
+        assertThat(likeCounterBuffer.pending(1L)).isZero();
+        verify(postRepository, times(1)).incrementLikeCount(1L, 2L);
+        verify(postRepository, times(1)).incrementLikeCount(2L, -1L);
+        verify(postRepository, never()).incrementLikeCount(eq(3L), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should flush the pending deltas before looking for drifted counters")
+    void shouldFlushBeforeReconcile() {
+        // given
+        likeCounterBuffer.increment(1L);
+
+        // when
+        when(postRepository.incrementLikeCount(1L, 1L)).thenReturn(1);
+        when(postRepository.findLikeCountDrifts()).thenReturn(List.of());
+        int result = likeCounterBuffer.reconcile();
+
+        // then
+        assertThat(result).isZero();
+        InOrder inOrder = inOrder(postRepository);
+        inOrder.verify(postRepository).incrementLikeCount(1L, 1L);
+        inOrder.verify(postRepository).findLikeCountDrifts();
+        verify(postRepository, never()).addLikeCountDrift(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should add only the drifts that did not change between observations")
+    void shouldAddStableDrifts() {
+        // given
+        // post 2 drifted because of deltas pending in another instance, flushed in between
+        when(postRepository.findLikeCountDrifts())
+                .thenReturn(List.of(drift(1L, 3L), drift(2L, 1L)))
+                .thenReturn(List.of(drift(1L, 3L)));
+
+        // when
+        when(postRepository.addLikeCountDrift(1L, 3L)).thenReturn(1);
+        int result = likeCounterBuffer.reconcile();
+
+        // then
+        assertThat(result).isEqualTo(1);
+        verify(postRepository, times(1)).addLikeCountDrift(1L, 3L);
+        verify(postRepository, never()).addLikeCountDrift(eq(2L), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not add a drift that changed between observations")
+    void shouldSkipChangedDrifts() {
+        // given
+        when(postRepository.findLikeCountDrifts())
+                .thenReturn(List.of(drift(1L, 3L)))
+                .thenReturn(List.of(drift(1L, 4L)));
+
+        // when
+        int result = likeCounterBuffer.reconcile();
+
+        // then
+        assertThat(result).isZero();
+        verify(postRepository, never()).addLikeCountDrift(anyLong(), anyLong());
+    }
+
+    private PostRepository.PostLikeDrift drift(Long postId, Long drift) {
+        return new PostRepository.PostLikeDrift() {
+            @Override
+            public Long getPostId() {
+                return postId;
+            }
+
+            @Override
+            public Long getDrift() {
+                return drift;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should keep the delta when flush fails")
+    void shouldKeepDeltaWhenFlushFails() {
+        // given
+        likeCounterBuffer.increment(1L);
+
+        // when
+        when(postRepository.incrementLikeCount(1L, 1L)).thenThrow(new RuntimeException("database down"));
+        likeCounterBuffer.flush();
+
+        // then
+        assertThat(likeCounterBuffer.pending(1L)).isEqualTo(1L);
+    }
+}
@@ -7,12 +7,15 @@ import com.damian.photogram.domain.customer.enums.CustomerGender;
 import com.damian.photogram.domain.customer.enums.CustomerRole;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
-import com.damian.photogram.domain.post.dto.response.LikeDto;
+import com.damian.photogram.domain.post.dto.request.PostLikeBatchRequest;
+import com.damian.photogram.domain.post.dto.response.LikeStatusDto;
 import com.damian.photogram.domain.post.dto.response.PostLikeDataDto;
 import com.damian.photogram.domain.post.model.Like;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.LikeRepository;
 import com.damian.photogram.domain.post.repository.PostRepository;
+import com.damian.photogram.domain.post.service.LikeBloomFilter;
+import com.damian.photogram.domain.post.service.LikeCounterBuffer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +29,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,6 +56,12 @@ public class LikeIntegrationTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private LikeBloomFilter likeBloomFilter;
+
+    @Autowired
+    private LikeCounterBuffer likeCounterBuffer;
+
     @Autowired
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
@@ -114,10 +124,12 @@ public class LikeIntegrationTest {
 
         Post post = new Post(customer);
         post.setDescription("Hello world.");
+        post.setLikeCount(1L);
         postRepository.save(post);
 
         Like like = new Like(post, customer);
         likeRepository.save(like);
+        likeBloomFilter.rebuild();
 
         // when
         MvcResult result = mockMvc
@@ -146,6 +158,81 @@ public class LikeIntegrationTest {
 
     }
 
+    @Test
+    @DisplayName("Should get like data from many posts")
+    void shouldGetPostsLikeData() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Customer otherCustomer = new Customer(
+                "other@test.com",
+                bCryptPasswordEncoder.encode("123456")
+        );
+        customerRepository.save(otherCustomer);
+
+        Post likedPost = new Post(customer);
+        likedPost.setDescription("Liked post.");
+        postRepository.save(likedPost);
+
+        Post notLikedPost = new Post(customer);
+        notLikedPost.setDescription("Not liked post.");
+        postRepository.save(notLikedPost);
+
+        likeRepository.save(new Like(likedPost, customer));
+        likeRepository.save(new Like(likedPost, otherCustomer));
+        likeRepository.save(new Like(notLikedPost, otherCustomer));
+        likeBloomFilter.rebuild();
+
+        // the likes were saved without going through the counters
+        likeCounterBuffer.reconcile();
+
+        PostLikeBatchRequest request = new PostLikeBatchRequest(
+                List.of(likedPost.getId(), notLikedPost.getId())
+        );
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        post("/api/v1/posts/likes/batch")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // then
+        PostLikeDataDto[] postsLikeData = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                PostLikeDataDto[].class
+        );
+
+        assertThat(postsLikeData).containsExactly(
+                new PostLikeDataDto(likedPost.getId(), true, 2L),
+                new PostLikeDataDto(notLikedPost.getId(), false, 1L)
+        );
+    }
+
+    @Test
+    @DisplayName("Should not get like data when no posts are given")
+    void shouldNotGetPostsLikeDataWhenEmpty() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        PostLikeBatchRequest request = new PostLikeBatchRequest(List.of());
+
+        // when
+        mockMvc
+                .perform(
+                        post("/api/v1/posts/likes/batch")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should like a post")
     void shouldLikePost() throws Exception {
@@ -167,19 +254,66 @@ public class LikeIntegrationTest {
                 .andReturn();
 
         // then
-        LikeDto likeDto = objectMapper.readValue(
+        LikeStatusDto likeStatus = objectMapper.readValue(
                 result.getResponse().getContentAsString(),
-                LikeDto.class
+                LikeStatusDto.class
         );
 
         // then
-        assertThat(likeDto)
+        assertThat(likeStatus)
                 .isNotNull()
                 .extracting(
-                        LikeDto::postId,
-                        LikeDto::customerId
-                ).containsExactly(post.getId(), customer.getId());
+                        LikeStatusDto::postId,
+                        LikeStatusDto::customerId,
+                        LikeStatusDto::liked,
+                        LikeStatusDto::changed
+                ).containsExactly(post.getId(), customer.getId(), true, true);
+        assertThat(likeRepository.isPostLikedByCustomer(post.getId(), customer.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not change anything when liking a post twice")
+    void shouldLikePostTwice() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Post post = new Post(customer);
+        postRepository.save(post);
+
+        likeRepository.save(new Like(post, customer));
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        post("/api/v1/posts/{id}/like", post.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().is(200))
+                .andReturn();
+
+        // then
+        LikeStatusDto likeStatus = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                LikeStatusDto.class
+        );
+
+        assertThat(likeStatus.liked()).isTrue();
+        assertThat(likeStatus.changed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not like a post when post not found")
+    void shouldNotLikePostWhenPostNotFound() throws Exception {
+        // given
+        loginWithCustomer(customer);
 
+        // when
+        mockMvc
+                .perform(
+                        post("/api/v1/posts/{id}/like", 999999L)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().is(404));
     }
 
     @Test
@@ -196,12 +330,22 @@ public class LikeIntegrationTest {
         likeRepository.save(like);
 
         // when
-        mockMvc
+        MvcResult result = mockMvc
                 .perform(
                         delete("/api/v1/posts/{id}/unlike", post.getId())
                                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
                 .andDo(print())
-                .andExpect(MockMvcResultMatchers.status().is(204))
+                .andExpect(MockMvcResultMatchers.status().is(200))
                 .andReturn();
+
+        // then
+        LikeStatusDto likeStatus = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                LikeStatusDto.class
+        );
+
+        assertThat(likeStatus.liked()).isFalse();
+        assertThat(likeStatus.changed()).isTrue();
+        assertThat(likeRepository.isPostLikedByCustomer(post.getId(), customer.getId())).isFalse();
     }
-}
\ No newline at end of file
+}
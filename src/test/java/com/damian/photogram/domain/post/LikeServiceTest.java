@@ -1,13 +1,14 @@
 package com.damian.photogram.domain.post;
 
 import com.damian.photogram.domain.customer.model.Customer;
-import com.damian.photogram.domain.post.exception.LikeNotFoundException;
-import com.damian.photogram.domain.post.exception.PostAlreadyLikedException;
+import com.damian.photogram.domain.post.dto.response.LikeStatusDto;
+import com.damian.photogram.domain.post.dto.response.PostLikeDataDto;
 import com.damian.photogram.domain.post.exception.PostNotFoundException;
-import com.damian.photogram.domain.post.model.Like;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.LikeRepository;
 import com.damian.photogram.domain.post.repository.PostRepository;
+import com.damian.photogram.domain.post.service.LikeBloomFilter;
+import com.damian.photogram.domain.post.service.LikeCounterBuffer;
 import com.damian.photogram.domain.post.service.LikeService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +24,9 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -38,6 +41,12 @@ public class LikeServiceTest {
     @Mock
     private LikeRepository likeRepository;
 
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Mock
+    private LikeBloomFilter likeBloomFilter;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -62,6 +71,111 @@ public class LikeServiceTest {
         when(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).thenReturn(customer);
     }
 
+    @Test
+    @DisplayName("Should get like data from the like counter")
+    void shouldGetPostLikeData() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        final Long postId = 1L;
+
+        // when
+        when(postRepository.findLikeCountById(postId)).thenReturn(Optional.of(10L));
+        when(likeBloomFilter.mightContain(postId, currentCustomer.getId())).thenReturn(true);
+        when(likeRepository.isPostLikedByCustomer(postId, currentCustomer.getId())).thenReturn(true);
+        when(likeCounterBuffer.count(postId, 10L)).thenReturn(12L);
+        PostLikeDataDto result = likeService.getPostLikeData(postId);
+
+        // then
+        assertThat(result).isEqualTo(new PostLikeDataDto(postId, true, 12L));
+        verify(likeBloomFilter, times(1)).recordPositive(true);
+    }
+
+    @Test
+    @DisplayName("Should not query the like when the bloom filter rules it out")
+    void shouldSkipLikeLookupWhenBloomFilterNegative() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        final Long postId = 1L;
+
+        // when
+        when(postRepository.findLikeCountById(postId)).thenReturn(Optional.of(3L));
+        when(likeBloomFilter.mightContain(postId, currentCustomer.getId())).thenReturn(false);
+        when(likeCounterBuffer.count(postId, 3L)).thenReturn(3L);
+        PostLikeDataDto result = likeService.getPostLikeData(postId);
+
+        // then
+        assertThat(result).isEqualTo(new PostLikeDataDto(postId, false, 3L));
+        verify(likeRepository, never()).isPostLikedByCustomer(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not get like data when post not found")
+    void shouldNotGetPostLikeDataWhenPostNotFound() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        // when
+        when(postRepository.findLikeCountById(1L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(
+                PostNotFoundException.class,
+                () -> likeService.getPostLikeData(1L)
+        );
+    }
+
+    @Test
+    @DisplayName("Should get like data from many posts")
+    void shouldGetPostsLikeData() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        List<Long> postIds = List.of(3L, 1L, 2L);
+        PostRepository.PostLikeCount post1Likes = mock(PostRepository.PostLikeCount.class);
+        PostRepository.PostLikeCount post3Likes = mock(PostRepository.PostLikeCount.class);
+
+        // when
+        when(post1Likes.getPostId()).thenReturn(1L);
+        when(post1Likes.getTotalLikes()).thenReturn(4L);
+        when(post3Likes.getPostId()).thenReturn(3L);
+        when(post3Likes.getTotalLikes()).thenReturn(1L);
+        when(postRepository.findLikeCountsByIds(anyCollection())).thenReturn(List.of(post1Likes, post3Likes));
+        when(likeCounterBuffer.count(1L, 4L)).thenReturn(5L);
+        when(likeCounterBuffer.count(3L, 1L)).thenReturn(1L);
+        when(likeBloomFilter.mightContain(anyLong(), eq(currentCustomer.getId()))).thenReturn(true);
+        when(likeBloomFilter.mightContain(2L, currentCustomer.getId())).thenReturn(false);
+        when(likeRepository.findPostIdsLikedByCustomer(Set.of(1L, 3L), currentCustomer.getId()))
+                .thenReturn(List.of(3L));
+        List<PostLikeDataDto> result = likeService.getPostsLikeData(postIds);
+
+        // then
+        assertThat(result).containsExactly(
+                new PostLikeDataDto(3L, true, 1L),
+                new PostLikeDataDto(1L, false, 5L),
+                new PostLikeDataDto(2L, false, 0L)
+        );
+        verify(likeRepository, never()).isPostLikedByCustomer(anyLong(), anyLong());
+        verify(likeBloomFilter, times(1)).recordPositive(false);
+    }
+
     @Test
     @DisplayName("Should like a post")
     void shouldLike() {
@@ -76,19 +190,15 @@ public class LikeServiceTest {
                         .setId(1L)
                         .setDescription("Hello world");
 
-        Like like = Like.create(post, currentCustomer);
-
         // when
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.isPostLikedByCustomer(post.getId(), currentCustomer.getId())).thenReturn(false);
-        when(likeRepository.save(any(Like.class))).thenReturn(like);
-        Like result = likeService.like(post.getId());
+        when(likeRepository.insertIfAbsent(post.getId(), currentCustomer.getId())).thenReturn(1);
+        LikeStatusDto result = likeService.like(post.getId());
 
         // then
-        assertThat(result)
-                .isNotNull();
-        verify(postRepository, times(1)).findById(post.getId());
-        verify(likeRepository, times(1)).save(any(Like.class));
+        assertThat(result).isEqualTo(new LikeStatusDto(post.getId(), currentCustomer.getId(), true, true));
+        verify(postRepository, never()).existsById(anyLong());
+        verify(likeCounterBuffer, times(1)).increment(post.getId());
+        verify(likeBloomFilter, times(1)).put(post.getId(), currentCustomer.getId());
     }
 
     @Test
@@ -105,19 +215,20 @@ public class LikeServiceTest {
         post.setId(1L);
 
         // when
-        when(postRepository.findById(post.getId())).thenReturn(Optional.empty());
+        when(likeRepository.insertIfAbsent(post.getId(), currentCustomer.getId())).thenReturn(0);
+        when(postRepository.existsById(post.getId())).thenReturn(false);
 
         // then
         assertThrows(
                 PostNotFoundException.class,
                 () -> likeService.like(post.getId())
         );
-
+        verify(likeCounterBuffer, never()).increment(anyLong());
     }
 
     @Test
-    @DisplayName("Should not like when post already liked")
-    void shouldNotLikeWhenPostWhenPostAlreadyLiked() {
+    @DisplayName("Should not change anything when post already liked")
+    void shouldNotChangeWhenPostAlreadyLiked() {
         // given
         Customer currentCustomer = new Customer(
                 1L, "customer@test.com",
@@ -130,15 +241,13 @@ public class LikeServiceTest {
                         .setDescription("Hello world");
 
         // when
-        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
-        when(likeRepository.isPostLikedByCustomer(post.getId(), currentCustomer.getId())).thenReturn(true);
+        when(likeRepository.insertIfAbsent(post.getId(), currentCustomer.getId())).thenReturn(0);
+        when(postRepository.existsById(post.getId())).thenReturn(true);
+        LikeStatusDto result = likeService.like(post.getId());
 
         // then
-        assertThrows(
-                PostAlreadyLikedException.class,
-                () -> likeService.like(post.getId())
-        );
-
+        assertThat(result).isEqualTo(new LikeStatusDto(post.getId(), currentCustomer.getId(), true, false));
+        verify(likeCounterBuffer, never()).increment(anyLong());
     }
 
     @Test
@@ -155,20 +264,14 @@ public class LikeServiceTest {
                         .setId(1L)
                         .setDescription("Hello world");
 
-        Like like = Like.create(post, currentCustomer);
-
         // when
-        when(postRepository.existsById(post.getId())).thenReturn(true);
-        when(likeRepository.findByPostIdAndCustomerId(
-                post.getId(),
-                currentCustomer.getId()
-        )).thenReturn(Optional.of(like));
-
-        likeService.unlike(post.getId());
+        when(likeRepository.deleteByPostIdAndCustomerId(post.getId(), currentCustomer.getId())).thenReturn(1);
+        LikeStatusDto result = likeService.unlike(post.getId());
 
         // then
-        //        assertThat(result).isNotNull().extracting("totalLikes").isEqualTo(0L);
-        verify(likeRepository, times(1)).findByPostIdAndCustomerId(anyLong(), anyLong());
+        assertThat(result).isEqualTo(new LikeStatusDto(post.getId(), currentCustomer.getId(), false, true));
+        verify(postRepository, never()).existsById(anyLong());
+        verify(likeCounterBuffer, times(1)).decrement(post.getId());
     }
 
     @Test
@@ -186,6 +289,7 @@ public class LikeServiceTest {
                         .setDescription("Hello world");
 
         // when
+        when(likeRepository.deleteByPostIdAndCustomerId(post.getId(), currentCustomer.getId())).thenReturn(0);
         when(postRepository.existsById(post.getId())).thenReturn(false);
 
         // then
@@ -196,8 +300,8 @@ public class LikeServiceTest {
     }
 
     @Test
-    @DisplayName("Should not unlike when post not liked")
-    void shouldNotUnlikeWhenPostNotLiked() {
+    @DisplayName("Should not change anything when post not liked")
+    void shouldNotChangeWhenPostNotLiked() {
         // given
         Customer currentCustomer = new Customer(
                 1L, "customer@test.com",
@@ -210,16 +314,12 @@ public class LikeServiceTest {
                         .setDescription("Hello world");
 
         // when
+        when(likeRepository.deleteByPostIdAndCustomerId(post.getId(), currentCustomer.getId())).thenReturn(0);
         when(postRepository.existsById(post.getId())).thenReturn(true);
-        when(likeRepository.findByPostIdAndCustomerId(
-                post.getId(),
-                currentCustomer.getId()
-        )).thenReturn(Optional.empty());
+        LikeStatusDto result = likeService.unlike(post.getId());
 
         // then
-        assertThrows(
-                LikeNotFoundException.class,
-                () -> likeService.unlike(post.getId())
-        );
+        assertThat(result).isEqualTo(new LikeStatusDto(post.getId(), currentCustomer.getId(), false, false));
+        verify(likeCounterBuffer, never()).decrement(anyLong());
     }
 }
@@ -8,9 +8,13 @@ import com.damian.photogram.domain.customer.enums.CustomerRole;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
 import com.damian.photogram.domain.post.dto.request.PostCreateRequest;
+import com.damian.photogram.domain.post.dto.response.PostDetailDto;
 import com.damian.photogram.domain.post.dto.response.PostDto;
+import com.damian.photogram.domain.post.model.Comment;
+import com.damian.photogram.domain.post.model.Like;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.CommentRepository;
+import com.damian.photogram.domain.post.repository.LikeRepository;
 import com.damian.photogram.domain.post.repository.PostRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,6 +30,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,6 +54,9 @@ public class PostIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private LikeRepository likeRepository;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -60,6 +68,7 @@ public class PostIntegrationTest {
 
     @AfterAll
     void tearDown() {
+        likeRepository.deleteAll();
         commentRepository.deleteAll();
         postRepository.deleteAll();
         customerRepository.deleteAll();
@@ -222,4 +231,129 @@ public class PostIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().is(204))
                 .andReturn();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should get post details by username")
+    void shouldGetPostDetailsByUsername() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        Post likedPost = new Post(customer);
+        likedPost.setPhotoFilename("liked.jpg");
+        likedPost.setDescription("Liked post");
+        likedPost.setLikeCount(1L);
+        postRepository.save(likedPost);
+
+        Post post = new Post(customer);
+        post.setPhotoFilename("post.jpg");
+        post.setDescription("Post without likes");
+        postRepository.save(post);
+
+        likeRepository.save(new Like(likedPost, customer));
+        commentRepository.save(new Comment(customer, likedPost).setComment("First"));
+        commentRepository.save(new Comment(customer, likedPost).setComment("Second"));
+
+        // when
+        MvcResult result = mockMvc
+                .perform(
+                        get("/api/v1/posts/{username}/details", customer.getProfile().getUsername())
+                                .param("size", "50")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        // then
+        JsonNode root = objectMapper.readTree(result.getResponse().getContentAsString());
+        PostDetailDto[] posts = objectMapper.treeToValue(root.get("content"), PostDetailDto[].class);
+
+        assertThat(posts)
+                .filteredOn(dto -> dto.id().equals(likedPost.getId()))
+                .singleElement()
+                .extracting(
+                        PostDetailDto::authorId,
+                        PostDetailDto::totalLikes,
+                        PostDetailDto::totalComments,
+                        PostDetailDto::hasBeenLiked
+                )
+                .containsExactly(customer.getId(), 1L, 2L, true);
+
+        assertThat(posts)
+                .filteredOn(dto -> dto.id().equals(post.getId()))
+                .singleElement()
+                .extracting(
+                        PostDetailDto::totalLikes,
+                        PostDetailDto::totalComments,
+                        PostDetailDto::hasBeenLiked
+                )
+                .containsExactly(0L, 0L, false);
+    }
+
+    @Test
+    @DisplayName("Should scroll posts by username with cursor")
+    void shouldScrollPostsByUsername() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        for (int i = 0; i < 3; i++) {
+            Post post = new Post(customer);
+            post.setPhotoFilename("demo.jpg");
+            post.setDescription("Post " + i);
+            postRepository.save(post);
+        }
+
+        // when
+        MvcResult firstResult = mockMvc
+                .perform(
+                        get("/api/v1/posts/{username}/scroll", customer.getProfile().getUsername())
+                                .param("size", "2")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode firstPage = objectMapper.readTree(firstResult.getResponse().getContentAsString());
+        String nextCursor = firstPage.get("nextCursor").asText();
+
+        MvcResult secondResult = mockMvc
+                .perform(
+                        get("/api/v1/posts/{username}/scroll", customer.getProfile().getUsername())
+                                .param("size", "2")
+                                .param("before", nextCursor)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode secondPage = objectMapper.readTree(secondResult.getResponse().getContentAsString());
+
+        // then
+        PostDto[] firstPosts = objectMapper.treeToValue(firstPage.get("content"), PostDto[].class);
+        PostDto[] secondPosts = objectMapper.treeToValue(secondPage.get("content"), PostDto[].class);
+
+        assertThat(firstPage.get("hasNext").asBoolean()).isTrue();
+        assertThat(firstPosts).hasSize(2);
+        assertThat(secondPosts)
+                .isNotEmpty()
+                .extracting(PostDto::id)
+                .doesNotContainAnyElementsOf(
+                        Arrays.stream(firstPosts).map(PostDto::id).toList()
+                );
+    }
+
+    @Test
+    @DisplayName("Should not scroll posts when cursor is invalid")
+    void shouldNotScrollPostsWhenCursorInvalid() throws Exception {
+        // given
+        loginWithCustomer(customer);
+
+        // when
+        mockMvc
+                .perform(
+                        get("/api/v1/posts/{username}/scroll", customer.getProfile().getUsername())
+                                .param("before", "not-a-cursor")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
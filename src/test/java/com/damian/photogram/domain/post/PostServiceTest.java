@@ -1,13 +1,22 @@
 package com.damian.photogram.domain.post;
 
+import com.damian.photogram.app.feed.TimelineService;
+import com.damian.photogram.core.exception.Exceptions;
+import com.damian.photogram.core.exception.ImageNotFoundException;
+import com.damian.photogram.core.exception.InvalidCursorException;
 import com.damian.photogram.core.service.ImageStorageService;
+import com.damian.photogram.core.utils.Cursor;
+import com.damian.photogram.core.utils.CursorPage;
 import com.damian.photogram.domain.customer.model.Customer;
 import com.damian.photogram.domain.customer.repository.CustomerRepository;
+import com.damian.photogram.domain.customer.repository.ProfileRepository;
+import com.damian.photogram.domain.customer.service.CustomerStatsService;
 import com.damian.photogram.domain.post.dto.request.PostCreateRequest;
 import com.damian.photogram.domain.post.exception.PostNotAuthorException;
 import com.damian.photogram.domain.post.exception.PostNotFoundException;
 import com.damian.photogram.domain.post.model.Post;
 import com.damian.photogram.domain.post.repository.PostRepository;
+import com.damian.photogram.domain.post.service.LikeCounterBuffer;
 import com.damian.photogram.domain.post.service.PostService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,11 +27,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,9 +50,21 @@ public class PostServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ProfileRepository profileRepository;
+
     @Mock
     private ImageStorageService imageStorageService;
 
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private CustomerStatsService customerStatsService;
+
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -86,6 +110,7 @@ public class PostServiceTest {
         );
 
         // when
+        when(customerRepository.getReferenceById(currentCustomer.getId())).thenReturn(currentCustomer);
         when(postRepository.save(any(Post.class))).thenReturn(post);
 
         Post result = postService.createPost(request);
@@ -96,6 +121,38 @@ public class PostServiceTest {
                 .extracting("photoFilename", "description")
                 .containsExactly(request.photoFilename(), request.description());
         verify(postRepository, times(1)).save(any(Post.class));
+        verify(customerStatsService, times(1)).incrementPosts(currentCustomer.getId(), 1);
+        verify(timelineService, times(1)).fanOut(post);
+    }
+
+    @Test
+    @DisplayName("Should not create a post with an image uploaded by another customer")
+    void shouldNotCreatePostWithImageNotUploaded() {
+        // given
+        Customer currentCustomer = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        setUpContext(currentCustomer);
+
+        PostCreateRequest request = new PostCreateRequest(
+                "ab".repeat(32) + ".jpg",
+                "Hello world"
+        );
+
+        // when
+        doThrow(new ImageNotFoundException(Exceptions.IMAGE.NOT_FOUND))
+                .when(imageStorageService)
+                .validateUploaderOrElseThrow(currentCustomer.getId(), request.photoFilename());
+
+        ImageNotFoundException exception = assertThrows(
+                ImageNotFoundException.class,
+                () -> postService.createPost(request)
+        );
+
+        // then
+        assertThat(exception.getMessage()).isEqualTo(Exceptions.IMAGE.NOT_FOUND);
+        verify(postRepository, never()).save(any(Post.class));
     }
 
     @Test
@@ -121,6 +178,7 @@ public class PostServiceTest {
         // then
         verify(postRepository, times(1)).findById(post.getId());
         verify(postRepository, times(1)).deleteById(post.getId());
+        verify(customerStatsService, times(1)).incrementPosts(currentCustomer.getId(), -1);
     }
 
     @Test
@@ -179,4 +237,80 @@ public class PostServiceTest {
         // then
         verify(postRepository, times(1)).findById(post.getId());
     }
+
+    @Test
+    @DisplayName("Should get first page of posts by username with cursor")
+    void shouldGetPostsByUsernameWithCursor() {
+        // given
+        Customer author = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        author.getProfile().setUsername("John");
+
+        Instant now = Instant.now();
+        Post newest = Post.create(author).setId(3L).setCreatedAt(now);
+        Post middle = Post.create(author).setId(2L).setCreatedAt(now.minusSeconds(10));
+        Post oldest = Post.create(author).setId(1L).setCreatedAt(now.minusSeconds(20));
+
+        // when
+        when(profileRepository.findByUsernameIgnoreCase("John")).thenReturn(Optional.of(author.getProfile()));
+        when(postRepository.findLatestByAuthorId(author.getId(), Limit.of(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        CursorPage<Post> result = postService.getPostsByUsername("John", null, 2);
+
+        // then
+        assertThat(result.content()).containsExactly(newest, middle);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(Cursor.decode(result.nextCursor()))
+                .isEqualTo(new Cursor(middle.getCreatedAt(), middle.getId()));
+    }
+
+    @Test
+    @DisplayName("Should get next page of posts by username seeking after the cursor")
+    void shouldGetNextPostsByUsernameWithCursor() {
+        // given
+        Customer author = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        author.getProfile().setUsername("John");
+
+        Instant now = Instant.now();
+        Post oldest = Post.create(author).setId(1L).setCreatedAt(now.minusSeconds(20));
+        Cursor cursor = new Cursor(now.minusSeconds(10), 2L);
+
+        // when
+        when(profileRepository.findByUsernameIgnoreCase("John")).thenReturn(Optional.of(author.getProfile()));
+        when(postRepository.findByAuthorIdBefore(author.getId(), cursor.createdAt(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(oldest));
+
+        CursorPage<Post> result = postService.getPostsByUsername("John", cursor.encode(), 2);
+
+        // then
+        assertThat(result.content()).containsExactly(oldest);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not get posts by username when cursor is invalid")
+    void shouldNotGetPostsByUsernameWhenCursorInvalid() {
+        // given
+        Customer author = new Customer(
+                1L, "customer@test.com",
+                passwordEncoder.encode("password")
+        );
+        author.getProfile().setUsername("John");
+
+        // when
+        when(profileRepository.findByUsernameIgnoreCase("John")).thenReturn(Optional.of(author.getProfile()));
+
+        // then
+        assertThrows(
+                InvalidCursorException.class,
+                () -> postService.getPostsByUsername("John", "not-a-cursor", 2)
+        );
+    }
 }